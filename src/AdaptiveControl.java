@@ -0,0 +1,204 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * This class represents a self-adaptive control of the parameters of a genetic algorithm.
+ * After each generation it reads two cheap signals, the improvement of the best fitness and the diversity
+ * of the population, and adjusts the mutation and crossover probabilities, and optionally the replacement
+ * fraction and the tournament size.
+ * While the search stagnates or the diversity is below its lower bound, mutation grows and crossover shrinks,
+ * favouring exploration. While it improves with diversity above its upper bound, mutation decays and crossover grows,
+ * favouring exploitation. Otherwise the parameters drift back to the values they had when the control started.
+ * Every value chosen is recorded, so the trajectories can be inspected after the run.
+ */
+public class AdaptiveControl {
+	private double minMutation, maxMutation, minCrossover, maxCrossover, minReplacement, maxReplacement;
+	private double lowDiversity, highDiversity;
+	private int patience, maxTournamentSize;
+	private boolean adaptReplacement, adaptTournamentSize;
+
+	private boolean started;
+	private double baseMutation, baseCrossover, baseReplacement, bestFitness;
+	private int baseTournamentSize, stagnation;
+	private List<Double> mutations, crossovers, replacements, tournamentSizes, diversities, bestFitnesses;
+
+	/**
+	 * Initializes the control with the default bounds.
+	 */
+	public AdaptiveControl() {
+		this(0.001, 0.5, 0.5, 1.0, 0.05, 0.3, 10);
+	}
+
+	/**
+	 * @param minMutation The lowest mutation probability.
+	 * @param maxMutation The highest mutation probability.
+	 * @param minCrossover The lowest crossover probability.
+	 * @param maxCrossover The highest crossover probability.
+	 * @param lowDiversity The diversity under which the control favours exploration.
+	 * @param highDiversity The diversity over which the control may favour exploitation.
+	 * @param patience The number of generations without improvement after which the search is considered stagnant.
+	 */
+	public AdaptiveControl(double minMutation, double maxMutation, double minCrossover, double maxCrossover,
+			double lowDiversity, double highDiversity, int patience) {
+		this.minMutation = minMutation;
+		this.maxMutation = maxMutation;
+		this.minCrossover = minCrossover;
+		this.maxCrossover = maxCrossover;
+		this.lowDiversity = lowDiversity;
+		this.highDiversity = highDiversity;
+		this.patience = patience;
+		this.minReplacement = 0.1;
+		this.maxReplacement = 0.9;
+		this.maxTournamentSize = 8;
+		mutations = new ArrayList<Double>();
+		crossovers = new ArrayList<Double>();
+		replacements = new ArrayList<Double>();
+		tournamentSizes = new ArrayList<Double>();
+		diversities = new ArrayList<Double>();
+		bestFitnesses = new ArrayList<Double>();
+	}
+
+	/**
+	 * Enables the adaptation of the replacement fraction.
+	 * @param minReplacement The lowest replacement fraction.
+	 * @param maxReplacement The highest replacement fraction.
+	 */
+	public void adaptReplacement(double minReplacement, double maxReplacement) {
+		this.adaptReplacement = true;
+		this.minReplacement = minReplacement;
+		this.maxReplacement = maxReplacement;
+	}
+
+	/**
+	 * Enables the adaptation of the tournament size, which only takes values that divide the size of the population.
+	 * @param maxTournamentSize The highest tournament size.
+	 */
+	public void adaptTournamentSize(int maxTournamentSize) {
+		this.adaptTournamentSize = true;
+		this.maxTournamentSize = maxTournamentSize;
+	}
+
+	/**
+	 * @param population A population.
+	 * @return The diversity of the population. If its edges are tracked it is the average pairwise edge distance divided
+	 * by the number of cities, read from the edge table the population keeps up to date. Otherwise it is the
+	 * coefficient of variation of the fitness values. The population is only read; enabling the tracking is up to its owner.
+	 */
+	public double diversity(Population population) {
+		if(population.isDiversityTracked()) {
+			return population.getEdgeFrequencies().getNormalizedDiversity();
+		}
+		double mean = population.getTotalFitness() / population.getSize(), variance = 0;
+		for(IIndividual e : population.getPopulation()) {
+			variance += (e.getFitness() - mean) * (e.getFitness() - mean);
+		}
+		variance /= population.getSize();
+		return mean == 0 ? 0 : Math.sqrt(variance) / mean;
+	}
+
+	/**
+	 * Reads the signals of the last generation and sets the parameters of the genetic algorithm for the next one.
+	 * @param algorithm The genetic algorithm being controlled.
+	 */
+	public void adapt(GeneticAlgorithm algorithm) {
+		if(!started) {
+			baseMutation = algorithm.getMutProb();
+			baseCrossover = algorithm.getCrossProb();
+			baseReplacement = algorithm.getReplaceFraction();
+			baseTournamentSize = (int) algorithm.getTournamentSize();
+			bestFitness = Double.NEGATIVE_INFINITY;
+			started = true;
+		}
+		double best = algorithm.getBestFitness();
+		boolean improved = best > bestFitness;
+		if(improved) {
+			bestFitness = best;
+			stagnation = 0;
+		}
+		else stagnation++;
+		double diversity = diversity(algorithm.getPopulation());
+
+		double mutation = algorithm.getMutProb(), crossover = algorithm.getCrossProb(), replacement = algorithm.getReplaceFraction();
+		int tournamentSize = (int) algorithm.getTournamentSize(), direction;
+		if(stagnation >= patience || diversity < lowDiversity) {
+			mutation = Math.min(mutation * 1.5, maxMutation);
+			crossover = Math.max(crossover * 0.95, minCrossover);
+			replacement = Math.min(replacement + 0.05, maxReplacement);
+			direction = -1;
+		}
+		else if(improved && diversity > highDiversity) {
+			mutation = Math.max(mutation * 0.9, minMutation);
+			crossover = Math.min(crossover * 1.05, maxCrossover);
+			replacement = Math.max(replacement - 0.05, minReplacement);
+			direction = 1;
+		}
+		else {
+			mutation += (baseMutation - mutation) * 0.1;
+			crossover += (baseCrossover - crossover) * 0.1;
+			replacement += (baseReplacement - replacement) * 0.1;
+			direction = Integer.signum(baseTournamentSize - tournamentSize);
+		}
+		algorithm.setMutProb(mutation);
+		algorithm.setCrossProb(crossover);
+		if(adaptReplacement) {
+			algorithm.setReplaceFraction(replacement);
+		}
+		if(adaptTournamentSize && tournamentSize > 0) {
+			algorithm.setTournamentSize(nextTournamentSize(tournamentSize, direction, algorithm.getPopulation().getSize()));
+		}
+
+		mutations.add(algorithm.getMutProb());
+		crossovers.add(algorithm.getCrossProb());
+		replacements.add(algorithm.getReplaceFraction());
+		tournamentSizes.add(algorithm.getTournamentSize());
+		diversities.add(diversity);
+		bestFitnesses.add(best);
+	}
+
+	/**
+	 * @return The closest tournament size in the given direction that divides the size of the population,
+	 * or the current one if there is none within the bounds.
+	 */
+	private int nextTournamentSize(int current, int direction, int populationSize) {
+		for(int t = current + direction; direction != 0 && t >= 2 && t <= maxTournamentSize; t += direction) {
+			if(populationSize % t == 0) return t;
+		}
+		return current;
+	}
+
+	/**
+	 * @return The number of generations without improvement of the best fitness.
+	 */
+	public int getStagnation() { return stagnation; }
+
+	/**
+	 * @return The mutation probability chosen after each generation.
+	 */
+	public List<Double> getMutationTrajectory() { return Collections.unmodifiableList(mutations); }
+
+	/**
+	 * @return The crossover probability chosen after each generation.
+	 */
+	public List<Double> getCrossoverTrajectory() { return Collections.unmodifiableList(crossovers); }
+
+	/**
+	 * @return The replacement fraction chosen after each generation.
+	 */
+	public List<Double> getReplacementTrajectory() { return Collections.unmodifiableList(replacements); }
+
+	/**
+	 * @return The tournament size chosen after each generation.
+	 */
+	public List<Double> getTournamentSizeTrajectory() { return Collections.unmodifiableList(tournamentSizes); }
+
+	/**
+	 * @return The diversity measured after each generation.
+	 */
+	public List<Double> getDiversityTrajectory() { return Collections.unmodifiableList(diversities); }
+
+	/**
+	 * @return The best fitness measured after each generation.
+	 */
+	public List<Double> getBestFitnessTrajectory() { return Collections.unmodifiableList(bestFitnesses); }
+}
@@ -0,0 +1,69 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * This class tests the adapt method of an AdaptiveControl.
+ * The method changes the parameters of a genetic algorithm after each generation.
+ */
+class AdaptiveControlTest {
+
+	private TSP instance() {
+		List<City> a = new ArrayList<City>();
+		for(int i=0; i<20;i++) {
+			a.add(new City("Andre" + i,new PointTwoDimensions(Math.cos(i*0.7)*100,Math.sin(i*1.3)*100)));
+		}
+		return new TSP(a);
+	}
+
+	@Test
+	void testTrajectories() {
+		GeneticAlgorithm test = new GeneticAlgorithm(instance(),new Random(0),64,0.01,0.7,0.5,30,2);
+		AdaptiveControl control = new AdaptiveControl();
+		control.adaptReplacement(0.2,0.8);
+		control.adaptTournamentSize(8);
+		test.setParameterControl(control);
+		test.solveWithTournament();
+		assertEquals(30,control.getMutationTrajectory().size());
+		assertEquals(30,control.getDiversityTrajectory().size());
+		for(int i=0;i<30;i++) {
+			assertTrue(control.getMutationTrajectory().get(i) >= 0.001 && control.getMutationTrajectory().get(i) <= 0.5);
+			assertTrue(control.getReplacementTrajectory().get(i) >= 0.2 && control.getReplacementTrajectory().get(i) <= 0.8);
+			assertEquals(0,64 % control.getTournamentSizeTrajectory().get(i).intValue());
+		}
+		for(int i=1;i<30;i++) {
+			assertTrue(control.getBestFitnessTrajectory().get(i) >= control.getBestFitnessTrajectory().get(i-1));
+		}
+	}
+
+	@Test
+	void testConvergedPopulationExplores() {
+		TSP first = instance();
+		GeneticAlgorithm test = new GeneticAlgorithm(first,new Random(0),16,0.01,0.7,0.5,1,2);
+		test.setPopulation(new Population(first,16));
+		AdaptiveControl control = new AdaptiveControl();
+		test.setParameterControl(control);
+		control.adapt(test);
+		assertEquals(0.0,control.getDiversityTrajectory().get(0),1e-12);
+		assertEquals(0.015,test.getMutProb(),1e-12);
+		assertTrue(test.getCrossProb() < 0.7);
+	}
+
+	@Test
+	void testDiversityOnlyReads() {
+		TSP first = instance();
+		Population population = new Population(first,new Random(0),16);
+		AdaptiveControl control = new AdaptiveControl();
+		control.diversity(population);
+		assertFalse(population.isDiversityTracked());
+		GeneticAlgorithm test = new GeneticAlgorithm(first,new Random(0),16,0.01,0.7,0.5,1,2);
+		test.setParameterControl(control);
+		assertTrue(test.getPopulation().isDiversityTracked());
+		test.setPopulation(population);
+		assertTrue(population.isDiversityTracked());
+	}
+}
@@ -0,0 +1,428 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class represents a macro benchmark, which runs configurations of the genetic algorithm on TSPLIB instances
+ * with fixed seeds and records how fast each run gets within given gaps of the optimal tour length.
+ * For each instance, configuration, seed and gap a Result records the generation, the number of evaluations and the
+ * time at which the best tour first got within the gap. The evaluations are counted from the distance lookups, n per
+ * evaluation of a tour of n cities, so they are the same on every machine for a given seed, while the times are not.
+ * The results are written as CSV and compared with the results of a baseline, so that a change which makes the solver
+ * reach its targets later is caught before it is rolled out. The evaluations are compared run by run. The times are
+ * measured after a warm-up run, so that they do not include the compilation of the solver, and since the time of a
+ * single run varies too much to fail a build on, their median over the seeds is compared, with a looser tolerance.
+ */
+public class Benchmark {
+	/**
+	 * The header of the CSV files.
+	 */
+	public static final String HEADER = "instance,configuration,seed,gap,reached,generation,evaluations,millis";
+	/**
+	 * The directory where main looks for the .tsp files and the baseline by default.
+	 */
+	public static final Path INSTANCES = Path.of("instances");
+	/**
+	 * The instances run by main, which are bundled in INSTANCES.
+	 */
+	public static final String[] NAMES = {"grid64", "grid100", "grid144", "grid256"};
+	/**
+	 * The allowed increase of the evaluations of a run, as a fraction of the baseline.
+	 */
+	public static final double EVALUATION_TOLERANCE = 0.05;
+	/**
+	 * The allowed increase of the median time over the seeds, as a fraction of the baseline.
+	 */
+	public static final double TIME_TOLERANCE = 0.5;
+	/**
+	 * The allowed increase of the median time in milliseconds on top of TIME_TOLERANCE, so that targets reached in a few
+	 * milliseconds do not fail on noise.
+	 */
+	public static final double TIME_SLACK = 25;
+	private static final int WARM_UP_GENERATIONS = 50;
+
+	private List<TsplibInstance> instances = new ArrayList<TsplibInstance>();
+	private List<Double> optima = new ArrayList<Double>();
+	private List<ParameterRace.Configuration> configurations = new ArrayList<ParameterRace.Configuration>();
+	private long[] seeds;
+	private double[] gaps = {0.10, 0.05, 0.02, 0.01};
+	private int generations;
+
+	/**
+	 * This class represents the time to target of one run for one gap.
+	 */
+	public static class Result {
+		private String instance, configuration;
+		private long seed, evaluations;
+		private double gap, millis;
+		private boolean reached;
+		private int generation;
+
+		/**
+		 * @param instance The name of the instance.
+		 * @param configuration The configuration, as given by its toString.
+		 * @param seed The seed of the run.
+		 * @param gap The gap to the optimum, as a fraction of it.
+		 * @param reached True If the run got within the gap, else False.
+		 * @param generation The generation at which it got within the gap, or the number of generations run if it did not.
+		 * @param evaluations The number of evaluations until then.
+		 * @param millis The time until then, in milliseconds.
+		 */
+		public Result(String instance, String configuration, long seed, double gap, boolean reached, int generation,
+				long evaluations, double millis) {
+			this.instance = instance;
+			this.configuration = configuration;
+			this.seed = seed;
+			this.gap = gap;
+			this.reached = reached;
+			this.generation = generation;
+			this.evaluations = evaluations;
+			this.millis = millis;
+		}
+
+		/**
+		 * @return The name of the instance.
+		 */
+		public String getInstance() { return instance; }
+
+		/**
+		 * @return The configuration, as given by its toString.
+		 */
+		public String getConfiguration() { return configuration; }
+
+		/**
+		 * @return The seed of the run.
+		 */
+		public long getSeed() { return seed; }
+
+		/**
+		 * @return The gap to the optimum, as a fraction of it.
+		 */
+		public double getGap() { return gap; }
+
+		/**
+		 * @return True If the run got within the gap, else False.
+		 */
+		public boolean isReached() { return reached; }
+
+		/**
+		 * @return The generation at which the run got within the gap, or the number of generations run if it did not.
+		 */
+		public int getGeneration() { return generation; }
+
+		/**
+		 * @return The number of evaluations until the run got within the gap.
+		 */
+		public long getEvaluations() { return evaluations; }
+
+		/**
+		 * @return The time until the run got within the gap, in milliseconds.
+		 */
+		public double getMillis() { return millis; }
+
+		/**
+		 * @return The instance, configuration, seed and gap, which identify the result across runs of the benchmark.
+		 */
+		public String getKey() {
+			return instance + "," + configuration + "," + seed + "," + gap;
+		}
+
+		/**
+		 * @return A line of CSV, in the order of HEADER.
+		 */
+		public String toCsv() {
+			return getKey() + "," + reached + "," + generation + "," + evaluations + "," + millis;
+		}
+
+		/**
+		 * @param line A line of CSV, in the order of HEADER.
+		 * @return The result written on the line.
+		 */
+		public static Result parse(String line) {
+			String[] f = line.split(",");
+			if(f.length != 8)
+				throw new IllegalArgumentException("The line " + line + " is not a result!");
+			return new Result(f[0], f[1], Long.parseLong(f[2]), Double.parseDouble(f[3]), Boolean.parseBoolean(f[4]),
+					Integer.parseInt(f[5]), Long.parseLong(f[6]), Double.parseDouble(f[7]));
+		}
+	}
+
+	/**
+	 * @param generations The maximum number of generations of each run.
+	 * @param seeds The seeds of the runs of each configuration on each instance.
+	 */
+	public Benchmark(int generations, long... seeds) {
+		this.generations = generations;
+		this.seeds = seeds;
+	}
+
+	/**
+	 * @param instance An instance whose optimum is published.
+	 */
+	public void addInstance(TsplibInstance instance) {
+		addInstance(instance, instance.getOptimum());
+	}
+
+	/**
+	 * @param instance An instance.
+	 * @param optimum The length of an optimal tour of the instance.
+	 */
+	public void addInstance(TsplibInstance instance, double optimum) {
+		if(Double.isNaN(optimum))
+			throw new IllegalArgumentException("The optimum of " + instance.getName() + " is not known!");
+		instances.add(instance);
+		optima.add(optimum);
+	}
+
+	/**
+	 * @param configuration A configuration of the genetic algorithm, with tournament selection if its tournament size
+	 * is positive and roulette wheel selection otherwise.
+	 */
+	public void addConfiguration(ParameterRace.Configuration configuration) {
+		configurations.add(configuration);
+	}
+
+	/**
+	 * Change the gaps to the optimum at which the runs are measured.
+	 * @param gaps The gaps, as fractions of the optimum.
+	 */
+	public void setGaps(double... gaps) {
+		this.gaps = gaps;
+	}
+
+	/**
+	 * Runs every configuration on every instance with every seed, after a warm-up run of every configuration on the
+	 * first instance, whose results are discarded.
+	 * @return The results, one per instance, configuration, seed and gap.
+	 */
+	public List<Result> run() {
+		if(!instances.isEmpty()) {
+			int generations = this.generations;
+			this.generations = Math.min(generations, WARM_UP_GENERATIONS);
+			for(ParameterRace.Configuration c : configurations) {
+				run(instances.get(0), 0, c, 0);
+			}
+			this.generations = generations;
+		}
+		List<Result> results = new ArrayList<Result>();
+		for(int i = 0; i < instances.size(); i++) {
+			for(ParameterRace.Configuration c : configurations) {
+				for(long seed : seeds) {
+					results.addAll(run(instances.get(i), optima.get(i), c, seed));
+				}
+			}
+		}
+		return results;
+	}
+
+	/**
+	 * Runs a configuration on an instance until it is within every gap or it ran every generation.
+	 * @return The results of the run, one per gap.
+	 */
+	private List<Result> run(TsplibInstance instance, double optimum, ParameterRace.Configuration c, long seed) {
+		int n = instance.getCities().size();
+		LongAdder lookups = new LongAdder();
+		IDistance counting = (a, b) -> {
+			lookups.increment();
+			return instance.distance(a, b);
+		};
+		long start = System.nanoTime();
+		GeneticAlgorithm algorithm = new GeneticAlgorithm(new TSP(new ArrayList<City>(instance.getCities()), counting),
+				new RandomStreams(seed).master(), c.getPopuSize(), c.getMutProb(), c.getCrossProb(), c.getReplaceFraction(),
+				generations, c.getTournamentSize());
+		Result[] results = new Result[gaps.length];
+		int open = gaps.length;
+		for(int generation = 0; open > 0; generation++) {
+			double length = 1 / algorithm.getBestFitness();
+			for(int k = 0; k < gaps.length; k++) {
+				if(results[k] == null && length <= optimum * (1 + gaps[k]) + 1e-9) {
+					results[k] = new Result(instance.getName(), c.toString(), seed, gaps[k], true, generation,
+							lookups.sum() / n, (System.nanoTime() - start) / 1e6);
+					open--;
+				}
+			}
+			if(open == 0 || generation == generations) break;
+			if(c.getTournamentSize() < 1) algorithm.nextGenerationWithRoulette();
+			else algorithm.nextGenerationWithTournament();
+		}
+		List<Result> list = new ArrayList<Result>();
+		for(int k = 0; k < gaps.length; k++) {
+			if(results[k] == null) {
+				results[k] = new Result(instance.getName(), c.toString(), seed, gaps[k], false, algorithm.getGeneration(),
+						lookups.sum() / n, (System.nanoTime() - start) / 1e6);
+			}
+			list.add(results[k]);
+		}
+		return list;
+	}
+
+	/**
+	 * @param results The results to be written.
+	 * @return The results as CSV, with a header.
+	 */
+	public static String toCsv(List<Result> results) {
+		StringBuilder a = new StringBuilder(HEADER).append('\n');
+		for(Result r : results) {
+			a.append(r.toCsv()).append('\n');
+		}
+		return a.toString();
+	}
+
+	/**
+	 * @param file A CSV file written by toCsv.
+	 * @return The results in the file.
+	 * @throws IOException If the file can not be read.
+	 */
+	public static List<Result> readCsv(Path file) throws IOException {
+		List<Result> results = new ArrayList<Result>();
+		for(String line : Files.readAllLines(file)) {
+			if(line.isBlank() || line.equals(HEADER)) continue;
+			results.add(Result.parse(line));
+		}
+		return results;
+	}
+
+	/**
+	 * Compares results with those of a baseline with the same instances, configurations, seeds and gaps.
+	 * A result is a regression if the baseline reached its gap and it did not, or if it took more evaluations than the
+	 * baseline beyond the given tolerance. The times are not compared. Results missing from the baseline are not compared.
+	 * @param results The results of the current version.
+	 * @param baseline The results of the baseline.
+	 * @param evaluationTolerance The allowed increase of the evaluations, as a fraction of the baseline.
+	 * @return A description of every regression, empty if there are none.
+	 */
+	public static List<String> compare(List<Result> results, List<Result> baseline, double evaluationTolerance) {
+		Map<String,Result> before = new HashMap<String,Result>();
+		for(Result r : baseline) {
+			before.put(r.getKey(), r);
+		}
+		List<String> regressions = new ArrayList<String>();
+		for(Result r : results) {
+			Result b = before.get(r.getKey());
+			if(b == null || !b.isReached()) continue;
+			if(!r.isReached())
+				regressions.add(r.getKey() + ": the gap was reached by the baseline at generation " + b.getGeneration() + ", but not any more");
+			else if(r.getEvaluations() > b.getEvaluations() * (1 + evaluationTolerance))
+				regressions.add(r.getKey() + ": " + r.getEvaluations() + " evaluations instead of " + b.getEvaluations());
+		}
+		return regressions;
+	}
+
+	/**
+	 * Compares the median times over the seeds with those of a baseline, for every instance, configuration and gap
+	 * reached by every run of the baseline. The evaluations are not compared.
+	 * @param results The results of the current version.
+	 * @param baseline The results of the baseline.
+	 * @param timeTolerance The allowed increase of the median time, as a fraction of the baseline.
+	 * @param slack The allowed increase of the median time in milliseconds, on top of the tolerance.
+	 * @return A description of every regression, empty if there are none.
+	 */
+	public static List<String> compareTimes(List<Result> results, List<Result> baseline, double timeTolerance, double slack) {
+		Map<String,List<Result>> before = bySeeds(baseline), after = bySeeds(results);
+		List<String> regressions = new ArrayList<String>();
+		for(Map.Entry<String,List<Result>> e : after.entrySet()) {
+			List<Result> b = before.get(e.getKey());
+			if(b == null || !b.stream().allMatch(Result::isReached)) continue;
+			double median = median(e.getValue()), baselineMedian = median(b);
+			if(median > baselineMedian * (1 + timeTolerance) + slack)
+				regressions.add(e.getKey() + ": a median of " + median + " ms instead of " + baselineMedian + " ms");
+		}
+		return regressions;
+	}
+
+	/**
+	 * @param results The results of the current version.
+	 * @param baseline The results of the baseline.
+	 * @return The keys of the results which are not in the baseline and of the baseline which are not in the results.
+	 */
+	public static List<String> missing(List<Result> results, List<Result> baseline) {
+		Map<String,Result> before = new HashMap<String,Result>(), after = new HashMap<String,Result>();
+		for(Result r : baseline) {
+			before.put(r.getKey(), r);
+		}
+		for(Result r : results) {
+			after.put(r.getKey(), r);
+		}
+		List<String> missing = new ArrayList<String>();
+		for(Result r : results) {
+			if(!before.containsKey(r.getKey())) missing.add(r.getKey() + " is not in the baseline");
+		}
+		for(Result r : baseline) {
+			if(!after.containsKey(r.getKey())) missing.add(r.getKey() + " was not run");
+		}
+		return missing;
+	}
+
+	/**
+	 * @return The results grouped by instance, configuration and gap, in the order they first appear.
+	 */
+	private static Map<String,List<Result>> bySeeds(List<Result> results) {
+		Map<String,List<Result>> groups = new LinkedHashMap<String,List<Result>>();
+		for(Result r : results) {
+			groups.computeIfAbsent(r.getInstance() + "," + r.getConfiguration() + "," + r.getGap(), k -> new ArrayList<Result>()).add(r);
+		}
+		return groups;
+	}
+
+	/**
+	 * @return The median of the times of the results.
+	 */
+	private static double median(List<Result> results) {
+		double[] millis = results.stream().mapToDouble(Result::getMillis).sorted().toArray();
+		int m = millis.length / 2;
+		return millis.length % 2 == 1 ? millis[m] : (millis[m - 1] + millis[m]) / 2;
+	}
+
+	/**
+	 * Runs the benchmark on the instances of NAMES in a directory, writes the results and compares them with a baseline.
+	 * With the option --record the results are written to the baseline instead. A missing instance or baseline, or a
+	 * baseline which does not cover the same runs, is an error, so the benchmark can not pass by running nothing.
+	 * The process exits with status 1 if there are regressions.
+	 * @param args Optionally --record, then the directory of the .tsp files, instances by default, the file of the results
+	 * and the file of the baseline, baseline.csv in the directory of the instances by default.
+	 * @throws IOException If a file can not be read or written, or an instance or the baseline is missing.
+	 */
+	public static void main(String[] args) throws IOException {
+		boolean record = args.length > 0 && args[0].equals("--record");
+		if(record) args = Arrays.copyOfRange(args, 1, args.length);
+		Path directory = args.length > 0 ? Path.of(args[0]) : INSTANCES;
+		Path baseline = args.length > 2 ? Path.of(args[2]) : directory.resolve("baseline.csv");
+		if(!record && !Files.exists(baseline))
+			throw new NoSuchFileException(baseline.toString(), null, "there is no baseline, record one with --record");
+		Benchmark benchmark = new Benchmark(2000, 1, 2, 3, 4, 5);
+		benchmark.setGaps(1.0, 0.5, 0.25, 0.1);
+		for(String name : NAMES) {
+			Path file = directory.resolve(name + ".tsp");
+			if(!Files.exists(file))
+				throw new NoSuchFileException(file.toString(), null, "the instance " + name + " was not found");
+			benchmark.addInstance(TsplibInstance.read(file));
+		}
+		benchmark.addConfiguration(new ParameterRace.Configuration(100, 0.05, 0.8, 0.5, 2));
+		benchmark.addConfiguration(new ParameterRace.Configuration(200, 0.02, 0.9, 0.5, 4));
+		List<Result> results = benchmark.run();
+		String csv = toCsv(results);
+		if(args.length > 1) Files.writeString(Path.of(args[1]), csv);
+		else System.out.print(csv);
+		if(record) {
+			Files.writeString(baseline, csv);
+			System.err.println("Recorded the baseline " + baseline);
+			return;
+		}
+		List<Result> before = readCsv(baseline);
+		List<String> regressions = missing(results, before);
+		regressions.addAll(compare(results, before, EVALUATION_TOLERANCE));
+		regressions.addAll(compareTimes(results, before, TIME_TOLERANCE, TIME_SLACK));
+		for(String r : regressions) {
+			System.err.println("Regression " + r);
+		}
+		if(!regressions.isEmpty()) System.exit(1);
+	}
+}
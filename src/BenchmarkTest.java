@@ -0,0 +1,100 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * This class tests the reading of TSPLIB instances, and the run and comparison of a Benchmark.
+ */
+class BenchmarkTest {
+
+	/**
+	 * Writes an instance of 10 cities on the border of a 40 by 10 rectangle, whose optimal tour has length 100.
+	 */
+	private Path rectangle() throws IOException {
+		StringBuilder a = new StringBuilder("NAME : rectangle10\nTYPE : TSP\nDIMENSION : 10\nEDGE_WEIGHT_TYPE : EUC_2D\nNODE_COORD_SECTION\n");
+		int[] order = {0, 5, 1, 6, 2, 7, 3, 8, 4, 9};
+		for(int k=0;k<10;k++) {
+			int i = order[k];
+			a.append(k+1).append(' ').append((i%5)*10).append(' ').append((i/5)*10).append('\n');
+		}
+		a.append("EOF\n");
+		Path file = Files.createTempFile("rectangle10", ".tsp");
+		Files.writeString(file, a.toString());
+		return file;
+	}
+
+	@Test
+	void testRead() throws IOException {
+		Path file = rectangle();
+		TsplibInstance test = TsplibInstance.read(file);
+		assertEquals("rectangle10",test.getName());
+		assertEquals(10,test.getCities().size());
+		assertTrue(Double.isNaN(test.getOptimum()));
+		assertEquals(426.0,TsplibInstance.getOptimum("eil51"));
+		City a = test.getCities().get(0), b = test.getCities().get(3);
+		assertEquals(14.0,test.distance(a,b));
+		assertEquals(14.0,test.distance(0,3));
+		assertEquals(3,b.getId());
+		Files.writeString(file, Files.readString(file).replace("EDGE_WEIGHT_TYPE","OPTIMUM : 100\nEDGE_WEIGHT_TYPE"));
+		assertEquals(100.0,TsplibInstance.read(file).getOptimum());
+		Files.writeString(file, "NAME : x\nTYPE : TSP\nDIMENSION : 1\nEDGE_WEIGHT_TYPE : EXPLICIT\nNODE_COORD_SECTION\n1 0 0\nEOF\n");
+		assertThrows(IOException.class, () -> TsplibInstance.read(file));
+		Files.delete(file);
+	}
+
+	@Test
+	void testRunAndCompare() throws IOException {
+		Path file = rectangle();
+		List<List<Benchmark.Result>> runs = new ArrayList<List<Benchmark.Result>>();
+		for(int k=0;k<2;k++) {
+			Benchmark test = new Benchmark(200,1,2);
+			test.addInstance(TsplibInstance.read(file),100);
+			test.addConfiguration(new ParameterRace.Configuration(40,0.05,0.8,0.5,2));
+			test.setGaps(0.5,0);
+			runs.add(test.run());
+		}
+		List<Benchmark.Result> results = runs.get(0);
+		assertEquals(4,results.size());
+		for(int i=0;i<4;i++) {
+			assertTrue(results.get(i).isReached());
+			assertEquals(results.get(i).getEvaluations(),runs.get(1).get(i).getEvaluations());
+		}
+		assertTrue(results.get(0).getEvaluations() <= results.get(1).getEvaluations());
+		assertTrue(results.get(0).getEvaluations() >= 40);
+
+		Files.writeString(file, Benchmark.toCsv(results));
+		List<Benchmark.Result> read = Benchmark.readCsv(file);
+		assertEquals(results.get(3).toCsv(),read.get(3).toCsv());
+		assertTrue(Benchmark.compare(results,read,0).isEmpty());
+
+		Benchmark.Result r = results.get(1);
+		read.set(1,new Benchmark.Result(r.getInstance(),r.getConfiguration(),r.getSeed(),r.getGap(),true,0,r.getEvaluations()/2,r.getMillis()));
+		List<String> regressions = Benchmark.compare(results,read,0.05);
+		assertEquals(1,regressions.size());
+		assertTrue(regressions.get(0).startsWith(r.getKey()));
+		Benchmark.Result faster = results.get(2);
+		read.set(2,new Benchmark.Result(faster.getInstance(),faster.getConfiguration(),faster.getSeed(),faster.getGap(),true,
+				faster.getGeneration(),faster.getEvaluations(),faster.getMillis()/100));
+		assertEquals(1,Benchmark.compare(results,read,0.05).size());
+		assertTrue(Benchmark.missing(results,read).isEmpty());
+		assertEquals(4,Benchmark.missing(results,new ArrayList<Benchmark.Result>()).size());
+		assertEquals(4,Benchmark.missing(new ArrayList<Benchmark.Result>(),read).size());
+		List<Benchmark.Result> slower = new ArrayList<Benchmark.Result>();
+		for(Benchmark.Result e : results) {
+			slower.add(new Benchmark.Result(e.getInstance(),e.getConfiguration(),e.getSeed(),e.getGap(),true,
+					e.getGeneration(),e.getEvaluations(),e.getMillis()*3+1));
+		}
+		assertTrue(Benchmark.compareTimes(results,slower,0.5,0).isEmpty());
+		assertTrue(Benchmark.compare(slower,results,0.05).isEmpty());
+		List<String> times = Benchmark.compareTimes(slower,results,0.5,0);
+		assertEquals(2,times.size());
+		assertTrue(times.get(0).startsWith(results.get(0).getInstance() + "," + results.get(0).getConfiguration()));
+		Files.delete(file);
+	}
+}
@@ -0,0 +1,441 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.ToDoubleFunction;
+import java.util.random.RandomGenerator;
+
+/**
+ * This class represents the data structure which holds a binary chromosome, for problems such as feature selection
+ * or knapsack packing. This class implements the interface IIndividual, so it evolves in a Population and a
+ * GeneticAlgorithm like a TSP does.
+ * The bits are packed 64 to a word in a long array, so the crossovers combine the parents a word at a time with masks
+ * and the Hamming distance is a sum of population counts.
+ * The operators used by a Population are pluggable: by default the crossover is uniform crossover and the mutation
+ * is bit-flip mutation, and setOperators switches to n-point crossover or bit swaps. The operators are passed on to
+ * every chromosome created from this one.
+ * The fitness is given by an objective function, which must be positive for roulette wheel selection and is
+ * evaluated lazily, when the fitness is first read after the bits changed.
+ */
+public class BitChromosome implements IIndividual {
+
+	/**
+	 * The mutation which twoBitSwapMutation applies.
+	 */
+	@FunctionalInterface
+	public interface Mutation {
+		/**
+		 * @param chromosome The chromosome to be mutated, which is not changed.
+		 * @param ran The random number generator.
+		 * @param mutationProbability The probability that the chromosome is mutated.
+		 * @return The mutated copy of the chromosome, or the chromosome itself if nothing changed.
+		 */
+		BitChromosome mutate(BitChromosome chromosome, RandomGenerator ran, double mutationProbability);
+	}
+
+	/**
+	 * The crossover which crossOver applies when the parents are selected for crossover.
+	 */
+	@FunctionalInterface
+	public interface CrossOver {
+		/**
+		 * @param first The first parent.
+		 * @param second The second parent.
+		 * @param ran The random number generator.
+		 * @return A list of the two childs.
+		 */
+		List<IIndividual> crossOver(BitChromosome first, BitChromosome second, RandomGenerator ran);
+	}
+
+	private long[] words;
+	private int length;
+	private ToDoubleFunction<BitChromosome> objective;
+	private double fitness;
+	private boolean dirty;
+	private Mutation mutation = flip();
+	private CrossOver crossOver = uniform();
+
+	/**
+	 * Initializes a chromosome with every bit cleared.
+	 * @param length The number of bits.
+	 * @param objective The function which gives the fitness of a chromosome, the higher the better.
+	 */
+	public BitChromosome(int length, ToDoubleFunction<BitChromosome> objective) {
+		this(new long[(length + 63) >>> 6], length, objective);
+	}
+
+	/**
+	 * @param words The bits, 64 to a word, the first bit being the lowest bit of the first word. The array is not copied.
+	 * @param length The number of bits.
+	 * @param objective The function which gives the fitness of a chromosome, the higher the better.
+	 */
+	public BitChromosome(long[] words, int length, ToDoubleFunction<BitChromosome> objective) {
+		if(words.length != (length + 63) >>> 6)
+			throw new IllegalArgumentException("A chromosome of " + length + " bits needs " + ((length + 63) >>> 6) + " words!");
+		this.words = words;
+		this.length = length;
+		this.objective = objective;
+		this.dirty = true;
+		clearTail();
+	}
+
+	/**
+	 * @return A mutation which, with the mutation probability, applies flipMutation to each bit with probability 1/n.
+	 */
+	public static Mutation flip() {
+		return (c, ran, p) -> ran.nextDouble() < p ? c.flipMutation(ran, 1.0 / c.length) : c;
+	}
+
+	/**
+	 * @return A mutation which applies swapMutation.
+	 */
+	public static Mutation swap() {
+		return (c, ran, p) -> c.swapMutation(ran, p);
+	}
+
+	/**
+	 * @return A crossover which applies uniformCrossOver.
+	 */
+	public static CrossOver uniform() {
+		return (first, second, ran) -> first.uniformCrossOver(ran, second);
+	}
+
+	/**
+	 * @param points The number of cut points.
+	 * @return A crossover which applies nPointCrossOver.
+	 */
+	public static CrossOver nPoint(int points) {
+		return (first, second, ran) -> first.nPointCrossOver(ran, points, second);
+	}
+
+	/**
+	 * Change the operators applied by twoBitSwapMutation and crossOver, which are passed on to every chromosome created from this one.
+	 * @param mutation The mutation to be set.
+	 * @param crossOver The crossover to be set.
+	 */
+	public void setOperators(Mutation mutation, CrossOver crossOver) {
+		this.mutation = mutation;
+		this.crossOver = crossOver;
+	}
+
+	/**
+	 * @return The number of bits.
+	 */
+	public int getLength() {
+		return length;
+	}
+
+	/**
+	 * @param i The position of a bit.
+	 * @return The value of the bit.
+	 */
+	public boolean get(int i) {
+		return (words[i >>> 6] & (1L << i)) != 0;
+	}
+
+	/**
+	 * Sets the value of a bit.
+	 * @param i The position of the bit.
+	 * @param value The value to be set.
+	 */
+	public void set(int i, boolean value) {
+		if(value) words[i >>> 6] |= 1L << i;
+		else words[i >>> 6] &= ~(1L << i);
+		dirty = true;
+	}
+
+	/**
+	 * Inverts a bit.
+	 * @param i The position of the bit.
+	 */
+	public void flip(int i) {
+		words[i >>> 6] ^= 1L << i;
+		dirty = true;
+	}
+
+	/**
+	 * @return The number of bits set.
+	 */
+	public int cardinality() {
+		int count = 0;
+		for(long w : words) {
+			count += Long.bitCount(w);
+		}
+		return count;
+	}
+
+	/**
+	 * @param other A chromosome of the same length.
+	 * @return The number of positions where the two chromosomes differ.
+	 */
+	public int hammingDistance(BitChromosome other) {
+		int distance = 0;
+		for(int i = 0; i < words.length; i++) {
+			distance += Long.bitCount(words[i] ^ other.words[i]);
+		}
+		return distance;
+	}
+
+	/**
+	 * @return A copy of the words which hold the bits.
+	 */
+	public long[] toWords() {
+		return words.clone();
+	}
+
+	/**
+	 * Clears the bits of the last word beyond the length, so that they never take part in counts or signatures.
+	 */
+	private void clearTail() {
+		if((length & 63) != 0) words[words.length - 1] &= (1L << length) - 1;
+	}
+
+	/**
+	 * Calculates the fitness value with the objective function and sets it.
+	 */
+	@Override
+	public void calculateFitness() {
+		fitness = objective.applyAsDouble(this);
+		dirty = false;
+	}
+
+	/**
+	 * @return The fitness value of the chromosome, which is calculated first if the bits changed.
+	 */
+	@Override
+	public double getFitness() {
+		if(dirty) calculateFitness();
+		return fitness;
+	}
+
+	/**
+	 * @return True If the fitness value is up to date, else False.
+	 */
+	@Override
+	public boolean isEvaluated() {
+		return !dirty;
+	}
+
+	/**
+	 * @return A hash of the bits.
+	 */
+	@Override
+	public long getSignature() {
+		long h = length;
+		for(long w : words) {
+			h = RandomStreams.mix(h ^ w);
+		}
+		return h;
+	}
+
+	/**
+	 * @return A new instance of the type BitChromosome with a copy of the bits and the same fitness value.
+	 */
+	@Override
+	public Object clone() {
+		BitChromosome copy = copy();
+		copy.fitness = fitness;
+		copy.dirty = dirty;
+		return copy;
+	}
+
+	/**
+	 * @return A new chromosome of the same length whose bits are drawn uniformly at random.
+	 */
+	@Override
+	public BitChromosome permutation(RandomGenerator generator) {
+		long[] random = new long[words.length];
+		for(int i = 0; i < random.length; i++) {
+			random[i] = generator.nextLong();
+		}
+		return copy(random);
+	}
+
+	/**
+	 * Applies the mutation of the chromosome, bit-flip mutation unless setOperators changed it.
+	 * @return A mutated copy of the chromosome, according to a given probability, or this chromosome if nothing changed.
+	 */
+	@Override
+	public BitChromosome twoBitSwapMutation(RandomGenerator ran, double mutationProbability) {
+		return mutation.mutate(this, ran, mutationProbability);
+	}
+
+	/**
+	 * @param ran The random number generator.
+	 * @param mutationProbability The probability of swapping two bits.
+	 * @return A copy of the chromosome where two random bits may have been swapped, according to a given probability,
+	 * or this chromosome if nothing changed.
+	 */
+	public BitChromosome swapMutation(RandomGenerator ran, double mutationProbability) {
+		if(ran.nextDouble() < mutationProbability) {
+			int i = ran.nextInt(length), j = ran.nextInt(length);
+			if(get(i) != get(j)) {
+				BitChromosome mutated = copy();
+				mutated.flip(i);
+				mutated.flip(j);
+				return mutated;
+			}
+		}
+		return this;
+	}
+
+	/**
+	 * @return A copy of the chromosome where each two consecutive bits may have been swapped, according to a given probability,
+	 * or this chromosome if nothing changed.
+	 */
+	@Override
+	public BitChromosome twoBitSwapMutationFull(RandomGenerator ran, double mutationProbability) {
+		BitChromosome mutated = this;
+		for(int i = 0; i < length - 1; i++) {
+			if(ran.nextDouble() < mutationProbability && mutated.get(i) != mutated.get(i + 1)) {
+				if(mutated == this) mutated = copy();
+				mutated.flip(i);
+				mutated.flip(i + 1);
+			}
+		}
+		return mutated;
+	}
+
+	/**
+	 * Flips each bit independently with a given probability. The positions of the flipped bits are drawn by
+	 * geometric jumps, so the cost is proportional to the number of flips rather than to the length.
+	 * @param ran The random number generator.
+	 * @param probability The probability of flipping each bit.
+	 * @return A copy of the chromosome with the flipped bits, or this chromosome if none was flipped.
+	 */
+	public BitChromosome flipMutation(RandomGenerator ran, double probability) {
+		if(probability <= 0) return this;
+		BitChromosome mutated = this;
+		double logQ = Math.log1p(-Math.min(probability, 1 - 1e-12));
+		for(long i = (long) (Math.log(1 - ran.nextDouble()) / logQ); i < length; i += 1 + (long) (Math.log(1 - ran.nextDouble()) / logQ)) {
+			if(mutated == this) mutated = copy();
+			mutated.flip((int) i);
+		}
+		return mutated;
+	}
+
+	/**
+	 * Applies the crossover of the chromosome, uniform crossover unless setOperators changed it, if it occurs according
+	 * to a given probability. Otherwise the childs are clones of the parents, which keep their fitness values.
+	 * @return A list of the two childs.
+	 */
+	@Override
+	public List<IIndividual> crossOver(RandomGenerator ran, double crossOverProbability, IIndividual father2) {
+		BitChromosome other = (BitChromosome) father2;
+		if(ran.nextDouble() < crossOverProbability) {
+			return crossOver.crossOver(this, other, ran);
+		}
+		List<IIndividual> childs = new ArrayList<IIndividual>();
+		childs.add((BitChromosome) clone());
+		childs.add((BitChromosome) other.clone());
+		return childs;
+	}
+
+	/**
+	 * Uniform crossover: each bit of the first child comes from either parent with equal chance, and the second child
+	 * gets the bit of the other parent.
+	 * @param ran The random number generator.
+	 * @param father2 The second parent.
+	 * @return A list of the two childs.
+	 */
+	public List<IIndividual> uniformCrossOver(RandomGenerator ran, BitChromosome father2) {
+		long[] first = new long[words.length], second = new long[words.length];
+		for(int i = 0; i < words.length; i++) {
+			long mask = ran.nextLong();
+			first[i] = (words[i] & mask) | (father2.words[i] & ~mask);
+			second[i] = (father2.words[i] & mask) | (words[i] & ~mask);
+		}
+		List<IIndividual> childs = new ArrayList<IIndividual>();
+		childs.add(copy(first));
+		childs.add(copy(second));
+		return childs;
+	}
+
+	/**
+	 * N-point crossover: the parents are cut at n random positions and the childs take the segments alternately
+	 * from each parent. Each word is combined with one mask built from the cuts which fall in it.
+	 * @param ran The random number generator.
+	 * @param points The number of cut points.
+	 * @param father2 The second parent.
+	 * @return A list of the two childs.
+	 */
+	public List<IIndividual> nPointCrossOver(RandomGenerator ran, int points, BitChromosome father2) {
+		int[] cuts = new int[points];
+		for(int k = 0; k < points; k++) {
+			cuts[k] = 1 + ran.nextInt(Math.max(length - 1, 1));
+		}
+		Arrays.sort(cuts);
+		long[] first = new long[words.length], second = new long[words.length];
+		long state = 0;
+		int k = 0;
+		for(int i = 0; i < words.length; i++) {
+			long mask = state;
+			while(k < points && cuts[k] < (i + 1) << 6) {
+				mask ^= -1L << (cuts[k++] & 63);
+			}
+			state = mask < 0 ? -1L : 0;
+			first[i] = (words[i] & ~mask) | (father2.words[i] & mask);
+			second[i] = (father2.words[i] & ~mask) | (words[i] & mask);
+		}
+		List<IIndividual> childs = new ArrayList<IIndividual>();
+		childs.add(copy(first));
+		childs.add(copy(second));
+		return childs;
+	}
+
+	/**
+	 * @return A copy of the chromosome which must be evaluated again.
+	 */
+	private BitChromosome copy() {
+		return copy(words.clone());
+	}
+
+	/**
+	 * @return A chromosome of the same length with the given bits and the same operators, which must be evaluated again.
+	 */
+	private BitChromosome copy(long[] bits) {
+		BitChromosome copy = new BitChromosome(bits, length, objective);
+		copy.mutation = mutation;
+		copy.crossOver = crossOver;
+		return copy;
+	}
+
+	/**
+	 * @return An integer which defines the comparison between chromosomes, the fitter first.
+	 */
+	@Override
+	public int compareTo(IIndividual o) {
+		return (int) Math.signum(o.getFitness() - getFitness());
+	}
+
+	/**
+	 * @return True If the two chromosomes have the same bits, else False.
+	 */
+	@Override
+	public boolean equals(Object o) {
+		if(o == null) return false;
+		if(o == this) return true;
+		if(getClass() != o.getClass()) return false;
+		BitChromosome a = (BitChromosome) o;
+		return length == a.length && Arrays.equals(words, a.words);
+	}
+
+	/**
+	 * @return The hash code of the bits.
+	 */
+	@Override
+	public int hashCode() {
+		return 31 * Arrays.hashCode(words) + length;
+	}
+
+	/**
+	 * @return A string representation of the bits, the first bit first.
+	 */
+	@Override
+	public String toString() {
+		StringBuilder a = new StringBuilder(length);
+		for(int i = 0; i < length; i++) {
+			a.append(get(i) ? '1' : '0');
+		}
+		return a.toString();
+	}
+}
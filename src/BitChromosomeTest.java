@@ -0,0 +1,77 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * This class tests the crossovers, mutations and Hamming distance of BitChromosome, and its evolution by a GeneticAlgorithm.
+ */
+class BitChromosomeTest {
+
+	@Test
+	void testCrossOver() {
+		BitChromosome zeros = new BitChromosome(130,c -> c.cardinality() + 1);
+		BitChromosome ones = new BitChromosome(new long[] {-1L,-1L,-1L},130,c -> c.cardinality() + 1);
+		assertEquals(130,ones.cardinality());
+		assertEquals(130,zeros.hammingDistance(ones));
+		List<IIndividual> childs = zeros.crossOver(new Random(0),1,ones);
+		BitChromosome first = (BitChromosome) childs.get(0), second = (BitChromosome) childs.get(1);
+		assertEquals(130,first.cardinality() + second.cardinality());
+		assertEquals(130,first.hammingDistance(second));
+		childs = zeros.nPointCrossOver(new Random(0),3,ones);
+		first = (BitChromosome) childs.get(0);
+		int changes = 0;
+		for(int i=1;i<130;i++) {
+			if(first.get(i) != first.get(i-1)) changes++;
+		}
+		assertTrue(changes <= 3 && changes % 2 == (first.get(129) ? 1 : 0));
+		assertEquals(130,first.hammingDistance((BitChromosome) childs.get(1)));
+	}
+
+	@Test
+	void testMutation() {
+		BitChromosome zeros = new BitChromosome(1000,c -> c.cardinality() + 1);
+		assertSame(zeros,zeros.flipMutation(new Random(0),0));
+		int flipped = zeros.flipMutation(new Random(0),0.1).cardinality();
+		assertTrue(flipped > 60 && flipped < 140);
+		assertEquals(0,zeros.cardinality());
+		assertSame(zeros,zeros.swapMutation(new Random(0),1));
+		BitChromosome copy = (BitChromosome) zeros.clone();
+		copy.set(5,true);
+		assertEquals(2.0,copy.getFitness());
+		assertNotEquals(zeros.getSignature(),copy.getSignature());
+		assertEquals(copy.cardinality(),copy.swapMutation(new Random(0),1).cardinality());
+		assertEquals(1,zeros.twoBitSwapMutation(new Random(0),1).cardinality() > 0 ? 1 : 0);
+	}
+
+	@Test
+	void testGeneticAlgorithm() {
+		BitChromosome member = new BitChromosome(200,c -> c.cardinality() + 1);
+		GeneticAlgorithm test = new GeneticAlgorithm(member,new Random(0),40,0.2,0.9,0.5,100,2);
+		BitChromosome best = (BitChromosome) test.solveWithTournament();
+		assertTrue(best.cardinality() > 150);
+	}
+
+	@Test
+	void testOperators() {
+		BitChromosome member = new BitChromosome(200,c -> c.cardinality() + 1);
+		member.setOperators(BitChromosome.swap(),BitChromosome.nPoint(2));
+		Random random = new Random(0);
+		BitChromosome child = (BitChromosome) member.permutation(random).crossOver(random,1,member.permutation(random)).get(0);
+		int cardinality = child.cardinality();
+		for(int i=0;i<50;i++) {
+			child = child.twoBitSwapMutation(random,1);
+		}
+		assertEquals(cardinality,child.cardinality());
+		child.getFitness();
+		member.getFitness();
+		for(IIndividual e : child.crossOver(random,0,member)) {
+			assertTrue(e.isEvaluated());
+		}
+		member.setOperators(BitChromosome.flip(),BitChromosome.nPoint(2));
+		GeneticAlgorithm test = new GeneticAlgorithm(member,new Random(0),40,0.5,0.9,0.5,150,2);
+		assertTrue(((BitChromosome) test.solveWithTournament()).cardinality() > 180);
+	}
+}
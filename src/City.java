@@ -1,17 +1,50 @@
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * This class represents the data structure which holds a City representation.
+ * A city is immutable. Besides its name and location it may carry an id, its dense number in the instance it was
+ * created for, which index based tables such as DistanceMatrix use to find its row without hashing.
  */
 public class City {
-	private ILocation location;
-	private String name;
+	private final ILocation location;
+	private final String name;
+	private final int id;
 	/**
+	 * Creates a city without an id.
 	 * @param name The name of the city.
 	 * @param location The location of the city.
 	 */
 	public City(String name,ILocation location) {
+		this(-1,name,location);
+	}
+	/**
+	 * @param id The number of the city in its instance, from 0 on, or -1 if it has none.
+	 * @param name The name of the city.
+	 * @param location The location of the city.
+	 */
+	public City(int id,String name,ILocation location) {
+		this.id = id;
 		this.name = name;
 		this.location = location;
 	}
+	/**
+	 * @param cities The cities of an instance.
+	 * @return New cities with the same names and locations, numbered by their position in the list.
+	 */
+	public static List<City> numbered(List<City> cities) {
+		List<City> numbered = new ArrayList<City>(cities.size());
+		for(City c : cities) {
+			numbered.add(new City(numbered.size(),c.name,c.location));
+		}
+		return numbered;
+	}
+	/**
+	 * @return The number of the city in its instance, or -1 if it has none.
+	 */
+	public int getId() {
+		return id;
+	}
 	/**
 	 * @return The name of the city.
 	 */
@@ -45,6 +78,14 @@ public class City {
 		return name.equals(a.name) && getLocation().equals(a.getLocation());
 	}
 	
+	/**
+	 * @return A hash code consistent with equals, computed from the name and the location.
+	 */
+	@Override
+	public int hashCode() {
+		return 31 * name.hashCode() + location.hashCode();
+	}
+	
 	/**
 	 * @return A string representation of an object of type City.
 	 */
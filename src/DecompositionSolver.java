@@ -0,0 +1,308 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * This class represents a divide and conquer solver for instances too large for a single genetic algorithm.
+ * The cities are split by a grid into partitions of about the same size, the cells being visited in a snake order
+ * so that consecutive partitions are neighbours, and a cell which got more than twice the desired size, as happens
+ * with clustered cities, is split again by a grid of its own. Alternatively the cities are cut into runs of consecutive
+ * cities along a HilbertCurve.
+ * Each partition is solved by its own GeneticAlgorithm, in parallel, and the sub-tours are stitched together,
+ * each one opened where joining it to the previous one costs the least.
+ * Finally, a 2-opt search restricted to a window around each seam, including the one which closes the tour,
+ * repairs the joins.
+ * Since every partition has a bounded size, the work grows about linearly with the number of cities.
+ * The cities must be located by a PointTwoDimensions.
+ */
+public class DecompositionSolver {
+	private RandomStreams streams;
+	private int partitionSize, threads, generations, seamWindow;
+	private ParameterRace.Configuration configuration;
+	private boolean alongCurve;
+
+	/**
+	 * @param streams The random number streams, one per partition.
+	 * @param partitionSize The desired number of cities in each partition.
+	 * @param threads The number of partitions solved at the same time.
+	 */
+	public DecompositionSolver(RandomStreams streams, int partitionSize, int threads) {
+		if(partitionSize < 4 || threads < 1)
+			throw new IllegalArgumentException("The partitions need at least 4 cities and the solver at least one thread!");
+		this.streams = streams;
+		this.partitionSize = partitionSize;
+		this.threads = threads;
+		this.configuration = new ParameterRace.Configuration(20, 0.05, 0.8, 0.5, 2);
+		this.generations = 100;
+		this.seamWindow = Math.min(partitionSize, 50);
+	}
+
+	/**
+	 * Change the parameters of the genetic algorithm which solves each partition.
+	 * @param configuration The parameters of the genetic algorithm.
+	 * @param generations The number of generations run for each partition.
+	 */
+	public void setConfiguration(ParameterRace.Configuration configuration, int generations) {
+		this.configuration = configuration;
+		this.generations = generations;
+	}
+
+	/**
+	 * Change the number of positions on each side of a seam which the repair may move.
+	 * @param seamWindow The window to be set.
+	 */
+	public void setSeamWindow(int seamWindow) {
+		this.seamWindow = seamWindow;
+	}
+
+	/**
+	 * Chooses how the cities are partitioned.
+	 * @param alongCurve True to cut the cities sorted along a Hilbert curve into runs of partitionSize cities, False to use a grid.
+	 */
+	public void setPartitionAlongCurve(boolean alongCurve) {
+		this.alongCurve = alongCurve;
+	}
+
+	/**
+	 * Solves the instance by decomposition.
+	 * @param cities The cities of the instance.
+	 * @return A tour of every city.
+	 */
+	public TSP solve(List<City> cities) {
+		List<List<City>> partitions = alongCurve ? partitionAlongCurve(cities) : partition(cities);
+		List<List<City>> subTours = solvePartitions(partitions);
+		int[] seams = new int[subTours.size()];
+		City[] tour = stitch(subTours, seams);
+		repairSeams(tour, seams, seamWindow);
+		List<City> result = new ArrayList<City>(tour.length);
+		Collections.addAll(result, tour);
+		return new TSP(result);
+	}
+
+	/**
+	 * Splits the cities by a grid whose cells hold partitionSize cities on average. A cell with more than twice
+	 * partitionSize cities is split again by a grid over its own cities, and, if they all fall into one cell because
+	 * they share their location, cut by count.
+	 * @param cities The cities of the instance.
+	 * @return The non empty cells of the grid, in snake order: left to right on the first row, right to left on the next one, and so on.
+	 */
+	public List<List<City>> partition(List<City> cities) {
+		List<List<City>> cells = new ArrayList<List<City>>();
+		partition(cities, cells);
+		return cells;
+	}
+
+	/**
+	 * Splits the cities by a grid and adds the cells to a list, splitting the oversized cells recursively.
+	 */
+	private void partition(List<City> cities, List<List<City>> result) {
+		double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY;
+		double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+		for(City c : cities) {
+			PointTwoDimensions p = point(c);
+			minX = Math.min(minX, p.getX());
+			maxX = Math.max(maxX, p.getX());
+			minY = Math.min(minY, p.getY());
+			maxY = Math.max(maxY, p.getY());
+		}
+		int side = (int) Math.ceil(Math.sqrt(Math.ceil((double) cities.size() / partitionSize)));
+		double width = Math.max(maxX - minX, Double.MIN_VALUE), height = Math.max(maxY - minY, Double.MIN_VALUE);
+		List<List<City>> cells = new ArrayList<List<City>>();
+		for(int i = 0; i < side * side; i++) {
+			cells.add(new ArrayList<City>());
+		}
+		for(City c : cities) {
+			PointTwoDimensions p = point(c);
+			int column = Math.min((int) ((p.getX() - minX) / width * side), side - 1);
+			int row = Math.min((int) ((p.getY() - minY) / height * side), side - 1);
+			if(row % 2 == 1) column = side - 1 - column;
+			cells.get(row * side + column).add(c);
+		}
+		for(List<City> cell : cells) {
+			if(cell.isEmpty()) continue;
+			if(cell.size() <= 2 * partitionSize) result.add(cell);
+			else if(cell.size() < cities.size()) partition(cell, result);
+			else {
+				for(int i = 0; i < cell.size(); i += partitionSize) {
+					result.add(new ArrayList<City>(cell.subList(i, Math.min(i + partitionSize, cell.size()))));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Splits the cities, sorted along a Hilbert curve, into runs of partitionSize consecutive cities.
+	 * The cities are not changed.
+	 * @param cities The cities of the instance.
+	 * @return The runs, in the order of the curve.
+	 */
+	public List<List<City>> partitionAlongCurve(List<City> cities) {
+		List<City> sorted = new HilbertCurve(cities).getCities();
+		List<List<City>> runs = new ArrayList<List<City>>();
+		for(int i = 0; i < sorted.size(); i += partitionSize) {
+			runs.add(new ArrayList<City>(sorted.subList(i, Math.min(i + partitionSize, sorted.size()))));
+		}
+		return runs;
+	}
+
+	/**
+	 * @return The location of a city, which must be a PointTwoDimensions.
+	 */
+	private static PointTwoDimensions point(City c) {
+		if(!(c.getLocation() instanceof PointTwoDimensions))
+			throw new IllegalArgumentException("The city " + c + " is not located by a PointTwoDimensions!");
+		return (PointTwoDimensions) c.getLocation();
+	}
+
+	/**
+	 * Solves every partition with its own genetic algorithm. Partitions with fewer than 4 cities, or whose cities all
+	 * share one location, so that every tour has length 0, are kept as they are.
+	 * @return The sub-tours, in the order of the partitions.
+	 */
+	private List<List<City>> solvePartitions(List<List<City>> partitions) {
+		List<Future<List<City>>> running = new ArrayList<Future<List<City>>>();
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			for(int i = 0; i < partitions.size(); i++) {
+				List<City> part = partitions.get(i);
+				int index = i;
+				running.add(executor.submit(() -> {
+					if(part.size() < 4 || colocated(part)) return part;
+					ParameterRace.Configuration c = configuration;
+					GeneticAlgorithm algorithm = new GeneticAlgorithm(new TSP(new ArrayList<City>(part)), streams.forIsland(index),
+							c.getPopuSize(), c.getMutProb(), c.getCrossProb(), c.getReplaceFraction(), generations, c.getTournamentSize());
+					IIndividual best = c.getTournamentSize() < 1 ? algorithm.solveWithRoulette() : algorithm.solveWithTournament();
+					return ((TSP) best).getRepresentation();
+				}));
+			}
+			List<List<City>> subTours = new ArrayList<List<City>>();
+			for(Future<List<City>> f : running) {
+				subTours.add(f.get());
+			}
+			return subTours;
+		}
+		catch(InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("The decomposition was interrupted!", e);
+		}
+		catch(ExecutionException e) {
+			throw new IllegalStateException("A partition failed to be solved!", e.getCause());
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * @return True If every city of the partition has the location of the first one, else False.
+	 */
+	private static boolean colocated(List<City> part) {
+		ILocation first = part.get(0).getLocation();
+		for(City c : part) {
+			if(!c.getLocation().equals(first)) return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Joins closed sub-tours into one tour. The first sub-tour is opened at its longest edge, and every next one
+	 * at the edge, and in the direction, which minimize the length of the join to the end of the previous one
+	 * minus the length of the edge removed.
+	 * @param subTours The sub-tours to be joined, in order.
+	 * @param seams An array which receives the position in the tour where each sub-tour starts.
+	 * @return The joined tour.
+	 */
+	public static City[] stitch(List<List<City>> subTours, int[] seams) {
+		int total = 0;
+		for(List<City> t : subTours) {
+			total += t.size();
+		}
+		City[] tour = new City[total];
+		int position = 0;
+		for(int s = 0; s < subTours.size(); s++) {
+			List<City> t = subTours.get(s);
+			int n = t.size(), cut = 0;
+			boolean forward = true;
+			double best = Double.POSITIVE_INFINITY;
+			for(int i = 0; i < n; i++) {
+				City a = t.get(i), b = t.get((i + 1) % n);
+				double removed = n > 1 ? a.getDistance(b) : 0;
+				if(position == 0) {
+					if(-removed < best) { best = -removed; cut = i; }
+				}
+				else {
+					City previous = tour[position - 1];
+					if(previous.getDistance(b) - removed < best) { best = previous.getDistance(b) - removed; cut = i; forward = true; }
+					if(previous.getDistance(a) - removed < best) { best = previous.getDistance(a) - removed; cut = i; forward = false; }
+				}
+			}
+			seams[s] = position;
+			for(int k = 1; k <= n; k++) {
+				tour[position++] = forward ? t.get((cut + k) % n) : t.get(((cut + 1 - k) % n + n) % n);
+			}
+		}
+		return tour;
+	}
+
+	/**
+	 * Improves the tour around each seam by 2-opt moves whose both removed edges lie within the window around the seam.
+	 * When there are several sub-tours, the seam which closes the tour, from the last sub-tour back to the first one,
+	 * is repaired too, with a window which wraps around the end of the tour.
+	 * @param tour The tour to be improved in place.
+	 * @param seams The positions in the tour where the sub-tours start.
+	 * @param window The number of positions on each side of a seam which may be moved.
+	 * @return The number of improving moves applied.
+	 */
+	public static int repairSeams(City[] tour, int[] seams, int window) {
+		int moves = 0, n = tour.length;
+		for(int s = 1; s < seams.length; s++) {
+			int from = Math.max(seams[s] - window, 0), to = Math.min(seams[s] + window, n - 1);
+			moves += repairWindow(tour, from, to - from + 1);
+		}
+		if(seams.length > 1) {
+			int w = Math.min(window, (n - 1) / 2);
+			moves += repairWindow(tour, n - w, 2 * w + 1);
+		}
+		return moves;
+	}
+
+	/**
+	 * Applies improving 2-opt moves whose both removed edges lie within a window of the tour, until there are none.
+	 * The window starts at the position from and may wrap around the end of the tour.
+	 * @return The number of improving moves applied.
+	 */
+	private static int repairWindow(City[] tour, int from, int length) {
+		int moves = 0, n = tour.length;
+		boolean improved = true;
+		while(improved) {
+			improved = false;
+			for(int i = 0; i < length - 2; i++) {
+				for(int j = i + 2; j < length - 1; j++) {
+					City a = tour[(from + i) % n], b = tour[(from + i + 1) % n], c = tour[(from + j) % n], d = tour[(from + j + 1) % n];
+					if(a.getDistance(c) + b.getDistance(d) < a.getDistance(b) + c.getDistance(d) - 1e-10) {
+						reverse(tour, from + i + 1, from + j);
+						moves++;
+						improved = true;
+					}
+				}
+			}
+		}
+		return moves;
+	}
+
+	/**
+	 * Reverses the cities of the tour between two positions, both included, which may wrap around the end of the tour.
+	 */
+	private static void reverse(City[] tour, int i, int j) {
+		int n = tour.length;
+		while(i < j) {
+			City temp = tour[i % n];
+			tour[i++ % n] = tour[j % n];
+			tour[j-- % n] = temp;
+		}
+	}
+}
@@ -0,0 +1,134 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * This class tests the partition, stitch and solve methods of DecompositionSolver.
+ */
+class DecompositionSolverTest {
+
+	private List<City> cities(int n) {
+		Random random = new Random(0);
+		List<City> cities = new ArrayList<City>();
+		for(int i=0;i<n;i++) {
+			cities.add(new City("Andre" + i,new PointTwoDimensions(random.nextDouble()*100,random.nextDouble()*100)));
+		}
+		return cities;
+	}
+
+	private double length(City[] tour) {
+		double length = 0;
+		for(int i=0;i<tour.length;i++) {
+			length += tour[i].getDistance(tour[(i+1) % tour.length]);
+		}
+		return length;
+	}
+
+	@Test
+	void testPartition() {
+		List<City> cities = cities(500);
+		List<List<City>> partitions = new DecompositionSolver(new RandomStreams(0),50,2).partition(cities);
+		assertTrue(partitions.size() >= 10 && partitions.size() <= 16);
+		HashSet<City> seen = new HashSet<City>();
+		for(List<City> part : partitions) {
+			assertFalse(part.isEmpty());
+			seen.addAll(part);
+		}
+		assertEquals(new HashSet<City>(cities),seen);
+		assertEquals(500,partitions.stream().mapToInt(List::size).sum());
+	}
+
+	/**
+	 * @return 450 cities in a unit square, 50 spread over a 100 by 100 square and 120 cities sharing one location.
+	 */
+	private List<City> clustered() {
+		Random random = new Random(0);
+		List<City> cities = new ArrayList<City>();
+		for(int i=0;i<500;i++) {
+			double scale = i < 450 ? 1 : 100;
+			cities.add(new City("Andre" + i,new PointTwoDimensions(random.nextDouble()*scale,random.nextDouble()*scale)));
+		}
+		for(int i=0;i<120;i++) {
+			cities.add(new City("Paulo" + i,new PointTwoDimensions(0.5,0.5)));
+		}
+		return cities;
+	}
+
+	@Test
+	void testPartitionClustered() {
+		List<City> cities = clustered();
+		List<List<City>> partitions = new DecompositionSolver(new RandomStreams(0),50,2).partition(cities);
+		HashSet<City> seen = new HashSet<City>();
+		for(List<City> part : partitions) {
+			assertFalse(part.isEmpty());
+			assertTrue(part.size() <= 100);
+			seen.addAll(part);
+		}
+		assertEquals(new HashSet<City>(cities),seen);
+		assertEquals(620,partitions.stream().mapToInt(List::size).sum());
+	}
+
+	@Test
+	void testSolveClustered() {
+		List<City> cities = clustered();
+		DecompositionSolver solver = new DecompositionSolver(new RandomStreams(0),50,2);
+		solver.setConfiguration(new ParameterRace.Configuration(10,0.05,0.8,0.5,2),10);
+		TSP tour = solver.solve(cities);
+		assertEquals(620,tour.getRepresentation().size());
+		assertEquals(new HashSet<City>(cities),new HashSet<City>(tour.getRepresentation()));
+		assertTrue(tour.getFitness() > 0);
+	}
+
+	@Test
+	void testRepairClosingSeam() {
+		City[] circle = new City[8];
+		for(int i=0;i<8;i++) {
+			circle[i] = new City("Andre" + i,new PointTwoDimensions(Math.cos(i*Math.PI/4),Math.sin(i*Math.PI/4)));
+		}
+		City[] tour = {circle[1],circle[2],circle[3],circle[4],circle[5],circle[6],circle[0],circle[7]};
+		assertEquals(1,DecompositionSolver.repairSeams(tour,new int[] {0,4},3));
+		assertEquals(length(circle),length(tour),1e-9);
+	}
+
+	@Test
+	void testStitchAndRepair() {
+		List<City> left = new ArrayList<City>(), right = new ArrayList<City>();
+		left.add(new City("Andre",new PointTwoDimensions(0,0)));
+		left.add(new City("Paulo",new PointTwoDimensions(1,0)));
+		left.add(new City("Pires",new PointTwoDimensions(1,1)));
+		left.add(new City("Henri",new PointTwoDimensions(0,1)));
+		right.add(new City("AnPa",new PointTwoDimensions(3,0)));
+		right.add(new City("PaAn",new PointTwoDimensions(3,1)));
+		right.add(new City("PiHe",new PointTwoDimensions(2,1)));
+		right.add(new City("HePi",new PointTwoDimensions(2,0)));
+		int[] seams = new int[2];
+		City[] tour = DecompositionSolver.stitch(Arrays.asList(left,right),seams);
+		assertEquals(8,tour.length);
+		assertArrayEquals(new int[] {0,4},seams);
+		assertEquals(new HashSet<City>(left),new HashSet<City>(Arrays.asList(tour).subList(0,4)));
+		assertSame(left.get(0),tour[3]);
+		assertEquals(2,tour[3].getDistance(tour[4]));
+		double stitched = length(tour);
+		DecompositionSolver.repairSeams(tour,seams,4);
+		assertTrue(length(tour) <= stitched);
+		assertEquals(8,new HashSet<City>(Arrays.asList(tour)).size());
+	}
+
+	@Test
+	void testSolve() {
+		List<City> cities = cities(400);
+		DecompositionSolver test = new DecompositionSolver(new RandomStreams(0),40,2);
+		test.setConfiguration(new ParameterRace.Configuration(10,0.05,0.8,0.5,2),30);
+		TSP result = test.solve(cities);
+		assertEquals(400,result.getRepresentation().size());
+		assertEquals(new HashSet<City>(cities),new HashSet<City>(result.getRepresentation()));
+		TSP random = new TSP(cities);
+		assertTrue(result.getFitness() > 3*random.getFitness());
+	}
+}
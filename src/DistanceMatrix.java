@@ -0,0 +1,117 @@
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class represents a dense table of the distances between every pair of cities of an instance.
+ * This class implements the interface IDistance.
+ * The row of a city is given by its id, so a lookup reads two array elements and hashes nothing. The cities must be
+ * numbered, e.g. by City.numbered, and the table grows and shrinks one row and one column at a time when cities join
+ * or leave the instance, so a change costs O(n) instead of rebuilding the whole table. A city which leaves frees its row.
+ */
+public class DistanceMatrix implements IDistance {
+	private City[] cities;
+	private double[][] rows;
+	private int size;
+
+	/**
+	 * Computes the distances between the given cities.
+	 * @param cities The cities of the instance, each with a distinct id.
+	 */
+	public DistanceMatrix(List<City> cities) {
+		int capacity = 4;
+		for(City c : cities) {
+			capacity = Math.max(capacity, c.getId() + 1);
+		}
+		this.cities = new City[capacity];
+		this.rows = new double[capacity][];
+		for(City c : cities) {
+			addCity(c);
+		}
+	}
+
+	/**
+	 * @return The distance between two cities of the instance, read from the table.
+	 */
+	@Override
+	public double distance(City a, City b) {
+		return rows[a.getId()][b.getId()];
+	}
+
+	/**
+	 * @return The distance between the cities with the given ids, read from the table.
+	 */
+	@Override
+	public double distance(int a, int b) {
+		return rows[a][b];
+	}
+
+	/**
+	 * Adds the row and the column of a new city, whose id must not be in the table.
+	 * @param city The city which joined the instance.
+	 */
+	@Override
+	public void addCity(City city) {
+		int id = city.getId();
+		if(id < 0)
+			throw new IllegalArgumentException("The city " + city + " has no id!");
+		while(id >= rows.length) grow();
+		if(cities[id] != null)
+			throw new IllegalArgumentException("The id of the city " + city + " is taken by " + cities[id] + "!");
+		if(rows[id] == null) rows[id] = new double[rows.length];
+		cities[id] = city;
+		size++;
+		for(int j = 0; j < cities.length; j++) {
+			if(cities[j] == null) continue;
+			double d = city.getDistance(cities[j]);
+			rows[id][j] = d;
+			rows[j][id] = d;
+		}
+	}
+
+	/**
+	 * Frees the row and the column of a city.
+	 * @param city The city which left the instance.
+	 */
+	@Override
+	public void removeCity(City city) {
+		int id = city.getId();
+		if(id < 0 || id >= cities.length || cities[id] != city)
+			throw new IllegalArgumentException("The city " + city + " is not in the table!");
+		cities[id] = null;
+		size--;
+	}
+
+	/**
+	 * @return The number of cities in the table.
+	 */
+	public int getSize() {
+		return size;
+	}
+
+	/**
+	 * @return The cities of the table, by increasing id.
+	 */
+	public List<City> getCities() {
+		List<City> list = new ArrayList<City>(size);
+		for(City c : cities) {
+			if(c != null) list.add(c);
+		}
+		return list;
+	}
+
+	/**
+	 * Doubles the capacity of the table.
+	 */
+	private void grow() {
+		double[][] larger = new double[rows.length * 2][];
+		for(int i = 0; i < rows.length; i++) {
+			if(rows[i] == null) continue;
+			larger[i] = new double[larger.length];
+			System.arraycopy(rows[i], 0, larger[i], 0, rows.length);
+		}
+		City[] more = new City[larger.length];
+		System.arraycopy(cities, 0, more, 0, cities.length);
+		rows = larger;
+		cities = more;
+	}
+}
@@ -0,0 +1,116 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * This class tests DistanceMatrix and the insertion and removal of cities during a run.
+ */
+class DistanceMatrixTest {
+
+	private List<City> circle(int n, String name) {
+		List<City> cities = new ArrayList<City>();
+		for(int i=0;i<n;i++) {
+			cities.add(new City(i,name + i,new PointTwoDimensions(10*Math.cos(i*0.4),10*Math.sin(i*0.7))));
+		}
+		return cities;
+	}
+
+	@Test
+	void testAddRemoveCity() {
+		List<City> cities = circle(7,"Andre");
+		DistanceMatrix test = new DistanceMatrix(cities);
+		List<City> extra = new ArrayList<City>();
+		for(City c : circle(5,"Paulo")) {
+			extra.add(new City(7 + c.getId(),c.getName(),c.getLocation()));
+			test.addCity(extra.get(extra.size() - 1));
+		}
+		test.removeCity(cities.get(2));
+		test.removeCity(extra.get(4));
+		test.removeCity(cities.get(0));
+		assertEquals(9,test.getSize());
+		assertFalse(test.getCities().contains(cities.get(2)));
+		for(City a : test.getCities()) {
+			for(City b : test.getCities()) {
+				assertEquals(a.getDistance(b),test.distance(a,b));
+				assertEquals(a.getDistance(b),test.distance(a.getId(),b.getId()));
+			}
+		}
+		assertThrows(IllegalArgumentException.class, () -> test.removeCity(cities.get(2)));
+		test.addCity(new City(2,"Paulo",new PointTwoDimensions(1,1)));
+		assertEquals(10,test.getSize());
+	}
+
+	@Test
+	void testCitiesNeedIds() {
+		List<City> cities = circle(40,"Andre");
+		DistanceMatrix test = new DistanceMatrix(cities);
+		assertEquals(1/new TSP(cities).getFitness(),1/new TSP(cities,test).getFitness(),1e-9);
+		assertThrows(IllegalArgumentException.class, () -> test.addCity(new City("Paulo",new PointTwoDimensions(0,0))));
+		assertThrows(IllegalArgumentException.class, () -> test.addCity(new City(39,"Paulo",new PointTwoDimensions(0,0))));
+		assertEquals(cities,new DistanceMatrix(City.numbered(cities)).getCities());
+	}
+
+	@Test
+	void testInsertRemoveCity() {
+		List<City> cities = circle(12,"Andre");
+		DistanceMatrix distances = new DistanceMatrix(cities);
+		TSP test = new TSP(cities,distances);
+		double length = 1/test.getFitness();
+		City c = new City(12,"Paulo",new PointTwoDimensions(10,0.5));
+		distances.addCity(c);
+		test.insertCity(c);
+		assertEquals(13,test.getRepresentation().size());
+		assertEquals(12,cities.size());
+		assertTrue(1/test.getFitness() >= length);
+		double fitness = test.getFitness();
+		long signature = test.getSignature();
+		test.calculateFitness();
+		assertEquals(test.getFitness(),fitness,1e-12);
+		test.removeCity(cities.get(5));
+		distances.removeCity(cities.get(5));
+		assertFalse(test.getRepresentation().contains(cities.get(5)));
+		fitness = test.getFitness();
+		test.calculateFitness();
+		assertEquals(test.getFitness(),fitness,1e-12);
+		assertNotEquals(signature,test.getSignature());
+		assertEquals(TourHash.hash(test.getRepresentation()),test.getSignature());
+	}
+
+	@Test
+	void testChangeCitiesDuringRun() {
+		List<City> cities = circle(15,"Andre");
+		TSP member = new TSP(cities,new DistanceMatrix(cities));
+		GeneticAlgorithm test = new GeneticAlgorithm(member,new Random(0),20,0.05,0.8,0.5,0,2);
+		test.setEliteArchive(new EliteArchive(4));
+		for(int i=0;i<5;i++) {
+			test.nextGenerationWithTournament();
+		}
+		City added = new City(15,"Paulo",new PointTwoDimensions(3,3));
+		test.addCity(added);
+		test.removeCity(cities.get(3));
+		test.removeCity(cities.get(9));
+		for(int i=0;i<5;i++) {
+			test.nextGenerationWithTournament();
+		}
+		HashSet<City> expected = new HashSet<City>(cities);
+		expected.remove(cities.get(3));
+		expected.remove(cities.get(9));
+		expected.add(added);
+		List<IIndividual> tours = new ArrayList<IIndividual>(test.getPopulation().getPopulation());
+		tours.addAll(test.getEliteArchive().getElites());
+		for(IIndividual e : tours) {
+			TSP tour = (TSP) e;
+			assertEquals(14,tour.getRepresentation().size());
+			assertEquals(expected,new HashSet<City>(tour.getRepresentation()));
+			double fitness = tour.getFitness();
+			tour.calculateFitness();
+			assertEquals(tour.getFitness(),fitness,1e-12);
+		}
+		assertEquals(14,((TSP) test.getBestSoFar().getBest()).getRepresentation().size());
+	}
+}
@@ -0,0 +1,179 @@
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+/**
+ * This class represents a table which counts how many tours of a population use each undirected edge.
+ * The counts are kept in a primitive open addressing hash table keyed by the pair of city numbers, and
+ * the table keeps running sums over the counts, so the entropy of the edges, the number of distinct edges
+ * and the average pairwise distance between tours are answered in constant time.
+ * Adding or removing a tour of n cities costs O(n).
+ */
+public class EdgeFrequencyTable {
+	private static final long EMPTY = -1;
+
+	private IdentityHashMap<City,Integer> numbers;
+	private long[] keys;
+	private int[] counts;
+	private int used, distinctEdges, tours;
+	private long totalEdges, sharedPairs;
+	private double countLogCount;
+
+	/**
+	 * Initializes an empty table.
+	 */
+	public EdgeFrequencyTable() {
+		numbers = new IdentityHashMap<City,Integer>();
+		keys = new long[64];
+		counts = new int[64];
+		Arrays.fill(keys, EMPTY);
+	}
+
+	/**
+	 * Counts the edges of a tour.
+	 * @param tour The tour to be added.
+	 */
+	public void add(TSP tour) {
+		update(tour.getRepresentation(), 1);
+		tours++;
+	}
+
+	/**
+	 * Discounts the edges of a tour that was previously added.
+	 * @param tour The tour to be removed.
+	 */
+	public void remove(TSP tour) {
+		update(tour.getRepresentation(), -1);
+		tours--;
+	}
+
+	/**
+	 * @return The number of tours in the table.
+	 */
+	public int getTours() {
+		return tours;
+	}
+
+	/**
+	 * @return The number of different edges used by the tours.
+	 */
+	public int getDistinctEdges() {
+		return distinctEdges;
+	}
+
+	/**
+	 * @return The Shannon entropy, in nats, of the distribution of the edges over the tours.
+	 */
+	public double getEntropy() {
+		if(totalEdges == 0) return 0;
+		return Math.log(totalEdges) - countLogCount / totalEdges;
+	}
+
+	/**
+	 * @return The average, over every pair of tours, of the number of edges of one tour that the other does not use.
+	 */
+	public double getAveragePairwiseDistance() {
+		if(tours < 2) return 0;
+		double pairs = tours * (tours - 1) / 2.0;
+		return (double) totalEdges / tours - sharedPairs / pairs;
+	}
+
+	/**
+	 * @return The average pairwise distance divided by the length of the tours, which is 0 when every tour
+	 * is the same and close to 1 when the tours are random.
+	 */
+	public double getNormalizedDiversity() {
+		if(totalEdges == 0) return 0;
+		return getAveragePairwiseDistance() / ((double) totalEdges / tours);
+	}
+
+	/**
+	 * Adds a delta to the count of every edge of a tour, keeping the running sums up to date.
+	 */
+	private void update(List<City> cities, int delta) {
+		int n = cities.size();
+		if(n == 0) return;
+		int first = number(cities.get(0)), previous = first, current;
+		for(int i = 1; i <= n; i++) {
+			current = i == n ? first : number(cities.get(i));
+			int slot = slot(edge(previous, current));
+			int before = counts[slot], after = before + delta;
+			counts[slot] = after;
+			if(before == 0) distinctEdges++;
+			if(after == 0) distinctEdges--;
+			countLogCount += xLogX(after) - xLogX(before);
+			sharedPairs += delta > 0 ? before : -after;
+			totalEdges += delta;
+			previous = current;
+		}
+	}
+
+	/**
+	 * @return The number given to a city, assigning a new one the first time the city is seen.
+	 */
+	private int number(City city) {
+		Integer number = numbers.get(city);
+		if(number == null) {
+			number = numbers.size();
+			numbers.put(city, number);
+		}
+		return number;
+	}
+
+	/**
+	 * @return The key of the undirected edge between two cities.
+	 */
+	private static long edge(int a, int b) {
+		return a < b ? ((long) a << 32) | b : ((long) b << 32) | a;
+	}
+
+	/**
+	 * @return The value of x ln x, with 0 ln 0 taken as 0.
+	 */
+	private static double xLogX(int x) {
+		return x <= 1 ? 0 : x * Math.log(x);
+	}
+
+	/**
+	 * @return The slot of the key, inserting it with a zero count if it is not in the table.
+	 */
+	private int slot(long key) {
+		int mask = keys.length - 1;
+		int i = (int) RandomStreams.mix(key) & mask;
+		while(keys[i] != EMPTY) {
+			if(keys[i] == key) return i;
+			i = (i + 1) & mask;
+		}
+		if(2 * (used + 1) > keys.length) {
+			grow();
+			return slot(key);
+		}
+		keys[i] = key;
+		used++;
+		return i;
+	}
+
+	/**
+	 * Rehashes the table into a larger one, dropping the edges whose count reached zero.
+	 */
+	private void grow() {
+		long[] oldKeys = keys;
+		int[] oldCounts = counts;
+		int capacity = keys.length;
+		while(capacity < 4 * (distinctEdges + 1)) capacity *= 2;
+		keys = new long[capacity];
+		counts = new int[capacity];
+		Arrays.fill(keys, EMPTY);
+		used = 0;
+		int mask = capacity - 1;
+		for(int j = 0; j < oldKeys.length; j++) {
+			if(oldKeys[j] != EMPTY && oldCounts[j] > 0) {
+				int i = (int) RandomStreams.mix(oldKeys[j]) & mask;
+				while(keys[i] != EMPTY) i = (i + 1) & mask;
+				keys[i] = oldKeys[j];
+				counts[i] = oldCounts[j];
+				used++;
+			}
+		}
+	}
+}
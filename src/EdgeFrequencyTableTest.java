@@ -0,0 +1,90 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * This class tests the statistics of an EdgeFrequencyTable against a direct computation over the tours,
+ * and that replaceWith keeps the table of a Population up to date.
+ */
+class EdgeFrequencyTableTest {
+
+	private TSP instance(int n) {
+		List<City> a = new ArrayList<City>();
+		for(int i=0; i<n;i++) {
+			a.add(new City("Andre" + i,new PointTwoDimensions(i,i*i)));
+		}
+		return new TSP(a);
+	}
+
+	private Set<String> edges(TSP t) {
+		Set<String> result = new HashSet<String>();
+		List<City> c = t.getRepresentation();
+		for(int i=0;i<c.size();i++) {
+			String a = c.get(i).getName(), b = c.get((i+1)%c.size()).getName();
+			result.add(a.compareTo(b) < 0 ? a + "-" + b : b + "-" + a);
+		}
+		return result;
+	}
+
+	private double pairwise(List<TSP> tours) {
+		double sum = 0; int pairs = 0;
+		for(int i=0;i<tours.size();i++) {
+			for(int j=i+1;j<tours.size();j++) {
+				Set<String> e = edges(tours.get(i));
+				e.removeAll(edges(tours.get(j)));
+				sum += e.size(); pairs++;
+			}
+		}
+		return sum/pairs;
+	}
+
+	@Test
+	void testStatistics() {
+		Random generator = new Random(0);
+		TSP first = instance(12);
+		List<TSP> tours = new ArrayList<TSP>();
+		EdgeFrequencyTable table = new EdgeFrequencyTable();
+		for(int i=0;i<30;i++) {
+			TSP t = first.permutation(generator);
+			tours.add(t);
+			table.add(t);
+		}
+		for(int i=0;i<10;i++) {
+			table.remove(tours.remove(0));
+		}
+		Set<String> all = new HashSet<String>();
+		for(TSP t : tours) all.addAll(edges(t));
+		assertEquals(all.size(),table.getDistinctEdges());
+		assertEquals(pairwise(tours),table.getAveragePairwiseDistance(),1e-9);
+	}
+
+	@Test
+	void testIdenticalTours() {
+		TSP first = instance(8);
+		EdgeFrequencyTable table = new EdgeFrequencyTable();
+		for(int i=0;i<5;i++) table.add((TSP)first.clone());
+		assertEquals(8,table.getDistinctEdges());
+		assertEquals(0.0,table.getAveragePairwiseDistance(),1e-12);
+		assertEquals(Math.log(8),table.getEntropy(),1e-12);
+	}
+
+	@Test
+	void testReplaceWithUpdatesTable() {
+		Random generator = new Random(0);
+		TSP first = instance(10);
+		Population old = new Population(first,generator,16);
+		assertTrue(old.enableDiversityTracking());
+		old.replaceWith(new Population(first.permutation(generator),generator,16),0.5);
+		Population rebuilt = new Population(old.getPopulation());
+		rebuilt.enableDiversityTracking();
+		assertEquals(rebuilt.getDistinctEdges(),old.getDistinctEdges());
+		assertEquals(rebuilt.getEdgeEntropy(),old.getEdgeEntropy(),1e-9);
+		assertEquals(rebuilt.getAveragePairwiseDistance(),old.getAveragePairwiseDistance(),1e-9);
+	}
+}
@@ -0,0 +1,153 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * This class represents a hall of fame which keeps the best distinct individuals ever offered to it.
+ * The individuals are kept in a min-heap ordered by fitness, so the worst elite is at the root and an offer
+ * costs O(log k) for an archive of capacity k. Two individuals are distinct when their signatures differ.
+ * The archive keeps its own clones, so the individuals survive whatever happens to the population.
+ */
+public class EliteArchive {
+	private IIndividual[] heap;
+	private int size;
+	private HashSet<Long> signatures;
+	private IIndividual best;
+
+	/**
+	 * @param capacity The maximum number of individuals in the archive.
+	 */
+	public EliteArchive(int capacity) {
+		if(capacity < 1)
+			throw new IllegalArgumentException("The capacity of the archive must be positive!");
+		heap = new IIndividual[capacity];
+		signatures = new HashSet<Long>();
+	}
+
+	/**
+	 * Offers an individual to the archive, which keeps a clone of it if it is distinct from the elites and
+	 * better than the worst of them, or if the archive is not full.
+	 * @param individual The individual to be offered.
+	 * @return True If the individual entered the archive, else False.
+	 */
+	public boolean offer(IIndividual individual) {
+		double fitness = individual.getFitness();
+		if(size == heap.length && fitness <= heap[0].getFitness()) return false;
+		long signature = individual.getSignature();
+		if(signatures.contains(signature)) return false;
+		IIndividual elite = (IIndividual) individual.clone();
+		signatures.add(signature);
+		if(size < heap.length) {
+			heap[size] = elite;
+			siftUp(size++);
+		}
+		else {
+			signatures.remove(heap[0].getSignature());
+			heap[0] = elite;
+			siftDown(0);
+		}
+		if(best == null || fitness > best.getFitness()) {
+			best = elite;
+		}
+		return true;
+	}
+
+	/**
+	 * Offers every individual of a population to the archive.
+	 * @param population The population to be offered.
+	 */
+	public void offerAll(Population population) {
+		for(IIndividual e : population.getPopulation()) {
+			offer(e);
+		}
+	}
+
+	/**
+	 * Removes every individual from the archive, for example when the problem changed and the elites no longer solve it.
+	 */
+	public void clear() {
+		for(int i = 0; i < size; i++) {
+			heap[i] = null;
+		}
+		size = 0;
+		signatures.clear();
+		best = null;
+	}
+
+	/**
+	 * @return A clone of the best individual in the archive, or null if it is empty.
+	 */
+	public IIndividual getBest() {
+		return best == null ? null : (IIndividual) best.clone();
+	}
+
+	/**
+	 * @return The fitness of the best individual in the archive, read without copying it, or negative infinity if it is empty.
+	 */
+	public double getBestFitness() {
+		return best == null ? Double.NEGATIVE_INFINITY : best.getFitness();
+	}
+
+	/**
+	 * @return The fitness of the worst individual in the archive, or negative infinity if it is not full.
+	 */
+	public double getThreshold() {
+		return size < heap.length ? Double.NEGATIVE_INFINITY : heap[0].getFitness();
+	}
+
+	/**
+	 * @return The number of individuals in the archive.
+	 */
+	public int getSize() {
+		return size;
+	}
+
+	/**
+	 * @return The maximum number of individuals in the archive.
+	 */
+	public int getCapacity() {
+		return heap.length;
+	}
+
+	/**
+	 * @return Clones of the individuals in the archive, sorted decreasingly by their fitness.
+	 */
+	public List<IIndividual> getElites() {
+		List<IIndividual> elites = new ArrayList<IIndividual>();
+		for(int i = 0; i < size; i++) {
+			elites.add((IIndividual) heap[i].clone());
+		}
+		Collections.sort(elites);
+		return elites;
+	}
+
+	/**
+	 * Moves the individual at the given position up until its parent is not worse than it.
+	 */
+	private void siftUp(int i) {
+		IIndividual e = heap[i];
+		while(i > 0) {
+			int parent = (i - 1) / 2;
+			if(heap[parent].getFitness() <= e.getFitness()) break;
+			heap[i] = heap[parent];
+			i = parent;
+		}
+		heap[i] = e;
+	}
+
+	/**
+	 * Moves the individual at the given position down until its children are not worse than it.
+	 */
+	private void siftDown(int i) {
+		IIndividual e = heap[i];
+		while(2 * i + 1 < size) {
+			int child = 2 * i + 1;
+			if(child + 1 < size && heap[child + 1].getFitness() < heap[child].getFitness()) child++;
+			if(e.getFitness() <= heap[child].getFitness()) break;
+			heap[i] = heap[child];
+			i = child;
+		}
+		heap[i] = e;
+	}
+}
@@ -0,0 +1,73 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * This class tests the offer and getBestFitness methods of an EliteArchive and its use by the GeneticAlgorithm.
+ */
+class EliteArchiveTest {
+
+	private TSP instance(int n) {
+		List<City> a = new ArrayList<City>();
+		for(int i=0; i<n;i++) {
+			a.add(new City("Andre" + i,new PointTwoDimensions(Math.cos(i*0.7)*100,Math.sin(i*1.3)*100)));
+		}
+		return new TSP(a);
+	}
+
+	@Test
+	void testKeepsBestDistinct() {
+		Random generator = new Random(0);
+		TSP first = instance(10);
+		EliteArchive archive = new EliteArchive(5);
+		List<IIndividual> offered = new ArrayList<IIndividual>();
+		for(int i=0;i<100;i++) {
+			TSP t = first.permutation(generator);
+			t.calculateFitness();
+			offered.add(t);
+			archive.offer(t);
+			archive.offer((IIndividual) t.clone());
+		}
+		Collections.sort(offered);
+		List<IIndividual> elites = archive.getElites();
+		assertEquals(5,elites.size());
+		assertEquals(offered.get(0).getFitness(),archive.getBest().getFitness());
+		assertEquals(elites.get(4).getFitness(),archive.getThreshold());
+		for(int i=0;i<5;i++) {
+			assertEquals(offered.get(i).getFitness(),elites.get(i).getFitness());
+		}
+	}
+
+	@Test
+	void testSolveKeepsElite() {
+		TSP first = instance(20);
+		GeneticAlgorithm test = new GeneticAlgorithm(first,new Random(0),32,0.05,0.7,1,40,2);
+		EliteArchive archive = new EliteArchive(4);
+		test.setEliteArchive(archive);
+		test.setRestartAfter(10);
+		IIndividual result = test.solveWithTournament();
+		assertNotSame(archive.getBest(),result);
+		assertEquals(archive.getBest().getSignature(),result.getSignature());
+		assertEquals(archive.getBest().getFitness(),result.getFitness());
+		assertEquals(result.getFitness(),test.getPopulation().getPopulation().get(0).getFitness());
+		((TSP) result).setRepresentation(new ArrayList<City>(first.getRepresentation()));
+		assertNotEquals(archive.getBest().getFitness(),result.getFitness());
+	}
+
+	@Test
+	void testBestFitness() {
+		EliteArchive archive = new EliteArchive(3);
+		assertEquals(Double.NEGATIVE_INFINITY,archive.getBestFitness());
+		TSP first = instance(20);
+		GeneticAlgorithm test = new GeneticAlgorithm(first,new Random(0),32,0.05,0.7,1,10,2);
+		test.setEliteArchive(archive);
+		test.solveWithTournament();
+		assertEquals(archive.getBest().getFitness(),archive.getBestFitness());
+		assertEquals(archive.getBestFitness(),test.getBestFitness());
+	}
+}
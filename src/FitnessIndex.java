@@ -0,0 +1,165 @@
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * This class represents a structure of arrays which ranks the individuals of a population by their fitness.
+ * The fitness values are read once into a double array and turned into long keys whose unsigned order is the
+ * decreasing order of the fitness. The positions of the individuals are then sorted by a stable least significant
+ * digit radix sort over the bytes of the keys, skipping the bytes which are the same in every key, so ranking never
+ * compares individual objects. The fitness values are read on the calling thread, so an individual which is not
+ * evaluated yet is evaluated there, and large populations are then sorted in parallel, each chunk counting and
+ * scattering its own part of every pass.
+ * The order is the one Collections.sort gives with the compareTo of the individuals: decreasing fitness, ties in their
+ * original order. The arrays are kept between sorts, so sorting a population of a stable size allocates nothing.
+ */
+public class FitnessIndex {
+	private static final int PARALLEL_THRESHOLD = 1 << 15;
+	private static final int CHUNK = 1 << 13;
+
+	private double[] fitness = new double[0];
+	private long[] keys = new long[0], keyBuffer = new long[0];
+	private int[] order = new int[0], orderBuffer = new int[0];
+	private Object[] scratch = new Object[0];
+	private int[] offsets = new int[257];
+	private int[][] counts = new int[0][256];
+	private int size;
+
+	/**
+	 * Sorts the individuals decreasingly by their fitness, keeping the original order of equal fitness values.
+	 * Afterwards the fitness values are available by rank without touching the individuals.
+	 * @param individuals The list to be sorted in place.
+	 */
+	public void sort(List<IIndividual> individuals) {
+		size = individuals.size();
+		ensure(size);
+		for(int i = 0; i < size; i++) {
+			IIndividual e = individuals.get(i);
+			scratch[i] = e;
+			keys[i] = key(e.getFitness() + 0.0);
+			order[i] = i;
+		}
+		radixSort(size >= PARALLEL_THRESHOLD);
+		for(int rank = 0; rank < size; rank++) {
+			individuals.set(rank, (IIndividual) scratch[order[rank]]);
+		}
+		for(int rank = 0; rank < size; rank++) {
+			fitness[rank] = ((IIndividual) scratch[order[rank]]).getFitness();
+			scratch[order[rank]] = null;
+		}
+	}
+
+	/**
+	 * @param fitness A fitness value.
+	 * @return A key whose unsigned order is the decreasing order of the fitness values.
+	 */
+	static long key(double fitness) {
+		long bits = Double.doubleToLongBits(fitness);
+		long ascending = bits ^ ((bits >> 63) | Long.MIN_VALUE);
+		return ~ascending;
+	}
+
+	/**
+	 * @return The number of individuals ranked by the last sort.
+	 */
+	public int getSize() {
+		return size;
+	}
+
+	/**
+	 * @param rank A rank, 0 being the fittest.
+	 * @return The fitness of the individual with that rank in the last sort.
+	 */
+	public double getFitness(int rank) {
+		return fitness[rank];
+	}
+
+	/**
+	 * @param rank A rank, 0 being the fittest.
+	 * @return The position, before the last sort, of the individual with that rank.
+	 */
+	public int getOriginalPosition(int rank) {
+		return order[rank];
+	}
+
+	/**
+	 * Sorts the positions by their keys, one byte per pass from the least significant, swapping the arrays after each pass.
+	 */
+	private void radixSort(boolean parallel) {
+		long same = -1L, first = size > 0 ? keys[0] : 0;
+		for(int i = 1; i < size; i++) {
+			same &= ~(keys[i] ^ first);
+		}
+		for(int shift = 0; shift < 64; shift += 8) {
+			if(((same >>> shift) & 0xFF) == 0xFF) continue;
+			if(parallel) parallelPass(shift);
+			else pass(shift);
+			long[] k = keys; keys = keyBuffer; keyBuffer = k;
+			int[] o = order; order = orderBuffer; orderBuffer = o;
+		}
+	}
+
+	/**
+	 * Scatters the positions into the buffers by one byte of their keys, keeping the order of equal bytes.
+	 */
+	private void pass(int shift) {
+		Arrays.fill(offsets, 0);
+		for(int i = 0; i < size; i++) {
+			offsets[(int) ((keys[i] >>> shift) & 0xFF) + 1]++;
+		}
+		for(int b = 0; b < 256; b++) {
+			offsets[b + 1] += offsets[b];
+		}
+		for(int i = 0; i < size; i++) {
+			int to = offsets[(int) ((keys[i] >>> shift) & 0xFF)]++;
+			keyBuffer[to] = keys[i];
+			orderBuffer[to] = order[i];
+		}
+	}
+
+	/**
+	 * Does a pass in parallel: every chunk counts its bytes, the offsets of each chunk in each bucket follow the chunks
+	 * before it, so the scatter of every chunk is independent and the pass stays stable.
+	 */
+	private void parallelPass(int shift) {
+		int chunks = (size + CHUNK - 1) / CHUNK;
+		if(counts.length < chunks) counts = new int[chunks][256];
+		int[][] counts = this.counts;
+		IntStream.range(0, chunks).parallel().forEach(c -> {
+			int[] count = counts[c];
+			Arrays.fill(count, 0);
+			for(int i = c * CHUNK, end = Math.min(i + CHUNK, size); i < end; i++) {
+				count[(int) ((keys[i] >>> shift) & 0xFF)]++;
+			}
+		});
+		int offset = 0;
+		for(int b = 0; b < 256; b++) {
+			for(int c = 0; c < chunks; c++) {
+				int count = counts[c][b];
+				counts[c][b] = offset;
+				offset += count;
+			}
+		}
+		IntStream.range(0, chunks).parallel().forEach(c -> {
+			int[] next = counts[c];
+			for(int i = c * CHUNK, end = Math.min(i + CHUNK, size); i < end; i++) {
+				int to = next[(int) ((keys[i] >>> shift) & 0xFF)]++;
+				keyBuffer[to] = keys[i];
+				orderBuffer[to] = order[i];
+			}
+		});
+	}
+
+	/**
+	 * Grows the arrays to hold the given number of individuals.
+	 */
+	private void ensure(int capacity) {
+		if(keys.length >= capacity) return;
+		fitness = new double[capacity];
+		keys = new long[capacity];
+		keyBuffer = new long[capacity];
+		order = new int[capacity];
+		orderBuffer = new int[capacity];
+		scratch = new Object[capacity];
+	}
+}
@@ -0,0 +1,71 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * This class tests that FitnessIndex sorts like Collections.sort, for small and large populations.
+ */
+class FitnessIndexTest {
+
+	private List<IIndividual> individuals(int n, Random random) {
+		double[] lower = {-Double.MAX_VALUE}, upper = {Double.MAX_VALUE};
+		List<IIndividual> individuals = new ArrayList<IIndividual>();
+		for(int i=0;i<n;i++) {
+			double value = random.nextInt(4) == 0 ? Math.floor(random.nextDouble()*10) : random.nextDouble()*1e6;
+			individuals.add(new RealChromosome(new double[] {value},lower,upper,c -> c.get(0)));
+		}
+		return individuals;
+	}
+
+	@Test
+	void testKey() {
+		double[] values = {Double.POSITIVE_INFINITY,1e300,3.5,1,Double.MIN_VALUE,0,-Double.MIN_VALUE,-2,-1e300,Double.NEGATIVE_INFINITY};
+		for(int i=1;i<values.length;i++) {
+			assertTrue(Long.compareUnsigned(FitnessIndex.key(values[i-1]),FitnessIndex.key(values[i])) < 0);
+		}
+	}
+
+	@Test
+	void testSort() {
+		Random random = new Random(0);
+		for(int n : new int[] {0,1,7,1000,40000}) {
+			List<IIndividual> expected = individuals(n,random);
+			List<IIndividual> sorted = new ArrayList<IIndividual>(expected);
+			Collections.sort(expected);
+			FitnessIndex test = new FitnessIndex();
+			test.sort(sorted);
+			assertEquals(n,test.getSize());
+			for(int i=0;i<n;i++) {
+				assertSame(expected.get(i),sorted.get(i));
+				assertEquals(expected.get(i).getFitness(),test.getFitness(i));
+			}
+		}
+	}
+
+	@Test
+	void testEvaluatesOnCallingThread() {
+		Random random = new Random(0);
+		Thread caller = Thread.currentThread();
+		double[] lower = {0}, upper = {1};
+		List<IIndividual> individuals = new ArrayList<IIndividual>();
+		for(int i=0;i<40000;i++) {
+			individuals.add(new RealChromosome(new double[] {random.nextDouble()},lower,upper,c -> {
+				assertSame(caller,Thread.currentThread());
+				return c.get(0);
+			}));
+		}
+		FitnessIndex test = new FitnessIndex();
+		for(int k=0;k<2;k++) {
+			Collections.shuffle(individuals,random);
+			test.sort(individuals);
+			for(int i=1;i<individuals.size();i++) {
+				assertTrue(individuals.get(i-1).getFitness() >= individuals.get(i).getFitness());
+			}
+		}
+	}
+}
@@ -1,14 +1,42 @@
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Random;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.random.RandomGenerator;
 
 /**
  * This class represents the data type which holds a Genetic Algorithm representation.
+ * After every generation a snapshot of the best individual is published, which other threads may read at any
+ * moment, and a run may be cancelled from another thread, in which case it stops at the end of the current generation.
+ * Cities may also be added or removed from another thread while it runs; the changes are applied to every tour
+ * at the start of the next generation.
  */
 public class GeneticAlgorithm {
 	private Population population;
-	private Random generator;
+	private RandomGenerator generator;
 	private double crossoverProbability, replacementFraction, mutationProbability;
 	private int generations,tournamentSize;
+	private AdaptiveControl control;
+	private EliteArchive archive;
+	private int restartAfter, stagnantGenerations;
+	private double eliteFitness;
+	private int generation;
+	private long startNanos = System.nanoTime();
+	private volatile boolean cancelled;
+	private AtomicReference<SolverSnapshot> snapshot = new AtomicReference<SolverSnapshot>();
+	private volatile ProgressPublisher progress;
+	private long lastPublishNanos;
+	private ConcurrentLinkedQueue<Consumer<Population>> changes = new ConcurrentLinkedQueue<Consumer<Population>>();
+	private RandomStreams breedingStreams;
+	private int island, pairsPerBlock;
+	private ForkJoinPool pool;
 
 	/**
 	 * Initializes the genetic algorithm with the corresponding fields.
@@ -21,7 +49,7 @@ public class GeneticAlgorithm {
 	 * @param generations The number of generations.
 	 * @param tournamentSize The tournament size for the tournament selection.
 	 */
-	public GeneticAlgorithm(IIndividual member,Random generator, int popuSize,double mutProb, double crossProb, double replaceFraction, int generations, int tournamentSize){
+	public GeneticAlgorithm(IIndividual member,RandomGenerator generator, int popuSize,double mutProb, double crossProb, double replaceFraction, int generations, int tournamentSize){
 		population = new Population(member,generator,popuSize);
 		this.generator = generator;
 		this.crossoverProbability=crossProb;
@@ -41,7 +69,7 @@ public class GeneticAlgorithm {
 	 * @param replaceFraction The replacement fraction.
 	 * @param generations The number of generations.
 	 */
-	public GeneticAlgorithm(IIndividual member,Random generator, int popuSize,double mutProb, double crossProb, double replaceFraction, int generations){
+	public GeneticAlgorithm(IIndividual member,RandomGenerator generator, int popuSize,double mutProb, double crossProb, double replaceFraction, int generations){
 		population = new Population(member,generator,popuSize);
 		this.generator = generator;
 		this.crossoverProbability=crossProb;
@@ -51,22 +79,48 @@ public class GeneticAlgorithm {
 		this.tournamentSize = 0;
 	}
 
+	/**
+	 * Initializes the genetic algorithm with a given population, for example one seeded by WarmStart.
+	 * @param population The initial population.
+	 * @param generator The random number generator.
+	 * @param mutProb The mutation probability.
+	 * @param crossProb The crossover probability.
+	 * @param replaceFraction The replacement fraction.
+	 * @param generations The number of generations.
+	 * @param tournamentSize The tournament size for the tournament selection, or 0 for roulette wheel selection.
+	 */
+	public GeneticAlgorithm(Population population,RandomGenerator generator,double mutProb, double crossProb, double replaceFraction, int generations, int tournamentSize){
+		this.population = population;
+		this.generator = generator;
+		this.crossoverProbability=crossProb;
+		this.replacementFraction=replaceFraction;
+		this.mutationProbability= mutProb;
+		this.generations=generations;
+		this.tournamentSize = tournamentSize;
+	}
+
 	/**
 	 * @return The population of the genetic algorithm.
 	 */
 	public Population getPopulation() { return population; }
 
 	/**
-	 * Change the current population of the genetic algorithm.
+	 * Change the current population of the genetic algorithm. If eliminateDuplicates was enabled on the current
+	 * population, it is enabled on the new one too, with the same perturbation, and so is the tracking of its edges.
 	 * @param population The population to be set.
 	 */
-	public void setPopulation(Population population) { this.population =
-			population; }
+	public void setPopulation(Population population) {
+		if(this.population != null && this.population.isDuplicateEliminationEnabled() && !population.isDuplicateEliminationEnabled())
+			population.enableDuplicateElimination(this.population.getPerturbation());
+		if(this.population != null && this.population.isDiversityTracked())
+			population.enableDiversityTracking();
+		this.population = population;
+	}
 
 	/**
 	 * @return The random number generator used in the genetic algorithm.
 	 */
-	public Random getRandom() { return generator; }
+	public RandomGenerator getRandom() { return generator; }
 
 	/**
 	 * @return The probability value for which crossover will occur.
@@ -93,32 +147,159 @@ public class GeneticAlgorithm {
 	public int getGenerations() {return generations;}
 
 	/**
-	 * This method consists of sorting the population decreasingly by its fitness, then perform roulette wheel selection,
-	 * crossover, mutation and replacing individuals of the population.
-	 * @return The best individual found after running the algorithm for the selected generations.
+	 * @param mutProb The mutation probability to be set.
 	 */
-	public IIndividual solveWithRoulette(){
+	public void setMutProb(double mutProb) { this.mutationProbability = mutProb; }
+
+	/**
+	 * @param crossProb The crossover probability to be set.
+	 */
+	public void setCrossProb(double crossProb) { this.crossoverProbability = crossProb; }
+
+	/**
+	 * @param replaceFraction The replacement fraction to be set.
+	 */
+	public void setReplaceFraction(double replaceFraction) { this.replacementFraction = replaceFraction; }
+
+	/**
+	 * @param tournamentSize The tournament size to be set, which should divide the size of the population.
+	 */
+	public void setTournamentSize(int tournamentSize) { this.tournamentSize = tournamentSize; }
+
+	/**
+	 * @return The control which adapts the parameters after each generation, or null if they are fixed.
+	 */
+	public AdaptiveControl getParameterControl() { return control; }
+
+	/**
+	 * Change the control which adapts the parameters after each generation.
+	 * The edges of a population of tours start being tracked, so that the control can read their diversity.
+	 * @param control The control to be set, or null to keep the parameters fixed.
+	 */
+	public void setParameterControl(AdaptiveControl control) {
+		this.control = control;
+		if(control != null) population.enableDiversityTracking();
+	}
+
+	/**
+	 * @return The archive of the best individuals found, or null if there is none.
+	 */
+	public EliteArchive getEliteArchive() { return archive; }
 
-		Collections.sort(population.getPopulation());
+	/**
+	 * Change the archive of the best individuals found. The archive is offered the current population and then
+	 * every child, the best elite is put back in the population whenever it is lost, and the solve methods
+	 * report the best elite.
+	 * @param archive The archive to be set, or null to disable it.
+	 */
+	public void setEliteArchive(EliteArchive archive) {
+		this.archive = archive;
+		if(archive != null) {
+			archive.offerAll(population);
+			eliteFitness = archive.getBestFitness();
+		}
+	}
 
-		Population parents,childs;
+	/**
+	 * Makes the algorithm restart when the best elite does not improve for a number of generations.
+	 * It only has effect when there is an elite archive.
+	 * @param restartAfter The number of generations without improvement, or 0 to never restart.
+	 */
+	public void setRestartAfter(int restartAfter) { this.restartAfter = restartAfter; }
 
-		for(int i=0;i<generations;i++) {
+	/**
+	 * Makes the childs be bred in parallel by Population.offspring, in blocks of pairs of parents which are crossed over,
+	 * mutated and evaluated by the tasks of a pool. Each block draws its numbers from its own stream, so a run gives the same
+	 * results for a given seed whatever the number of threads; selection still uses the random number generator of the algorithm.
+	 * @param streams The streams of the blocks, or null to breed serially with the random number generator of the algorithm.
+	 * @param island The island from which the streams of the blocks are derived.
+	 * @param pairsPerBlock The number of pairs of parents bred by each task.
+	 * @param pool The pool which runs the tasks.
+	 */
+	public void setParallelBreeding(RandomStreams streams, int island, int pairsPerBlock, ForkJoinPool pool) {
+		this.breedingStreams = streams;
+		this.island = island;
+		this.pairsPerBlock = pairsPerBlock;
+		this.pool = pool;
+	}
 
-			parents = new Population();
-			childs = new Population();
+	/**
+	 * Replaces the population with the elites of the archive and random permutations of the best individual.
+	 */
+	public void restart() {
+		IIndividual seed = getBest();
+		List<IIndividual> fresh = archive == null ? new ArrayList<IIndividual>() : archive.getElites();
+		while(fresh.size() > population.getSize()) {
+			fresh.remove(fresh.size()-1);
+		}
+		SolverEvents.Migration migration = new SolverEvents.Migration();
+		migration.begin();
+		int elites = fresh.size();
+		while(fresh.size() < population.getSize()) {
+			fresh.add(seed.permutation(generator));
+		}
+		population.setPopulation(fresh);
+		population.sort();
+		migration.finish("restart", elites, seed.getFitness(), generation);
+		stagnantGenerations = 0;
+	}
 
-			parents.getPopulation().addAll(population.selectedPopulationRoulette(generator, population.getSize()));
+	/**
+	 * Prevents the replacement step from inserting individuals which are already in the population.
+	 * @param perturb True to perturb duplicates with the random number generator of the algorithm, False to reject them.
+	 */
+	public void eliminateDuplicates(boolean perturb) {
+		population.enableDuplicateElimination(perturb ? generator : null);
+	}
 
-			childs.offspring(parents,generator,crossoverProbability);
+	/**
+	 * @return A clone of the best elite if there is an elite archive, else the best individual of the current population.
+	 */
+	public IIndividual getBest() {
+		if(archive != null) return archive.getBest();
+		IIndividual best = population.getPopulation().get(0);
+		for(IIndividual e : population.getPopulation()) {
+			if(e.getFitness() > best.getFitness()) {
+				best = e;
+			}
+		}
+		return best;
+	}
 
-			childs.mutatePopulation(generator,mutationProbability);
+	/**
+	 * @return The fitness of the individual given by getBest, read without copying it.
+	 */
+	public double getBestFitness() {
+		if(archive != null) return archive.getBestFitness();
+		double best = Double.NEGATIVE_INFINITY;
+		for(IIndividual e : population.getPopulation()) {
+			best = Math.max(best, e.getFitness());
+		}
+		return best;
+	}
 
-			population.replaceWith(childs, replacementFraction);
+	/**
+	 * @return A copy of the individual given by getBest, cloned once.
+	 */
+	private IIndividual copyBest() {
+		return archive != null ? archive.getBest() : (IIndividual) getBest().clone();
+	}
 
-			Collections.sort(population.getPopulation());
+	/**
+	 * This method consists of sorting the population decreasingly by its fitness, then perform roulette wheel selection,
+	 * crossover, mutation and replacing individuals of the population.
+	 * @return The best individual found after running the algorithm for the selected generations.
+	 */
+	public IIndividual solveWithRoulette(){
+
+		population.sort();
 
+		startNanos = System.nanoTime();
+		for(int i=0;i<generations && !cancelled;i++) {
+			nextGenerationWithRoulette();
 		}
+		closeProgress();
+		if(archive != null) return archive.getBest();
 		return population.getPopulation().get(0);
 
 	}
@@ -130,25 +311,287 @@ public class GeneticAlgorithm {
 	 */
 	public IIndividual solveWithTournament(){
 
-		Collections.sort(population.getPopulation());
+		population.sort();
+
+		startNanos = System.nanoTime();
+		for(int i=0;i<generations && !cancelled;i++) {
+			nextGenerationWithTournament();
+		}
+		closeProgress();
+		if(archive != null) return archive.getBest();
+		return population.getPopulation().get(0);
+	}
+
+	/**
+	 * Runs generations, with tournament selection if the tournament size is positive and roulette wheel selection otherwise,
+	 * until the time budget is spent, the number of generations of the algorithm is reached, if it is positive,
+	 * or the run is cancelled.
+	 * @param budget The maximum wall clock time of the run.
+	 * @return The best individual found.
+	 */
+	public IIndividual solve(Duration budget) {
+		population.sort();
+		startNanos = System.nanoTime();
+		long deadline = startNanos + budget.toNanos();
+		for(int i=0;(generations <= 0 || i<generations) && !cancelled && System.nanoTime() - deadline < 0;i++) {
+			if(tournamentSize > 0) {
+				nextGenerationWithTournament();
+			}
+			else nextGenerationWithRoulette();
+		}
+		closeProgress();
+		return getBest();
+	}
+
+	/**
+	 * Runs solve on a new daemon thread.
+	 * @param budget The maximum wall clock time of the run.
+	 * @return A future completed with the best individual found. Cancelling the future cancels the run.
+	 */
+	public CompletableFuture<IIndividual> solveAsync(Duration budget) {
+		return solveAsync(budget, task -> {
+			Thread thread = new Thread(task, "genetic-algorithm");
+			thread.setDaemon(true);
+			thread.start();
+		});
+	}
+
+	/**
+	 * Runs solve on the given executor.
+	 * @param budget The maximum wall clock time of the run.
+	 * @param executor The executor which runs the solve.
+	 * @return A future completed with the best individual found. Cancelling the future cancels the run.
+	 */
+	public CompletableFuture<IIndividual> solveAsync(Duration budget, Executor executor) {
+		CompletableFuture<IIndividual> result = CompletableFuture.supplyAsync(() -> solve(budget), executor);
+		result.whenComplete((best, error) -> {
+			if(result.isCancelled()) cancel();
+		});
+		return result;
+	}
+
+	/**
+	 * Asks the running solve to stop at the end of the current generation. Once cancelled, the algorithm runs no more generations.
+	 */
+	public void cancel() { cancelled = true; }
+
+	/**
+	 * @return True If the algorithm was cancelled, else False.
+	 */
+	public boolean isCancelled() { return cancelled; }
+
+	/**
+	 * @return The snapshot of the best individual published after the last generation, or null if no generation has run.
+	 * It may be called from any thread.
+	 */
+	public SolverSnapshot getBestSoFar() { return snapshot.get(); }
+
+	/**
+	 * Returns the publisher of the progress of the algorithm, which emits an event after every generation and
+	 * completes when a solve method returns. A new publisher is created if there is none or the last one was completed.
+	 * @return The publisher of the progress events.
+	 */
+	public synchronized Flow.Publisher<ProgressEvent> getProgressPublisher() {
+		if(progress == null || progress.isClosed()) {
+			progress = new ProgressPublisher();
+		}
+		return progress;
+	}
+
+	/**
+	 * Change the publisher of the progress of the algorithm.
+	 * @param progress The publisher to be set, or null to publish no progress.
+	 */
+	public synchronized void setProgressPublisher(ProgressPublisher progress) { this.progress = progress; }
+
+	/**
+	 * Completes the subscribers of the progress publisher, if any.
+	 */
+	private void closeProgress() {
+		ProgressPublisher p = progress;
+		if(p != null) p.close();
+	}
+
+	/**
+	 * @return The number of generations run so far.
+	 */
+	public int getGeneration() { return generation; }
+
+	/**
+	 * Adds a city to the problem being solved. It may be called from any thread; the city is inserted into every
+	 * tour, at its cheapest position, at the start of the next generation. The individuals must be of type TSP.
+	 * @param city The city to be added.
+	 */
+	public void addCity(City city) { changes.add(p -> p.insertCity(city)); }
+
+	/**
+	 * Removes a city from the problem being solved. It may be called from any thread; the city is removed from every
+	 * tour at the start of the next generation. The individuals must be of type TSP.
+	 * @param city The city to be removed.
+	 */
+	public void removeCity(City city) { changes.add(p -> p.removeCity(city)); }
+
+	/**
+	 * Applies the pending changes of cities to the population and to the elites of the archive, so the evolution
+	 * goes on from the repaired tours. The snapshot is replaced, since the old best tour no longer solves the problem.
+	 */
+	private void applyChanges() {
+		if(changes.isEmpty()) return;
+		List<IIndividual> elites = archive == null ? new ArrayList<IIndividual>() : archive.getElites();
+		List<IIndividual> tours = new ArrayList<IIndividual>(population.getPopulation());
+		tours.addAll(elites);
+		Population repaired = new Population(tours);
+		Consumer<Population> change;
+		while((change = changes.poll()) != null) {
+			change.accept(repaired);
+		}
+		population.setPopulation(population.getPopulation());
+		population.sort();
+		if(archive != null) {
+			archive.clear();
+			archive.offerAll(repaired);
+			eliteFitness = archive.getBestFitness();
+			stagnantGenerations = 0;
+		}
+		snapshot.set(new SolverSnapshot(copyBest(), getBestFitness(), generation, System.nanoTime() - startNanos));
+	}
+
+	/**
+	 * Runs a single generation with roulette wheel selection, crossover, mutation and replacement.
+	 * The population is left sorted decreasingly by its fitness.
+	 */
+	public void nextGenerationWithRoulette() {
+		SolverEvents.Generation event = new SolverEvents.Generation();
+		event.begin();
+		applyChanges();
+		SolverEvents.Phase selection = new SolverEvents.Phase();
+		selection.begin();
+		Population parents = new Population();
+
+		parents.getPopulation().addAll(population.selectedPopulationRoulette(generator, population.getSize()));
+		selection.finish("selection", generation);
+
+		breed(parents);
+		event.finish(this);
+	}
 
-		Population parents,childs;
-		for(int i=0;i<generations;i++) {
+	/**
+	 * Runs a single generation with tournament selection, crossover, mutation and replacement.
+	 * The population is left sorted decreasingly by its fitness.
+	 */
+	public void nextGenerationWithTournament() {
+		SolverEvents.Generation event = new SolverEvents.Generation();
+		event.begin();
+		applyChanges();
+		SolverEvents.Phase selection = new SolverEvents.Phase();
+		selection.begin();
+		Population parents = new Population();
+
+		parents.getPopulation().addAll(population.TournamentSelection(generator, tournamentSize));
+		selection.finish("selection", generation);
+
+		breed(parents);
+		event.finish(this);
+	}
 
-			parents = new Population();
-			childs = new Population();
+	/**
+	 * Applies crossover and mutation to the selected parents, replaces individuals of the population with the
+	 * resulting childs and sorts the population. Afterwards the elite archive and the parameter control, if any, are updated.
+	 * Each phase is recorded as a SolverEvents.Phase event, and the evaluation of the childs as a SolverEvents.Evaluation event.
+	 * When the breeding is parallel, crossover, mutation and evaluation are a single phase named breeding.
+	 * @param parents The selected parents.
+	 */
+	private void breed(Population parents) {
+		Population childs = new Population();
+
+		SolverEvents.Phase phase;
+		if(breedingStreams != null) {
+			phase = new SolverEvents.Phase();
+			phase.begin();
+			SolverEvents.Evaluation evaluation = new SolverEvents.Evaluation();
+			evaluation.begin();
+			int evaluated = childs.offspring(parents, breedingStreams, island, generation, crossoverProbability, mutationProbability, pairsPerBlock, pool);
+			evaluation.finish(evaluated, generation);
+			phase.finish("breeding", generation);
+		}
+		else breedSerially(parents, childs);
 
-			parents.getPopulation().addAll(population.TournamentSelection(generator, tournamentSize));
+		if(archive != null) archive.offerAll(childs);
 
-			childs.offspring(parents,generator,crossoverProbability);
+		phase = new SolverEvents.Phase();
+		phase.begin();
+		population.replaceWith(childs, replacementFraction);
 
-			childs.mutatePopulation(generator,mutationProbability);
+		population.sort();
+		phase.finish("replacement", generation);
 
-			population.replaceWith(childs, replacementFraction);
+		if(archive != null) preserveElite();
 
-			Collections.sort(population.getPopulation());
+		if(control != null) control.adapt(this);
+
+		generation++;
+		publish();
+	}
+
+	/**
+	 * Adds to the childs the offspring of the parents, then mutates and evaluates them, one phase after the other,
+	 * with the random number generator of the algorithm.
+	 */
+	private void breedSerially(Population parents, Population childs) {
+		SolverEvents.Phase phase = new SolverEvents.Phase();
+		phase.begin();
+		childs.offspring(parents,generator,crossoverProbability);
+		phase.finish("crossover", generation);
+
+		phase = new SolverEvents.Phase();
+		phase.begin();
+		childs.mutatePopulation(generator,mutationProbability);
+		phase.finish("mutation", generation);
+
+		SolverEvents.Evaluation evaluation = new SolverEvents.Evaluation();
+		evaluation.begin();
+		evaluation.finish(childs.evaluate(), generation);
+	}
+
+	/**
+	 * Publishes a new snapshot, copying the best individual only when it improved.
+	 */
+	private void publish() {
+		double best = archive != null ? archive.getBestFitness() : population.getPopulation().get(0).getFitness();
+		SolverSnapshot last = snapshot.get();
+		long now = System.nanoTime(), elapsed = now - startNanos;
+		if(last != null && last.getFitness() >= best) {
+			snapshot.set(last.advance(generation, elapsed));
+		}
+		else {
+			IIndividual copy = archive != null ? archive.getBest() : (IIndividual) population.getPopulation().get(0).clone();
+			snapshot.set(new SolverSnapshot(copy, best, generation, elapsed));
+		}
+		ProgressPublisher p = progress;
+		if(p != null) {
+			double delta = last == null ? 0 : Math.max(best - last.getFitness(), 0);
+			p.publish(new ProgressEvent(generation, best, delta, now - Math.max(lastPublishNanos, startNanos), elapsed));
+		}
+		lastPublishNanos = now;
+	}
+
+	/**
+	 * Puts the best elite back in the population if it was lost, and restarts the population when the
+	 * best elite has not improved for too long.
+	 */
+	private void preserveElite() {
+		double elite = archive.getBestFitness();
+		if(elite > population.getPopulation().get(0).getFitness()) {
+			population.replaceWorst(Collections.singletonList(archive.getBest()));
+			population.sort();
+		}
+		if(elite > eliteFitness) {
+			eliteFitness = elite;
+			stagnantGenerations = 0;
+		}
+		else if(restartAfter > 0 && ++stagnantGenerations >= restartAfter) {
+			restart();
 		}
-		return population.getPopulation().get(0);
 	}
 
-}
\ No newline at end of file
+}
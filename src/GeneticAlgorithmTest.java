@@ -1,8 +1,11 @@
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
 
 import org.junit.jupiter.api.Test;
 
@@ -208,4 +211,54 @@ class GeneticAlgorithmTest {
 		TSP result = (TSP)test.solveWithTournament();
 		assertEquals(best.getFitness(),result.getFitness());
 	}	
-}
\ No newline at end of file
+
+	@Test
+	void testSolveWithBudget() {
+		List<City> a = new ArrayList<City>();
+		for(int i=0; i<40;i+=2) {
+			a.add(new City("Andre" + (i/2),new PointTwoDimensions(1,(i*7)%40)));
+		}
+		GeneticAlgorithm test = new GeneticAlgorithm(new TSP(a),new Random(0),64,0.01,0.7,0.5,0,2);
+		IIndividual result = test.solve(Duration.ofMillis(200));
+		SolverSnapshot snapshot = test.getBestSoFar();
+		assertTrue(test.getGeneration() > 0);
+		assertEquals(test.getGeneration(),snapshot.getGeneration());
+		assertEquals(result.getFitness(),snapshot.getFitness());
+	}
+
+	@Test
+	void testSolveAsyncCancel() throws Exception {
+		List<City> a = new ArrayList<City>();
+		for(int i=0; i<40;i+=2) {
+			a.add(new City("Andre" + (i/2),new PointTwoDimensions(1,(i*7)%40)));
+		}
+		GeneticAlgorithm test = new GeneticAlgorithm(new TSP(a),new Random(0),64,0.01,0.7,0.5,0,2);
+		CompletableFuture<IIndividual> future = test.solveAsync(Duration.ofMinutes(10));
+		while(test.getBestSoFar() == null) {
+			Thread.sleep(1);
+		}
+		SolverSnapshot snapshot = test.getBestSoFar();
+		test.cancel();
+		IIndividual result = future.get();
+		assertTrue(test.isCancelled());
+		assertTrue(result.getFitness() >= snapshot.getFitness());
+		assertTrue(snapshot.getBest().getFitness() == snapshot.getFitness());
+	}
+	@Test
+	void testParallelBreeding() {
+		List<City> a = new ArrayList<City>();
+		for(int i=0; i<40;i+=2) {
+			a.add(new City("Andre" + (i/2),new PointTwoDimensions(i%7,(i*7)%40)));
+		}
+		double[] fitness = new double[2];
+		for(int threads=1; threads<=4; threads+=3) {
+			ForkJoinPool pool = new ForkJoinPool(threads);
+			GeneticAlgorithm test = new GeneticAlgorithm(new TSP(new ArrayList<City>(a)),new Random(0),64,0.05,0.8,0.5,100,2);
+			test.setParallelBreeding(new RandomStreams(11),0,4,pool);
+			fitness[threads/4] = test.solveWithTournament().getFitness();
+			pool.shutdown();
+		}
+		assertEquals(fitness[0],fitness[1]);
+	}
+
+}
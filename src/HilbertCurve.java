@@ -0,0 +1,160 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+/**
+ * This class represents the preprocessing of an instance along a Hilbert curve.
+ * The bounding box of the cities is divided into a 2^16 by 2^16 grid and the cities are sorted by the position
+ * of their cell on the Hilbert curve which fills the grid, in O(n log n). Cities close on the curve are close in the plane,
+ * so the sorted list is a cheap tour to seed a Population. getNumbered gives copies of the cities whose ids are their
+ * positions on the curve, so building index based tables, such as DistanceMatrix, from them keeps the rows of nearby
+ * cities in nearby memory.
+ * The cities themselves are not changed: the order and its inverse permutation are kept, so tours can be reported
+ * in terms of the input list.
+ * The cities must be located by a PointTwoDimensions.
+ */
+public class HilbertCurve {
+	private static final int ORDER = 16;
+
+	private List<City> cities, numbered;
+	private int[] original, position;
+
+	/**
+	 * Sorts the cities along the Hilbert curve.
+	 * @param cities The cities of the instance.
+	 */
+	public HilbertCurve(List<City> cities) {
+		double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY;
+		double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+		for(City c : cities) {
+			PointTwoDimensions p = point(c);
+			minX = Math.min(minX, p.getX());
+			maxX = Math.max(maxX, p.getX());
+			minY = Math.min(minY, p.getY());
+			maxY = Math.max(maxY, p.getY());
+		}
+		double cells = (1 << ORDER) - 1;
+		double scaleX = maxX > minX ? cells / (maxX - minX) : 0, scaleY = maxY > minY ? cells / (maxY - minY) : 0;
+		long[] keys = new long[cities.size()];
+		for(int i = 0; i < keys.length; i++) {
+			PointTwoDimensions p = point(cities.get(i));
+			long d = index((int) ((p.getX() - minX) * scaleX), (int) ((p.getY() - minY) * scaleY));
+			keys[i] = d << 31 | i;
+		}
+		Arrays.sort(keys);
+		this.cities = new ArrayList<City>(keys.length);
+		this.original = new int[keys.length];
+		this.position = new int[keys.length];
+		for(int k = 0; k < keys.length; k++) {
+			int i = (int) (keys[k] & Integer.MAX_VALUE);
+			this.cities.add(cities.get(i));
+			this.original[k] = i;
+			this.position[i] = k;
+		}
+		this.numbered = City.numbered(this.cities);
+	}
+
+	/**
+	 * @param x The column of a cell of the grid.
+	 * @param y The row of a cell of the grid.
+	 * @return The position of the cell on the Hilbert curve which fills the 2^16 by 2^16 grid.
+	 */
+	public static long index(int x, int y) {
+		int n = 1 << ORDER;
+		long d = 0;
+		for(int s = n / 2; s > 0; s >>= 1) {
+			int rx = (x & s) > 0 ? 1 : 0, ry = (y & s) > 0 ? 1 : 0;
+			d += (long) s * s * ((3 * rx) ^ ry);
+			if(ry == 0) {
+				if(rx == 1) {
+					x = n - 1 - x;
+					y = n - 1 - y;
+				}
+				int t = x;
+				x = y;
+				y = t;
+			}
+		}
+		return d;
+	}
+
+	/**
+	 * @return The location of a city, which must be a PointTwoDimensions.
+	 */
+	private static PointTwoDimensions point(City c) {
+		if(!(c.getLocation() instanceof PointTwoDimensions))
+			throw new IllegalArgumentException("The city " + c + " is not located by a PointTwoDimensions!");
+		return (PointTwoDimensions) c.getLocation();
+	}
+
+	/**
+	 * @return The cities in the order of the curve. It is also a tour of the instance.
+	 */
+	public List<City> getCities() {
+		return Collections.unmodifiableList(cities);
+	}
+
+	/**
+	 * @return Copies of the cities in the order of the curve, whose ids are their positions on the curve.
+	 */
+	public List<City> getNumbered() {
+		return Collections.unmodifiableList(numbered);
+	}
+
+	/**
+	 * @return The order of the curve, as the position in the list given to the constructor of each city of getCities.
+	 */
+	public int[] getOrder() {
+		return original.clone();
+	}
+
+	/**
+	 * @return The inverse permutation of getOrder, as the position on the curve of each city of the list given to the constructor.
+	 */
+	public int[] getInverse() {
+		return position.clone();
+	}
+
+	/**
+	 * @param index The position of a city on the curve.
+	 * @return The position of the city in the list given to the constructor.
+	 */
+	public int getOriginalIndex(int index) {
+		return original[index];
+	}
+
+	/**
+	 * @param tour A tour of the cities of getNumbered.
+	 * @return The positions of the cities of the tour in the list given to the constructor, in the order of the tour.
+	 */
+	public int[] toOriginal(List<City> tour) {
+		int[] result = new int[tour.size()];
+		for(int i = 0; i < result.length; i++) {
+			City c = tour.get(i);
+			int id = c.getId();
+			if(id < 0 || id >= numbered.size() || numbered.get(id) != c)
+				throw new IllegalArgumentException("The city " + c + " is not on the curve!");
+			result[i] = original[id];
+		}
+		return result;
+	}
+
+	/**
+	 * Creates a population seeded by the tour along the curve and variants of it, each with a few random segments reversed.
+	 * @param generator The random number generator.
+	 * @param populationSize The size of the population.
+	 * @param strength The maximum number of reversals applied to each variant.
+	 * @return The seeded population.
+	 */
+	public Population seed(RandomGenerator generator, int populationSize, int strength) {
+		List<City> tour = new ArrayList<City>(cities);
+		List<IIndividual> members = new ArrayList<IIndividual>();
+		members.add(new TSP(tour));
+		while(members.size() < populationSize) {
+			members.add(new TSP(WarmStart.perturb(tour, generator, strength)));
+		}
+		return new Population(members);
+	}
+}
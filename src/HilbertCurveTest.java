@@ -0,0 +1,68 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * This class tests the ordering and seeding of HilbertCurve.
+ */
+class HilbertCurveTest {
+
+	@Test
+	void testIndex() {
+		int[][] cells = new int[64][];
+		for(int x=0;x<8;x++) {
+			for(int y=0;y<8;y++) {
+				long d = HilbertCurve.index(x,y);
+				assertTrue(d < 64);
+				assertNull(cells[(int) d]);
+				cells[(int) d] = new int[] {x,y};
+			}
+		}
+		for(int d=1;d<64;d++) {
+			assertEquals(1,Math.abs(cells[d][0]-cells[d-1][0]) + Math.abs(cells[d][1]-cells[d-1][1]));
+		}
+		assertEquals((1L << 32) - 1,HilbertCurve.index(65535,0));
+	}
+
+	@Test
+	void testOrder() {
+		Random random = new Random(0);
+		List<City> cities = new ArrayList<City>();
+		for(int i=0;i<300;i++) {
+			cities.add(new City("Andre" + i,new PointTwoDimensions(random.nextDouble()*100,random.nextDouble()*100)));
+		}
+		List<City> copy = new ArrayList<City>(cities);
+		HilbertCurve test = new HilbertCurve(cities);
+		List<City> sorted = test.getCities();
+		assertEquals(new HashSet<City>(cities),new HashSet<City>(sorted));
+		int[] order = test.getOrder(), inverse = test.getInverse();
+		for(int i=0;i<sorted.size();i++) {
+			assertSame(copy.get(i),cities.get(i));
+			assertSame(sorted.get(i),cities.get(test.getOriginalIndex(i)));
+			assertEquals(order[i],test.getOriginalIndex(i));
+			assertEquals(i,inverse[order[i]]);
+		}
+		List<City> numbered = test.getNumbered();
+		assertEquals(sorted,numbered);
+		for(int i=0;i<numbered.size();i++) {
+			assertEquals(i,numbered.get(i).getId());
+		}
+		int[] original = test.toOriginal(numbered);
+		assertEquals("Andre" + original[0],sorted.get(0).getName());
+		assertArrayEquals(order,original);
+		assertThrows(IllegalArgumentException.class, () -> test.toOriginal(sorted));
+		DistanceMatrix distances = new DistanceMatrix(numbered);
+		assertEquals(sorted.get(0).getDistance(sorted.get(1)),distances.distance(0,1));
+		assertTrue(new TSP(new ArrayList<City>(sorted)).getFitness() > 3*new TSP(cities).getFitness());
+		Population seeded = test.seed(new Random(0),10,3);
+		assertEquals(10,seeded.getSize());
+		for(IIndividual e : seeded.getPopulation()) {
+			assertEquals(300,((TSP)e).getRepresentation().size());
+		}
+	}
+}
@@ -0,0 +1,38 @@
+/**
+ * The IDistance interface provides methods distance, addCity and removeCity.
+ * An implementation is a strategy for obtaining the distance between two cities of an instance, for example
+ * from a precomputed table instead of from their locations. Tables indexed by the ids of the cities also answer
+ * distance for a pair of ids, which spares hot loops the lookup of the cities.
+ * The addCity and removeCity methods let the implementation follow cities which join or leave the instance
+ * while it is being solved.
+ */
+public interface IDistance {
+
+	/**
+	 * @param a A city of the instance.
+	 * @param b Another city of the instance.
+	 * @return The distance between the two cities.
+	 */
+	double distance(City a, City b);
+
+	/**
+	 * @param a The id of a city of the instance.
+	 * @param b The id of another city of the instance.
+	 * @return The distance between the two cities. By default it is not supported.
+	 */
+	default double distance(int a, int b) {
+		throw new UnsupportedOperationException(getClass().getName() + " does not look up distances by id!");
+	}
+
+	/**
+	 * Makes the distances of a new city available. By default nothing is done.
+	 * @param city The city which joined the instance.
+	 */
+	default void addCity(City city) {}
+
+	/**
+	 * Discards the distances of a city. By default nothing is done.
+	 * @param city The city which left the instance.
+	 */
+	default void removeCity(City city) {}
+}
@@ -1,15 +1,19 @@
 import java.util.List;
-import java.util.Random;
+import java.util.random.RandomGenerator;
 
 /**
- * The IIndividual interface provides methods getFitness, calculateFitness, clone, permutation,
+ * The IIndividual interface provides methods getFitness, calculateFitness, isEvaluated, getSignature, clone, permutation,
  * twoBitSwapMutation, twoBitSwapMutationFull and orderCrossOver.
- * The getFitness method should return the fitness value of the implementing type.
+ * The getFitness method should return the fitness value of the implementing type, calculating it first if it is not up to date.
  * The calculateFitness method should calculate and set the fitness value of the implementing type.
+ * The isEvaluated method should tell whether the fitness value is up to date. The operators which create or change an individual
+ * should mark it as not evaluated, so that its fitness is calculated once, when it is first read.
+ * The getSignature method should return a hash which is the same for individuals that represent the same solution.
  * The clone method returns a new instance of the implementing type and initializes all its fields
  * with exactly the same contents of the corresponding fields.
  * The permutation method returns a new instance of the implementing type where its representation has been permuted.
- * The twoBitSwapMutation returns a new instance of the implementing type where two bits of its representation were swapped, according to a given probability.
+ * The twoBitSwapMutation method applies the mutation operator of the implementing type, according to a given probability. It keeps
+ * its historical name: a TSP swaps two cities, while other types apply their own operator, such as bit-flip or Gaussian mutation.
  * The twoBitSwapMutationFull returns a new instance of the implementing type where each two consecutive bits are swapped, according to a given probability.
  * The crossOver method returns a List of new instances of the implementing type, which represent the offspring, according to a given probability.
  * The ILocation interface also provides a method for the implementer to specify its String representation.
@@ -25,39 +29,50 @@ public interface IIndividual extends Comparable<IIndividual>,Cloneable {
 	 */
 	void calculateFitness();
 	
+	/**
+	 * @return True If the fitness value is up to date, else False.
+	 */
+	boolean isEvaluated();
+	
+	/**
+	 * @return A 64-bit hash of the implementing type, which is the same for individuals that represent the same solution.
+	 */
+	long getSignature();
+	
 	/**
 	 * @return A clone of the implementing type.
 	 */
 	Object clone();
 	
 	/**
-	 * @param a An object of type Random.
+	 * @param a An object of type RandomGenerator.
 	 * @return A permutation of the implementing type.
 	 */
-	IIndividual permutation(Random a);
+	IIndividual permutation(RandomGenerator a);
 
 	/**
-	 * @param ran An object of type Random.
+	 * @param ran An object of type RandomGenerator.
 	 * @param mutationProbability The probability for which mutation will occur.
-	 * @return A new instance of the implementing type, which may have be mutated, by swapping
-	 * two elements of the implementers representation.
+	 * @return An instance of the implementing type, which may have been mutated by the mutation operator of the
+	 * implementing type: swapping two elements of the representation for a TSP, bit-flip or Gaussian mutation by default
+	 * for a BitChromosome or a RealChromosome. It may be the instance itself if nothing changed.
 	 */
-	IIndividual twoBitSwapMutation(Random ran,double mutationProbability);
+	IIndividual twoBitSwapMutation(RandomGenerator ran,double mutationProbability);
 
 	/**
-	 * @param ran An object of type Random.
+	 * @param ran An object of type RandomGenerator.
 	 * @param mutationProbability The probability for which mutation will occur.
 	 * @return A new instance of the implementing type, which may have been mutated, by swapping
 	 * consecutive two elements of the implementers representation.
 	 */
-	IIndividual twoBitSwapMutationFull(Random ran, double mutationProbability);
+	IIndividual twoBitSwapMutationFull(RandomGenerator ran, double mutationProbability);
 	
 	/**
 	 * 
-	 * @param ran An object of type Random.
+	 * @param ran An object of type RandomGenerator.
 	 * @param crossOverProbability The probability for which crossOver will occur.
 	 * @param father2 The second Individual which will be used as father
 	 * @return A list of the resulting offspring between two implementing types, given a probability.
 	 */
-	List<IIndividual> crossOver(Random ran,double crossOverProbability,IIndividual father2);
+	List<IIndividual> crossOver(RandomGenerator ran,double crossOverProbability,IIndividual father2);
 }
\ No newline at end of file
@@ -0,0 +1,15 @@
+/**
+ * The IMultiObjective interface provides the method getObjectives, for individuals judged by several costs at once,
+ * such as the length, the tolls and the travel time of a route.
+ * The getObjectives method should return the vector of the objective values of the implementing type, every one of them
+ * to be minimized, calculating them first if they are not up to date. Every individual of a problem must have the same
+ * number of objectives.
+ * Since it extends IIndividual, an implementing type keeps the crossover and mutation operators and a single fitness value,
+ * so it can still be solved by a GeneticAlgorithm, for example on its first objective.
+ */
+public interface IMultiObjective extends IIndividual {
+	/**
+	 * @return The objective values of the implementing type, all to be minimized. The array must not be changed.
+	 */
+	double[] getObjectives();
+}
@@ -0,0 +1,211 @@
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * This class provides order based crossovers over tours given as arrays of city ids: order crossover (OX1),
+ * partially mapped crossover (PMX) and cycle crossover (CX).
+ * Membership is tested with an array stamped with a generation number, so it is reset in constant time,
+ * and the child is written into an array given by the caller, so a crossover does O(n) work without allocation
+ * once the scratch arrays have grown to the largest id seen. The ids are those given by City.getId, and indices remembers
+ * the city of each id, so getCity turns the child back into cities.
+ * An instance is not thread safe; get returns the instance of the calling thread.
+ */
+public class IndexCrossover {
+	private static final ThreadLocal<IndexCrossover> SCRATCH = ThreadLocal.withInitial(IndexCrossover::new);
+
+	private int[] stamps = new int[0], positions = new int[0];
+	private int stamp;
+	private int[][] buffers = new int[3][0];
+	private City[] cities = new City[0];
+
+	/**
+	 * @return The instance of the calling thread, whose scratch arrays are reused by every crossover of that thread.
+	 */
+	public static IndexCrossover get() {
+		return SCRATCH.get();
+	}
+
+	/**
+	 * @param i The number of the buffer, from 0 to 2.
+	 * @param n The number of cities of the tours.
+	 * @return A reusable array of at least n elements, kept by this instance.
+	 */
+	public int[] buffer(int i, int n) {
+		if(buffers[i].length < n) buffers[i] = new int[Math.max(n, 2 * buffers[i].length)];
+		return buffers[i];
+	}
+
+	/**
+	 * Order crossover. The child keeps the cities of the second parent between start and end, at the same positions,
+	 * and the other positions are filled, from end+1 onwards and wrapping around, with the remaining cities in the
+	 * order they appear in the first parent from end+1 onwards.
+	 * @param first The first parent.
+	 * @param second The second parent.
+	 * @param n The number of cities of the tours.
+	 * @param start The first position of the copied segment.
+	 * @param end The last position of the copied segment.
+	 * @param child The array which receives the child.
+	 */
+	public void orderOne(int[] first, int[] second, int n, int start, int end, int[] child) {
+		int s = nextStamp(first, n);
+		for(int i = start; i <= end; i++) {
+			child[i] = second[i];
+			stamps[second[i]] = s;
+		}
+		int filled = end - start + 1, i = (end + 1) % n, j = i;
+		while(filled < n) {
+			int c = first[i];
+			if(stamps[c] != s) {
+				child[j] = c;
+				j = (j + 1) % n;
+				filled++;
+			}
+			i = (i + 1) % n;
+		}
+	}
+
+	/**
+	 * Partially mapped crossover. The child keeps the cities of the first parent between start and end, and takes
+	 * the other positions from the second parent, following the mapping defined by the segment when a city is already in it.
+	 * @param first The first parent.
+	 * @param second The second parent.
+	 * @param n The number of cities of the tours.
+	 * @param start The first position of the copied segment.
+	 * @param end The last position of the copied segment.
+	 * @param child The array which receives the child.
+	 */
+	public void partiallyMapped(int[] first, int[] second, int n, int start, int end, int[] child) {
+		int s = nextStamp(first, n);
+		for(int i = 0; i < n; i++) {
+			positions[first[i]] = i;
+		}
+		for(int i = start; i <= end; i++) {
+			child[i] = first[i];
+			stamps[first[i]] = s;
+		}
+		for(int i = 0; i < n; i++) {
+			if(i >= start && i <= end) continue;
+			int c = second[i];
+			while(stamps[c] == s) {
+				c = second[positions[c]];
+			}
+			child[i] = c;
+		}
+	}
+
+	/**
+	 * Cycle crossover. The positions are split into the cycles of the permutation which maps the first parent
+	 * onto the second, and the child takes its cities alternately from the first and the second parent, cycle by cycle,
+	 * so every city stays at a position it has in one of the parents.
+	 * @param first The first parent.
+	 * @param second The second parent.
+	 * @param n The number of cities of the tours.
+	 * @param child The array which receives the child.
+	 */
+	public void cycle(int[] first, int[] second, int n, int[] child) {
+		int s = nextStamp(first, n);
+		for(int i = 0; i < n; i++) {
+			positions[first[i]] = i;
+		}
+		boolean fromFirst = true;
+		for(int begin = 0; begin < n; begin++) {
+			if(stamps[first[begin]] == s) continue;
+			int i = begin;
+			do {
+				stamps[first[i]] = s;
+				child[i] = fromFirst ? first[i] : second[i];
+				i = positions[second[i]];
+			} while(i != begin);
+			fromFirst = !fromFirst;
+		}
+	}
+
+	/**
+	 * Writes the ids of the cities of a tour into an array, and remembers the city of each id.
+	 * @param tour A tour.
+	 * @param indices The array which receives the ids.
+	 * @return True If every city of the tour has an id and no id is twice in it, else False.
+	 */
+	public boolean indices(List<City> tour, int[] indices) {
+		int n = tour.size(), s = nextStamp();
+		for(int i = 0; i < n; i++) {
+			City c = tour.get(i);
+			int id = c.getId();
+			if(id < 0) return false;
+			ensure(id + 1);
+			if(stamps[id] == s) return false;
+			stamps[id] = s;
+			cities[id] = c;
+			indices[i] = id;
+		}
+		return true;
+	}
+
+	/**
+	 * Numbers the cities of two tours of the same cities by their position in the first tour, hashing them.
+	 * It is the slow path for cities without ids.
+	 * @param first The first tour.
+	 * @param second The second tour.
+	 * @param a The array which receives the ids of the first tour.
+	 * @param b The array which receives the ids of the second tour.
+	 */
+	public void number(List<City> first, List<City> second, int[] a, int[] b) {
+		int n = first.size();
+		ensure(n);
+		HashMap<City,Integer> ids = new HashMap<City,Integer>(2 * n);
+		for(int i = 0; i < n; i++) {
+			ids.put(first.get(i), i);
+			cities[i] = first.get(i);
+			a[i] = i;
+		}
+		for(int i = 0; i < n; i++) {
+			Integer id = ids.get(second.get(i));
+			if(id == null)
+				throw new IllegalArgumentException("The city " + second.get(i) + " is not in both tours!");
+			b[i] = id;
+		}
+	}
+
+	/**
+	 * @param id The id of a city given to indices or number.
+	 * @return The city with the given id.
+	 */
+	public City getCity(int id) {
+		return cities[id];
+	}
+
+	/**
+	 * Grows the scratch arrays to hold the largest id of a tour and returns a new stamp.
+	 */
+	private int nextStamp(int[] tour, int n) {
+		int max = -1;
+		for(int i = 0; i < n; i++) {
+			max = Math.max(max, tour[i]);
+		}
+		ensure(max + 1);
+		return nextStamp();
+	}
+
+	/**
+	 * @return A stamp which is in no element of the stamp array, clearing the array when the stamps wrap around.
+	 */
+	private int nextStamp() {
+		if(++stamp == 0) {
+			Arrays.fill(stamps, 0);
+			stamp = 1;
+		}
+		return stamp;
+	}
+
+	/**
+	 * Grows the arrays indexed by city id to the given capacity.
+	 */
+	private void ensure(int capacity) {
+		if(stamps.length >= capacity) return;
+		capacity = Math.max(capacity, 2 * stamps.length);
+		stamps = Arrays.copyOf(stamps, capacity);
+		positions = new int[capacity];
+		cities = Arrays.copyOf(cities, capacity);
+	}
+}
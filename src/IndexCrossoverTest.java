@@ -0,0 +1,109 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * This class tests the order, partially mapped and cycle crossovers of IndexCrossover.
+ */
+class IndexCrossoverTest {
+
+	@Test
+	void testPartiallyMapped() {
+		int[] first = {1,2,3,4,5,6,7,8,9}, second = {9,3,7,8,2,6,5,1,4}, child = new int[9];
+		IndexCrossover.get().partiallyMapped(first,second,9,3,6,child);
+		assertArrayEquals(new int[] {9,3,2,4,5,6,7,1,8},child);
+	}
+
+	@Test
+	void testCycle() {
+		int[] first = {1,2,3,4,5,6,7,8}, second = {8,5,2,1,3,6,4,7}, child = new int[8];
+		IndexCrossover.get().cycle(first,second,8,child);
+		assertArrayEquals(new int[] {1,5,2,4,3,6,7,8},child);
+	}
+
+	@Test
+	void testOrderOneMatchesCityCrossOver() {
+		Random random = new Random(0);
+		List<City> cities = new ArrayList<City>();
+		for(int i=0;i<30;i++) {
+			cities.add(new City("Andre" + i,new PointTwoDimensions(random.nextDouble(),random.nextDouble())));
+		}
+		List<City> numbered = City.numbered(cities);
+		TSP first = new TSP(numbered).permutation(random), second = new TSP(numbered).permutation(random);
+		TSP hashedFirst = new TSP(unnumbered(first,cities)), hashedSecond = new TSP(unnumbered(second,cities));
+		int[] a = new int[30], b = new int[30], child = new int[30];
+		IndexCrossover scratch = IndexCrossover.get();
+		for(int start=0;start<30;start+=7) {
+			for(int end=start;end<30;end+=5) {
+				TSP hashed = hashedFirst.orderOneCrossOver(start,end,random,new TSP(),hashedSecond);
+				TSP indexed = first.orderOneCrossOver(start,end,random,new TSP(),second);
+				assertTrue(scratch.indices(first.getRepresentation(),a));
+				assertTrue(scratch.indices(second.getRepresentation(),b));
+				scratch.orderOne(a,b,30,start,end,child);
+				for(int k=0;k<30;k++) {
+					assertSame(numbered.get(child[k]),indexed.getRepresentation().get(k));
+					assertSame(scratch.getCity(child[k]),indexed.getRepresentation().get(k));
+				}
+				assertEquals(hashed.getRepresentation(),unnumbered(indexed,cities));
+			}
+		}
+		int[] sorted = child.clone();
+		Arrays.sort(sorted);
+		for(int i=0;i<30;i++) {
+			assertEquals(i,sorted[i]);
+		}
+		assertFalse(scratch.indices(hashedFirst.getRepresentation(),a));
+		List<City> twice = new ArrayList<City>(numbered);
+		twice.set(3,numbered.get(5));
+		assertFalse(scratch.indices(twice,a));
+	}
+
+	@Test
+	void testSelectableCrossOver() {
+		Random random = new Random(0);
+		List<City> cities = new ArrayList<City>();
+		for(int i=0;i<20;i++) {
+			cities.add(new City("Andre" + i,new PointTwoDimensions(random.nextDouble(),random.nextDouble())));
+		}
+		for(List<City> tour : List.of(cities,City.numbered(cities))) {
+			for(TSP.CrossOver operator : TSP.CrossOver.values()) {
+				TSP first = new TSP(tour).permutation(random), second = new TSP(tour).permutation(random);
+				first.setCrossOver(operator);
+				List<IIndividual> childs = first.crossOver(random,1,second);
+				assertEquals(2,childs.size());
+				for(IIndividual e : childs) {
+					TSP c = (TSP) e;
+					assertEquals(operator,c.getCrossOver());
+					assertFalse(c.isEvaluated());
+					assertEquals(new HashSet<City>(tour),new HashSet<City>(c.getRepresentation()));
+					assertEquals(operator,c.permutation(random).getCrossOver());
+					assertEquals(operator,((TSP) c.clone()).getCrossOver());
+				}
+				if(operator == TSP.CrossOver.CYCLE) {
+					TSP c = (TSP) childs.get(0);
+					for(int i=0;i<20;i++) {
+						City city = c.getRepresentation().get(i);
+						assertTrue(city == first.getRepresentation().get(i) || city == second.getRepresentation().get(i));
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return The cities of a tour of numbered copies, as the original cities.
+	 */
+	private List<City> unnumbered(TSP tour, List<City> cities) {
+		List<City> result = new ArrayList<City>();
+		for(City c : tour.getRepresentation()) {
+			result.add(cities.get(c.getId()));
+		}
+		return result;
+	}
+}
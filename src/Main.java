@@ -1,8 +1,8 @@
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
-import java.util.Random;
 import java.util.Scanner;
+import java.util.random.RandomGenerator;
 /**
  * In the Main class we create an instance of the Travelling Salesman Problem. In this case, we are looking for the shortest path of
  * cities, without travelling to a city twice. Each city has a representation by it's name and two dimension coordinates.
@@ -12,22 +12,77 @@ import java.util.Scanner;
  * The population size and number of generations are Integers and mutation probability, crossover probability and replacement fraction are doubles.
  * @author André Pires
  * @author Paulo Henriques
+ * @see AdaptiveControl
+ * @see AdaptiveControlTest
+ * @see Benchmark
+ * @see BenchmarkTest
+ * @see BitChromosome
+ * @see BitChromosomeTest
  * @see City
  * @see CityTest
+ * @see DecompositionSolver
+ * @see DecompositionSolverTest
+ * @see DistanceMatrix
+ * @see DistanceMatrixTest
+ * @see EdgeFrequencyTable
+ * @see EdgeFrequencyTableTest
+ * @see EliteArchive
+ * @see EliteArchiveTest
+ * @see FitnessIndex
+ * @see FitnessIndexTest
  * @see GeneticAlgorithm
  * @see GeneticAlgorithmTest
+ * @see HilbertCurve
+ * @see HilbertCurveTest
+ * @see IDistance
  * @see IIndividual
+ * @see IndexCrossover
+ * @see IndexCrossoverTest
  * @see ILocation
+ * @see IMultiObjective
+ * @see MappedDistanceMatrix
+ * @see MappedDistanceMatrixTest
+ * @see MultiObjectiveSolver
+ * @see MultiObjectiveSolverTest
+ * @see MultiObjectiveTSP
+ * @see NeighbourDistanceStore
+ * @see NeighbourDistanceStoreTest
+ * @see NeighbourTwoOpt
+ * @see NonDominatedSort
+ * @see NonDominatedSortTest
+ * @see ParameterRace
+ * @see ParameterRaceTest
  * @see PointTwoDimensions
  * @see PointTwoDimensionsTest
  * @see Population
  * @see PopulationTest
+ * @see ProgressEvent
+ * @see ProgressPublisher
+ * @see ProgressPublisherTest
+ * @see RandomStreams
+ * @see RandomStreamsTest
+ * @see RealChromosome
+ * @see RealChromosomeTest
+ * @see SignatureTable
+ * @see SignatureTableTest
+ * @see SolverEvents
+ * @see SolverEventsTest
+ * @see SolverService
+ * @see SolverServiceTest
+ * @see SolverSnapshot
  * @see TSP
  * @see TSPTest
+ * @see TourHash
+ * @see TourHashTest
+ * @see TsplibInstance
+ * @see TwoLevelList
+ * @see TwoLevelListTest
+ * @see WarmStart
+ * @see WarmStartTest
  */
 public class Main {
 		public static void main(String[] args) {
-			Random generator = new Random();
+			RandomGenerator generator = new RandomStreams(System.nanoTime()).master();
 			Scanner sc=new Scanner(System.in);
 			sc.useLocale(Locale.ENGLISH);
 			List<City> cities = new ArrayList<City>();
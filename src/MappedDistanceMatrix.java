@@ -0,0 +1,220 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class represents a table of distances stored in a file and mapped read-only into memory.
+ * This class implements the interface IDistance.
+ * The table is computed once by write, and every process which opens it maps the same file, so the page cache of the
+ * operating system holds a single copy and opening costs a map call instead of an O(n^2) computation.
+ * The file starts with a header of 32 bytes: the magic number GADM, the version of the format, the type of the entries,
+ * the number of cities, the scale of integer entries and a checksum of the cities. The header is followed by the lower
+ * triangle of the table, without the diagonal, row by row: the distance between cities i and j, with j &lt; i, is the
+ * entry i(i-1)/2 + j. Each entry is either a float or an int32 holding the distance times the scale, rounded.
+ * Since a mapping holds at most 2 GB, the file is mapped in chunks of 1 GB.
+ */
+public class MappedDistanceMatrix implements IDistance {
+	/**
+	 * The version of the format written by this class.
+	 */
+	public static final int VERSION = 1;
+	/**
+	 * The type of entries stored as floats.
+	 */
+	public static final int FLOAT = 0;
+	/**
+	 * The type of entries stored as int32 values, the distance times the scale.
+	 */
+	public static final int INT32 = 1;
+
+	private static final int MAGIC = 0x4741444D;
+	private static final int HEADER = 32;
+	private static final int CHUNK_BITS = 30;
+
+	private MappedByteBuffer[] chunks;
+	private int chunkBits, type, size;
+	private double scale;
+
+	private MappedDistanceMatrix(MappedByteBuffer[] chunks, int chunkBits, int type, int size, double scale) {
+		this.chunks = chunks;
+		this.chunkBits = chunkBits;
+		this.type = type;
+		this.size = size;
+		this.scale = scale;
+	}
+
+	/**
+	 * Computes the distances between the cities and writes the table to a file.
+	 * @param file The file to be written.
+	 * @param cities The cities of the instance, in the order used to open the table.
+	 * @param type The type of the entries, FLOAT or INT32.
+	 * @param scale The factor by which distances are multiplied before being rounded to int32 entries. It is ignored for floats.
+	 * @throws IOException If the file can not be written.
+	 */
+	public static void write(Path file, List<City> cities, int type, double scale) throws IOException {
+		if(type != FLOAT && type != INT32)
+			throw new IllegalArgumentException("Unknown type of entries " + type + "!");
+		try(FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+			ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+			buffer.putInt(MAGIC).putInt(VERSION).putInt(type).putInt(cities.size())
+					.putDouble(type == INT32 ? scale : 1).putLong(checksum(cities));
+			for(int i = 1; i < cities.size(); i++) {
+				City a = cities.get(i);
+				for(int j = 0; j < i; j++) {
+					if(buffer.remaining() < 4) drain(channel, buffer);
+					double d = a.getDistance(cities.get(j));
+					if(type == FLOAT) buffer.putFloat((float) d);
+					else {
+						long value = Math.round(d * scale);
+						if(value > Integer.MAX_VALUE)
+							throw new IllegalArgumentException("The distance " + d + " does not fit an int32 entry with scale " + scale + "!");
+						buffer.putInt((int) value);
+					}
+				}
+			}
+			drain(channel, buffer);
+		}
+	}
+
+	/**
+	 * Writes the content of the buffer to the channel and clears it.
+	 */
+	private static void drain(FileChannel channel, ByteBuffer buffer) throws IOException {
+		buffer.flip();
+		while(buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+		buffer.clear();
+	}
+
+	/**
+	 * Maps a table written by write, checking that it was written for the given cities. The table finds the row of a
+	 * city by its id, so each city must have its position in the list as id.
+	 * @param file The file of the table.
+	 * @param cities The cities of the instance, in the order they were written, numbered from 0.
+	 * @return The mapped table.
+	 * @throws IOException If the file can not be read, or it is not a table of a supported version for these cities.
+	 */
+	public static MappedDistanceMatrix open(Path file, List<City> cities) throws IOException {
+		return open(file, cities, CHUNK_BITS);
+	}
+
+	/**
+	 * Maps a table in chunks of 2^chunkBits bytes.
+	 */
+	static MappedDistanceMatrix open(Path file, List<City> cities, int chunkBits) throws IOException {
+		for(int i = 0; i < cities.size(); i++) {
+			if(cities.get(i).getId() != i)
+				throw new IllegalArgumentException("The city " + cities.get(i) + " does not have its position " + i + " as id!");
+		}
+		try(FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			ByteBuffer header = ByteBuffer.allocate(HEADER).order(ByteOrder.LITTLE_ENDIAN);
+			while(header.hasRemaining() && channel.read(header) >= 0);
+			header.flip();
+			if(header.remaining() < HEADER || header.getInt() != MAGIC)
+				throw new IOException(file + " is not a distance table!");
+			int version = header.getInt();
+			if(version != VERSION)
+				throw new IOException(file + " has version " + version + ", but only version " + VERSION + " is supported!");
+			int type = header.getInt(), size = header.getInt();
+			double scale = header.getDouble();
+			long checksum = header.getLong();
+			if(size != cities.size() || checksum != checksum(cities))
+				throw new IOException(file + " was written for other cities!");
+			long length = HEADER + 4L * size * (size - 1) / 2;
+			if(channel.size() < length)
+				throw new IOException(file + " is truncated!");
+			long chunk = 1L << chunkBits;
+			List<MappedByteBuffer> chunks = new ArrayList<MappedByteBuffer>();
+			for(long position = 0; position < length; position += chunk) {
+				MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(chunk, length - position));
+				buffer.order(ByteOrder.LITTLE_ENDIAN);
+				chunks.add(buffer);
+			}
+			return new MappedDistanceMatrix(chunks.toArray(new MappedByteBuffer[0]), chunkBits, type, size, scale);
+		}
+	}
+
+	/**
+	 * @return A hash of the names and locations of the cities, in order.
+	 */
+	private static long checksum(List<City> cities) {
+		long h = cities.size();
+		for(City c : cities) {
+			h = RandomStreams.mix(h ^ c.hashCode());
+		}
+		return h;
+	}
+
+	/**
+	 * @return The distance between two cities, read from the mapped table.
+	 */
+	@Override
+	public double distance(City a, City b) {
+		int i = a.getId(), j = b.getId();
+		if(i < 0 || i >= size || j < 0 || j >= size)
+			throw new IllegalArgumentException("The city " + (i < 0 || i >= size ? a : b) + " is not in the table!");
+		return distance(i, j);
+	}
+
+	/**
+	 * @return The distance between the cities with the given ids, read from the mapped table.
+	 */
+	@Override
+	public double distance(int i, int j) {
+		if(i == j) return 0;
+		if(i < j) {
+			int t = i;
+			i = j;
+			j = t;
+		}
+		long offset = HEADER + 4 * ((long) i * (i - 1) / 2 + j);
+		MappedByteBuffer chunk = chunks[(int) (offset >>> chunkBits)];
+		int position = (int) (offset & ((1L << chunkBits) - 1));
+		return type == FLOAT ? chunk.getFloat(position) : chunk.getInt(position) / scale;
+	}
+
+	/**
+	 * @return The number of cities in the table.
+	 */
+	public int getSize() {
+		return size;
+	}
+
+	/**
+	 * @return The type of the entries, FLOAT or INT32.
+	 */
+	public int getType() {
+		return type;
+	}
+
+	/**
+	 * Writes the table of the cities of a file with one city per line, in the format name x y.
+	 * @param args The file of the cities, the file of the table, optionally the type float or int32 and, for int32, the scale.
+	 * @throws IOException If a file can not be read or written.
+	 */
+	public static void main(String[] args) throws IOException {
+		if(args.length < 2) {
+			System.err.println("Usage: MappedDistanceMatrix cities.txt table.bin [float|int32 [scale]]");
+			return;
+		}
+		List<City> cities = new ArrayList<City>();
+		for(String line : Files.readAllLines(Path.of(args[0]))) {
+			String[] fields = line.trim().split("\\s+");
+			if(fields.length < 3) continue;
+			cities.add(new City(cities.size(), fields[0], new PointTwoDimensions(Double.parseDouble(fields[1]), Double.parseDouble(fields[2]))));
+		}
+		int type = args.length > 2 && args[2].equals("int32") ? INT32 : FLOAT;
+		double scale = args.length > 3 ? Double.parseDouble(args[3]) : 1;
+		write(Path.of(args[1]), cities, type, scale);
+		System.out.println("Wrote the distances of " + cities.size() + " cities to " + args[1]);
+	}
+}
@@ -0,0 +1,71 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * This class tests writing and mapping a MappedDistanceMatrix.
+ */
+class MappedDistanceMatrixTest {
+
+	private List<City> cities(int n) {
+		Random random = new Random(0);
+		List<City> cities = new ArrayList<City>();
+		for(int i=0;i<n;i++) {
+			cities.add(new City(i,"Andre" + i,new PointTwoDimensions(random.nextDouble()*1000,random.nextDouble()*1000)));
+		}
+		return cities;
+	}
+
+	@Test
+	void testFloatTable() throws IOException {
+		List<City> cities = cities(50);
+		Path file = Files.createTempFile("distances", ".bin");
+		try {
+			MappedDistanceMatrix.write(file,cities,MappedDistanceMatrix.FLOAT,1);
+			assertEquals(32 + 4L*50*49/2,Files.size(file));
+			MappedDistanceMatrix test = MappedDistanceMatrix.open(file,cities,6);
+			assertEquals(50,test.getSize());
+			for(City a : cities) {
+				for(City b : cities) {
+					assertEquals((float) a.getDistance(b),test.distance(a,b));
+				}
+			}
+			TSP tour = new TSP(cities,test);
+			assertEquals(new TSP(cities).getFitness(),tour.getFitness(),1e-9);
+		}
+		finally {
+			Files.delete(file);
+		}
+	}
+
+	@Test
+	void testIntegerTable() throws IOException {
+		List<City> cities = cities(20);
+		Path file = Files.createTempFile("distances", ".bin");
+		try {
+			MappedDistanceMatrix.write(file,cities,MappedDistanceMatrix.INT32,100);
+			MappedDistanceMatrix test = MappedDistanceMatrix.open(file,cities);
+			assertEquals(MappedDistanceMatrix.INT32,test.getType());
+			City a = cities.get(3), b = cities.get(17);
+			assertEquals(Math.round(a.getDistance(b)*100)/100.0,test.distance(b,a));
+			List<City> other = cities(20);
+			other.set(5,new City(5,"Paulo",new PointTwoDimensions(0,0)));
+			assertThrows(IOException.class, () -> MappedDistanceMatrix.open(file,other));
+			assertEquals(test.distance(a,b),test.distance(3,17));
+			assertThrows(IllegalArgumentException.class, () -> test.distance(a,new City(20,"Paulo",new PointTwoDimensions(0,0))));
+			assertThrows(IllegalArgumentException.class, () -> MappedDistanceMatrix.open(file,City.numbered(cities).subList(1,20)));
+			Files.write(file,new byte[] {1,2,3});
+			assertThrows(IOException.class, () -> MappedDistanceMatrix.open(file,cities));
+		}
+		finally {
+			Files.delete(file);
+		}
+	}
+}
@@ -0,0 +1,152 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+/**
+ * This class represents a multi-objective genetic algorithm in the manner of NSGA-II, for individuals which implement
+ * IMultiObjective. It reuses the crossover and two bit swap mutation of the individuals.
+ * Each generation the parents are chosen by binary tournaments, which prefer the lower front and then the larger
+ * crowding distance. Their childs are added to the population, and the population and the childs are sorted together
+ * by NonDominatedSort. The best fronts are kept, and the front which does not fit whole is cut by crowding distance,
+ * so the population spreads along the trade-off between the objectives.
+ */
+public class MultiObjectiveSolver {
+	private List<IMultiObjective> population;
+	private RandomGenerator generator;
+	private double mutationProbability, crossoverProbability;
+	private int populationSize, generations, generation;
+	private int[] ranks;
+	private double[] crowding;
+
+	/**
+	 * Initializes the solver with a population of the member and random permutations of it.
+	 * @param member The first individual of the population.
+	 * @param generator The random number generator.
+	 * @param popuSize The size of the population.
+	 * @param mutProb The mutation probability.
+	 * @param crossProb The crossover probability.
+	 * @param generations The number of generations.
+	 */
+	public MultiObjectiveSolver(IMultiObjective member, RandomGenerator generator, int popuSize, double mutProb, double crossProb, int generations) {
+		this.generator = generator;
+		this.populationSize = popuSize;
+		this.mutationProbability = mutProb;
+		this.crossoverProbability = crossProb;
+		this.generations = generations;
+		List<IMultiObjective> initial = new ArrayList<IMultiObjective>();
+		initial.add(member);
+		for(int i = 0; i < popuSize - 1; i++) {
+			initial.add((IMultiObjective) member.permutation(generator));
+		}
+		select(initial);
+	}
+
+	/**
+	 * @return The current population, sorted by front and, within a front, decreasingly by crowding distance.
+	 */
+	public List<IMultiObjective> getPopulation() {
+		return population;
+	}
+
+	/**
+	 * @param i The position of an individual in the population.
+	 * @return The front of the individual, 0 being the non-dominated front.
+	 */
+	public int getRank(int i) {
+		return ranks[i];
+	}
+
+	/**
+	 * @param i The position of an individual in the population.
+	 * @return The crowding distance of the individual within its front.
+	 */
+	public double getCrowdingDistance(int i) {
+		return crowding[i];
+	}
+
+	/**
+	 * @return The number of generations run so far.
+	 */
+	public int getGeneration() {
+		return generation;
+	}
+
+	/**
+	 * @return The individuals of the population which no other individual dominates.
+	 */
+	public List<IMultiObjective> getFront() {
+		List<IMultiObjective> front = new ArrayList<IMultiObjective>();
+		for(int i = 0; i < population.size() && ranks[i] == 0; i++) {
+			front.add(population.get(i));
+		}
+		return front;
+	}
+
+	/**
+	 * Runs every generation.
+	 * @return The non-dominated individuals of the last population.
+	 */
+	public List<IMultiObjective> solve() {
+		while(generation < generations) {
+			nextGeneration();
+		}
+		return getFront();
+	}
+
+	/**
+	 * Runs a single generation: selection by binary tournaments, crossover and mutation of the parents, and selection of
+	 * the best fronts among the population and the childs.
+	 */
+	public void nextGeneration() {
+		int n = population.size();
+		IMultiObjective[] parents = new IMultiObjective[n];
+		for(int i = 0; i < n; i++) {
+			int a = generator.nextInt(n), b = generator.nextInt(n);
+			parents[i] = population.get(better(a, b) ? a : b);
+		}
+		List<IMultiObjective> combined = new ArrayList<IMultiObjective>(population);
+		for(int i = 0; combined.size() < n + populationSize; i += 2) {
+			for(IIndividual child : parents[i % n].crossOver(generator, crossoverProbability, parents[(i + 1) % n])) {
+				if(combined.size() < n + populationSize)
+					combined.add((IMultiObjective) child.twoBitSwapMutation(generator, mutationProbability));
+			}
+		}
+		select(combined);
+		generation++;
+	}
+
+	/**
+	 * @return True If the individual at position a wins a binary tournament against the one at position b, else False.
+	 */
+	private boolean better(int a, int b) {
+		if(ranks[a] != ranks[b]) return ranks[a] < ranks[b];
+		return crowding[a] >= crowding[b];
+	}
+
+	/**
+	 * Sorts the candidates by front and crowding distance and keeps the best of them as the population.
+	 */
+	private void select(List<IMultiObjective> candidates) {
+		int n = candidates.size(), size = Math.min(n, populationSize);
+		double[][] objectives = new double[n][];
+		for(int i = 0; i < n; i++) {
+			objectives[i] = candidates.get(i).getObjectives();
+		}
+		int[] rank = NonDominatedSort.sort(objectives);
+		double[] distance = NonDominatedSort.crowdingDistance(objectives, rank);
+		Integer[] order = new Integer[n];
+		for(int i = 0; i < n; i++) {
+			order[i] = i;
+		}
+		Arrays.sort(order, (a, b) -> rank[a] != rank[b] ? Integer.compare(rank[a], rank[b]) : Double.compare(distance[b], distance[a]));
+		population = new ArrayList<IMultiObjective>(size);
+		ranks = new int[size];
+		crowding = new double[size];
+		for(int k = 0; k < size; k++) {
+			population.add(candidates.get(order[k]));
+			ranks[k] = rank[order[k]];
+			crowding[k] = distance[order[k]];
+		}
+	}
+}
@@ -0,0 +1,60 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * This class tests the solve method of a MultiObjectiveSolver on routes with a length and a toll.
+ */
+class MultiObjectiveSolverTest {
+
+	private MultiObjectiveTSP route(int n) {
+		Random random = new Random(0);
+		List<City> a = new ArrayList<City>();
+		for(int i=0;i<n;i++) {
+			a.add(new City("Andre" + i,new PointTwoDimensions(random.nextDouble()*100,random.nextDouble()*100)));
+		}
+		IDistance toll = (x, y) -> (((PointTwoDimensions) x.getLocation()).getX() < 50) != (((PointTwoDimensions) y.getLocation()).getX() < 50) ? 25 : 1;
+		return new MultiObjectiveTSP(new TSP(a), City::getDistance, toll);
+	}
+
+	@Test
+	void testObjectives() {
+		MultiObjectiveTSP test = route(12);
+		assertFalse(test.isEvaluated());
+		double[] objectives = test.getObjectives();
+		assertEquals(2,objectives.length);
+		assertEquals(1/test.getFitness(),objectives[0],1e-9);
+		assertTrue(test.isEvaluated());
+		MultiObjectiveTSP copy = (MultiObjectiveTSP) test.clone();
+		assertSame(objectives,copy.getObjectives());
+		MultiObjectiveTSP mutated = copy.twoBitSwapMutationFull(new Random(0),1);
+		assertNotEquals(objectives[0],mutated.getObjectives()[0]);
+		assertSame(objectives,test.getObjectives());
+	}
+
+	@Test
+	void testSolve() {
+		MultiObjectiveSolver test = new MultiObjectiveSolver(route(20),new Random(0),60,0.1,0.9,150);
+		double[] start = test.getFront().get(0).getObjectives().clone();
+		List<IMultiObjective> front = test.solve();
+		assertEquals(150,test.getGeneration());
+		assertEquals(60,test.getPopulation().size());
+		for(int i=1;i<60;i++) {
+			assertTrue(test.getRank(i-1) <= test.getRank(i));
+		}
+		boolean improved = false;
+		for(IMultiObjective a : front) {
+			for(IMultiObjective b : front) {
+				assertFalse(NonDominatedSort.dominates(a.getObjectives(),b.getObjectives()));
+			}
+			improved |= NonDominatedSort.dominates(a.getObjectives(),start);
+		}
+		assertTrue(improved);
+		MultiObjectiveSolver again = new MultiObjectiveSolver(route(20),new Random(0),60,0.1,0.9,150);
+		assertEquals(front.get(0).getObjectives()[0],again.solve().get(0).getObjectives()[0]);
+	}
+}
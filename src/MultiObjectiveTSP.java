@@ -0,0 +1,191 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+/**
+ * This class represents a route with several costs, each the sum over the edges of the tour of the cost given by
+ * an IDistance, e.g. the distance, the tolls or the travel time between two cities.
+ * This class implements the interface IMultiObjective by wrapping a TSP, so it reuses its crossover, mutation and
+ * copy on write sharing of tours. The fitness is the fitness of the TSP, the inverse of the length of the tour under
+ * the distances of the TSP.
+ * The objectives are computed lazily, when they are first read after the tour changed.
+ */
+public class MultiObjectiveTSP implements IMultiObjective {
+	private TSP tour;
+	private IDistance[] costs;
+	private double[] objectives;
+
+	/**
+	 * @param tour The tour.
+	 * @param costs The costs of an edge for each objective. The array is shared by every route of the problem.
+	 */
+	public MultiObjectiveTSP(TSP tour, IDistance... costs) {
+		if(costs.length == 0)
+			throw new IllegalArgumentException("A route needs at least one cost!");
+		this.tour = tour;
+		this.costs = costs;
+	}
+
+	/**
+	 * @return The wrapped tour.
+	 */
+	public TSP getTour() {
+		return tour;
+	}
+
+	/**
+	 * @return The costs of the tour, one per objective, which are computed first if the tour changed.
+	 */
+	@Override
+	public double[] getObjectives() {
+		if(objectives == null || !tour.isEvaluated()) {
+			tour.getFitness();
+			List<City> cities = tour.getRepresentation();
+			int n = cities.size();
+			double[] values = new double[costs.length];
+			for(int i = 0; i < n; i++) {
+				City a = cities.get(i), b = cities.get((i+1) % n);
+				for(int k = 0; k < costs.length; k++) {
+					values[k] += costs[k].distance(a, b);
+				}
+			}
+			objectives = values;
+		}
+		return objectives;
+	}
+
+	/**
+	 * @return A route of the same problem with the given tour.
+	 */
+	private MultiObjectiveTSP wrap(IIndividual other) {
+		return new MultiObjectiveTSP((TSP) other, costs);
+	}
+
+	/**
+	 * Calculates the fitness value of the tour and the objectives.
+	 */
+	@Override
+	public void calculateFitness() {
+		tour.calculateFitness();
+		objectives = null;
+		getObjectives();
+	}
+
+	/**
+	 * @return The fitness value of the tour.
+	 */
+	@Override
+	public double getFitness() {
+		return tour.getFitness();
+	}
+
+	/**
+	 * @return True If the fitness value and the objectives are up to date, else False.
+	 */
+	@Override
+	public boolean isEvaluated() {
+		return objectives != null && tour.isEvaluated();
+	}
+
+	/**
+	 * @return The signature of the tour.
+	 */
+	@Override
+	public long getSignature() {
+		return tour.getSignature();
+	}
+
+	/**
+	 * @return A new route which shares the tour until either changes it, with the same objectives.
+	 */
+	@Override
+	public Object clone() {
+		MultiObjectiveTSP copy = wrap((IIndividual) tour.clone());
+		copy.objectives = objectives;
+		return copy;
+	}
+
+	/**
+	 * @return A new route with a random permutation of the tour.
+	 */
+	@Override
+	public MultiObjectiveTSP permutation(RandomGenerator generator) {
+		return wrap(tour.permutation(generator));
+	}
+
+	/**
+	 * @return A new route whose tour is given by the twoBitSwapMutation of the TSP.
+	 */
+	@Override
+	public MultiObjectiveTSP twoBitSwapMutation(RandomGenerator ran, double mutationProbability) {
+		return mutated(tour.twoBitSwapMutation(ran, mutationProbability));
+	}
+
+	/**
+	 * @return A new route whose tour is given by the twoBitSwapMutationFull of the TSP.
+	 */
+	@Override
+	public MultiObjectiveTSP twoBitSwapMutationFull(RandomGenerator ran, double mutationProbability) {
+		return mutated(tour.twoBitSwapMutationFull(ran, mutationProbability));
+	}
+
+	/**
+	 * Since the TSP may swap the cities of its own tour, the objectives of this route are discarded when the mutation
+	 * changed something, and passed to the new route when it changed nothing.
+	 * @return A route with the result of a mutation of the tour.
+	 */
+	private MultiObjectiveTSP mutated(TSP result) {
+		MultiObjectiveTSP copy = wrap(result);
+		if(!result.isEvaluated()) objectives = null;
+		else if(result.getRepresentation() == tour.getRepresentation()) copy.objectives = objectives;
+		return copy;
+	}
+
+	/**
+	 * @return A list of the two routes whose tours are given by the crossOver of the TSPs.
+	 */
+	@Override
+	public List<IIndividual> crossOver(RandomGenerator ran, double crossOverProbability, IIndividual father2) {
+		List<IIndividual> childs = new ArrayList<IIndividual>();
+		for(IIndividual child : tour.crossOver(ran, crossOverProbability, ((MultiObjectiveTSP) father2).tour)) {
+			childs.add(wrap(child));
+		}
+		return childs;
+	}
+
+	/**
+	 * @return An integer which defines the comparison between routes by the fitness of their tours.
+	 */
+	@Override
+	public int compareTo(IIndividual o) {
+		return tour.compareTo(((MultiObjectiveTSP) o).tour);
+	}
+
+	/**
+	 * @return True If the tours of the two routes are equal, else False.
+	 */
+	@Override
+	public boolean equals(Object o) {
+		if(o == null) return false;
+		if(o == this) return true;
+		if(getClass() != o.getClass()) return false;
+		return tour.equals(((MultiObjectiveTSP) o).tour);
+	}
+
+	/**
+	 * @return The hash code of the cities of the tour.
+	 */
+	@Override
+	public int hashCode() {
+		return tour.getRepresentation().hashCode();
+	}
+
+	/**
+	 * @return A string representation of the tour and the objectives.
+	 */
+	@Override
+	public String toString() {
+		return tour + "\nObjectives: " + Arrays.toString(getObjectives());
+	}
+}
@@ -0,0 +1,210 @@
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class represents a sparse table of distances for instances too large for a DistanceMatrix.
+ * This class implements the interface IDistance.
+ * For every city it keeps its k nearest neighbours, sorted by distance, and their distances in flat primitive arrays,
+ * which takes O(nk) memory instead of O(n^2). The distance between any other pair of cities is computed from their locations.
+ * The neighbours are found with a grid over the bounding box of the cities, searching rings of cells around each city
+ * until no closer city can remain, which takes about O(nk) time for evenly spread cities.
+ * The cities are found by their ids, which must be the numbers from 0 to n-1. The number of lookups of pairs of cities
+ * answered from the table and computed on the fly are counted, to tune k; lookups by id, meant for local search, are not.
+ * Cities added after the table was built have their distances computed on the fly.
+ * The cities must be located by a PointTwoDimensions.
+ */
+public class NeighbourDistanceStore implements IDistance {
+	private City[] cities;
+	private int k;
+	private int[] neighbours;
+	private double[] distances;
+	private LongAdder hits = new LongAdder(), misses = new LongAdder();
+
+	/**
+	 * Finds the nearest neighbours of every city.
+	 * @param cities The cities of the instance, numbered from 0 to n-1 in any order.
+	 * @param k The number of neighbours kept for each city.
+	 */
+	public NeighbourDistanceStore(List<City> cities, int k) {
+		int n = cities.size();
+		this.cities = new City[n];
+		for(City c : cities) {
+			int id = c.getId();
+			if(id < 0 || id >= n || this.cities[id] != null)
+				throw new IllegalArgumentException("The city " + c + " has no id from 0 to " + (n - 1) + " of its own!");
+			this.cities[id] = c;
+		}
+		this.k = Math.max(Math.min(k, n - 1), 0);
+		this.neighbours = new int[n * this.k];
+		this.distances = new double[n * this.k];
+		if(this.k > 0) findNeighbours();
+	}
+
+	/**
+	 * Fills the rows of the table, searching the cells of a grid in rings around each city.
+	 */
+	private void findNeighbours() {
+		int n = cities.length;
+		double[] x = new double[n], y = new double[n];
+		double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY;
+		double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+		for(int i = 0; i < n; i++) {
+			if(!(cities[i].getLocation() instanceof PointTwoDimensions))
+				throw new IllegalArgumentException("The city " + cities[i] + " is not located by a PointTwoDimensions!");
+			PointTwoDimensions p = (PointTwoDimensions) cities[i].getLocation();
+			x[i] = p.getX();
+			y[i] = p.getY();
+			minX = Math.min(minX, x[i]);
+			maxX = Math.max(maxX, x[i]);
+			minY = Math.min(minY, y[i]);
+			maxY = Math.max(maxY, y[i]);
+		}
+		int side = Math.max((int) Math.ceil(Math.sqrt(n / 2.0)), 1);
+		double width = Math.max((maxX - minX) / side, Double.MIN_VALUE), height = Math.max((maxY - minY) / side, Double.MIN_VALUE);
+		int[] cell = new int[n], start = new int[side * side + 1], members = new int[n];
+		for(int i = 0; i < n; i++) {
+			int column = Math.min((int) ((x[i] - minX) / width), side - 1);
+			int row = Math.min((int) ((y[i] - minY) / height), side - 1);
+			cell[i] = row * side + column;
+			start[cell[i] + 1]++;
+		}
+		for(int c = 0; c < side * side; c++) {
+			start[c + 1] += start[c];
+		}
+		int[] next = Arrays.copyOf(start, side * side);
+		for(int i = 0; i < n; i++) {
+			members[next[cell[i]]++] = i;
+		}
+		double ring = Math.min(width, height);
+		for(int i = 0; i < n; i++) {
+			int row = cell[i] / side, column = cell[i] % side, found = 0, base = i * k;
+			for(int r = 0; r < side; r++) {
+				for(int rr = Math.max(row - r, 0); rr <= Math.min(row + r, side - 1); rr++) {
+					for(int cc = Math.max(column - r, 0); cc <= Math.min(column + r, side - 1); cc++) {
+						if(Math.max(Math.abs(rr - row), Math.abs(cc - column)) != r) continue;
+						int c = rr * side + cc;
+						for(int m = start[c]; m < start[c + 1]; m++) {
+							int j = members[m];
+							if(j == i) continue;
+							double d = cities[i].getDistance(cities[j]);
+							if(found == k && d >= distances[base + k - 1]) continue;
+							int position = found < k ? found++ : k - 1;
+							while(position > 0 && distances[base + position - 1] > d) {
+								distances[base + position] = distances[base + position - 1];
+								neighbours[base + position] = neighbours[base + position - 1];
+								position--;
+							}
+							distances[base + position] = d;
+							neighbours[base + position] = j;
+						}
+					}
+				}
+				if(found == k && distances[base + k - 1] <= r * ring) break;
+			}
+		}
+	}
+
+	/**
+	 * @return The distance between two cities, read from the table if one is among the nearest neighbours of the other,
+	 * else computed from their locations.
+	 */
+	@Override
+	public double distance(City a, City b) {
+		int i = a.getId(), j = b.getId();
+		if(contains(a) && contains(b)) {
+			for(int base = i * k, m = base; m < base + k; m++) {
+				if(neighbours[m] == j) {
+					hits.increment();
+					return distances[m];
+				}
+			}
+		}
+		misses.increment();
+		return a.getDistance(b);
+	}
+
+	/**
+	 * Looks up a distance without counting it.
+	 * @return The distance between the cities with the given ids, read from the table if one is among the nearest
+	 * neighbours of the other, else computed from their locations.
+	 */
+	@Override
+	public double distance(int a, int b) {
+		for(int base = a * k, m = base; m < base + k; m++) {
+			if(neighbours[m] == b) return distances[m];
+		}
+		return cities[a].getDistance(cities[b]);
+	}
+
+	/**
+	 * @param city A city.
+	 * @return True If the city is the one of the table with its id, else False.
+	 */
+	public boolean contains(City city) {
+		int id = city.getId();
+		return id >= 0 && id < cities.length && cities[id] == city;
+	}
+
+	/**
+	 * @return The number of neighbours kept for each city.
+	 */
+	public int getK() {
+		return k;
+	}
+
+	/**
+	 * @return The number of cities in the table.
+	 */
+	public int getSize() {
+		return cities.length;
+	}
+
+	/**
+	 * @param index The id of a city.
+	 * @return The city with the given id.
+	 */
+	public City getCity(int index) {
+		return cities[index];
+	}
+
+	/**
+	 * @param index The id of a city.
+	 * @param rank The rank of the neighbour, 0 being the nearest.
+	 * @return The id of the neighbour of the city with the given rank.
+	 */
+	public int getNeighbour(int index, int rank) {
+		return neighbours[index * k + rank];
+	}
+
+	/**
+	 * @param index The id of a city.
+	 * @param rank The rank of the neighbour, 0 being the nearest.
+	 * @return The distance to the neighbour of the city with the given rank.
+	 */
+	public double getNeighbourDistance(int index, int rank) {
+		return distances[index * k + rank];
+	}
+
+	/**
+	 * @return The number of lookups answered from the table.
+	 */
+	public long getHits() {
+		return hits.sum();
+	}
+
+	/**
+	 * @return The number of lookups computed from the locations of the cities.
+	 */
+	public long getMisses() {
+		return misses.sum();
+	}
+
+	/**
+	 * @return The fraction of the lookups answered from the table.
+	 */
+	public double getHitRate() {
+		long h = hits.sum(), total = h + misses.sum();
+		return total == 0 ? 0 : (double) h / total;
+	}
+}
@@ -0,0 +1,77 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * This class tests NeighbourDistanceStore and the candidate edge local search of NeighbourTwoOpt.
+ */
+class NeighbourDistanceStoreTest {
+
+	private List<City> cities(int n) {
+		Random random = new Random(0);
+		List<City> cities = new ArrayList<City>();
+		for(int i=0;i<n;i++) {
+			cities.add(new City(i,"Andre" + i,new PointTwoDimensions(random.nextDouble()*100,random.nextDouble()*100)));
+		}
+		return cities;
+	}
+
+	@Test
+	void testNeighbours() {
+		List<City> cities = cities(300);
+		NeighbourDistanceStore test = new NeighbourDistanceStore(cities,8);
+		for(int i=0;i<cities.size();i++) {
+			City a = cities.get(i);
+			List<City> others = new ArrayList<City>(cities);
+			others.remove(a);
+			others.sort(Comparator.comparingDouble(a::getDistance));
+			for(int rank=0;rank<8;rank++) {
+				assertEquals(a.getDistance(others.get(rank)),test.getNeighbourDistance(i,rank));
+			}
+		}
+	}
+
+	@Test
+	void testDistanceAndHitRate() {
+		List<City> cities = cities(100);
+		NeighbourDistanceStore test = new NeighbourDistanceStore(cities,5);
+		City a = cities.get(0), near = test.getCity(test.getNeighbour(0,0));
+		assertEquals(a.getDistance(near),test.distance(a,near));
+		assertEquals(1,test.getHits());
+		City far = null;
+		for(City c : cities) {
+			if(far == null || a.getDistance(c) > a.getDistance(far)) far = c;
+		}
+		assertEquals(a.getDistance(far),test.distance(a,far));
+		assertEquals(1,test.getMisses());
+		assertEquals(0.5,test.getHitRate());
+		City added = new City("Paulo",new PointTwoDimensions(1,1));
+		assertEquals(added.getDistance(a),test.distance(added,a));
+		assertEquals(2,test.getMisses());
+		assertEquals(a.getDistance(near),test.distance(0,near.getId()));
+		assertEquals(a.getDistance(far),test.distance(0,far.getId()));
+		assertEquals(1,test.getHits());
+		assertEquals(2,test.getMisses());
+		assertThrows(IllegalArgumentException.class, () -> new NeighbourDistanceStore(List.of(a,added),1));
+	}
+
+	@Test
+	void testTwoOpt() {
+		List<City> cities = cities(400);
+		NeighbourDistanceStore store = new NeighbourDistanceStore(cities,10);
+		TSP tour = new TSP(new ArrayList<City>(cities),store);
+		TSP result = NeighbourTwoOpt.improve(tour,store);
+		assertEquals(new HashSet<City>(cities),new HashSet<City>(result.getRepresentation()));
+		assertEquals(cities,tour.getRepresentation());
+		assertTrue(result.getFitness() > 5*tour.getFitness());
+		double fitness = result.getFitness();
+		assertEquals(fitness,NeighbourTwoOpt.improve(result,store).getFitness(),1e-12);
+		assertTrue(store.getHitRate() > 0.5);
+	}
+}
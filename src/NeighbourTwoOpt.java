@@ -0,0 +1,136 @@
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class provides a 2-opt local search restricted to candidate edges.
+ * A move is only tried when it creates an edge from a city to one of its nearest neighbours in a NeighbourDistanceStore,
+ * and the neighbours of a city are scanned only while they are closer than the edge they would replace,
+ * so a pass over the tour costs O(nk) distance lookups instead of O(n^2).
+ * Each improving move reverses the shorter of the two sides of the tour.
+ */
+public class NeighbourTwoOpt {
+
+	/**
+	 * Improves a tour until no move between candidate edges shortens it.
+	 * Every city of the tour must be in the store.
+	 * @param tour The tour to be improved, which is not changed.
+	 * @param store The nearest neighbours of the cities.
+	 * @return A new TSP with the improved tour, whose distances are read from the store.
+	 */
+	public static TSP improve(TSP tour, NeighbourDistanceStore store) {
+		List<City> cities = tour.getRepresentation();
+		int n = cities.size();
+		int[] t = new int[n], position = new int[store.getSize()];
+		for(int i = 0; i < n; i++) {
+			t[i] = id(store, cities.get(i));
+			position[t[i]] = i;
+		}
+		boolean improved = n > 3;
+		while(improved) {
+			improved = false;
+			for(int i = 0; i < n; i++) {
+				for(int direction = 1; direction >= -1; direction -= 2) {
+					int a = t[i], b = t[(i + direction + n) % n];
+					double ab = store.distance(a, b);
+					for(int rank = 0; rank < store.getK(); rank++) {
+						double ac = store.getNeighbourDistance(a, rank);
+						if(ac >= ab) break;
+						int c = store.getNeighbour(a, rank), j = position[c], d = t[(j + direction + n) % n];
+						if(c == b || d == a) continue;
+						double delta = ac + store.distance(b, d)
+								- ab - store.distance(c, d);
+						if(delta < -1e-10) {
+							if(direction == 1) move(t, position, i, j);
+							else move(t, position, (i - 1 + n) % n, (j - 1 + n) % n);
+							improved = true;
+							break;
+						}
+					}
+				}
+			}
+		}
+		List<City> result = new ArrayList<City>(n);
+		for(int i = 0; i < n; i++) {
+			result.add(store.getCity(t[i]));
+		}
+		return new TSP(result, store);
+	}
+
+	/**
+	 * Improves a tour like improve, but keeps the tour in a TwoLevelList, so each move costs O(sqrt(n)) instead of
+	 * reversing up to half of an array, which makes it fit for tours of hundreds of thousands of cities.
+	 * The cities are scanned in the order of the given tour rather than of the current one.
+	 * Every city of the tour must be in the store.
+	 * @param tour The tour to be improved, which is not changed.
+	 * @param store The nearest neighbours of the cities.
+	 * @return A new TSP with the improved tour, whose distances are read from the store.
+	 */
+	public static TSP improveLarge(TSP tour, NeighbourDistanceStore store) {
+		List<City> cities = tour.getRepresentation();
+		int n = cities.size();
+		TwoLevelList list = new TwoLevelList(cities);
+		int[] t = new int[n], id = new int[store.getSize()];
+		for(int i = 0; i < n; i++) {
+			t[i] = id(store, cities.get(i));
+			id[t[i]] = i;
+		}
+		boolean improved = n > 3;
+		while(improved) {
+			improved = false;
+			for(int a = 0; a < n; a++) {
+				for(int direction = 1; direction >= -1; direction -= 2) {
+					int b = direction == 1 ? list.next(a) : list.prev(a);
+					double ab = store.distance(t[a], t[b]);
+					for(int rank = 0; rank < store.getK(); rank++) {
+						double ac = store.getNeighbourDistance(t[a], rank);
+						if(ac >= ab) break;
+						int c = id[store.getNeighbour(t[a], rank)], d = direction == 1 ? list.next(c) : list.prev(c);
+						if(c == b || d == a) continue;
+						double delta = ac + store.distance(t[b], t[d])
+								- ab - store.distance(t[c], t[d]);
+						if(delta < -1e-10) {
+							if(direction == 1) list.reverse(b, c);
+							else list.reverse(a, d);
+							improved = true;
+							break;
+						}
+					}
+				}
+			}
+		}
+		return new TSP(list.toList(), store);
+	}
+
+	/**
+	 * Removes the edges leaving the positions p and q and reconnects the tour, reversing the shorter side.
+	 */
+	private static void move(int[] t, int[] position, int p, int q) {
+		int n = t.length;
+		if(p > q) {
+			int temp = p;
+			p = q;
+			q = temp;
+		}
+		int from = p + 1, length = q - p;
+		if(length > n - length) {
+			from = q + 1;
+			length = n - length;
+		}
+		for(int i = 0, j = length - 1; i < j; i++, j--) {
+			int x = (from + i) % n, y = (from + j) % n, temp = t[x];
+			t[x] = t[y];
+			t[y] = temp;
+			position[t[x]] = x;
+			position[t[y]] = y;
+		}
+	}
+
+	/**
+	 * @return The id of a city in the store.
+	 */
+	private static int id(NeighbourDistanceStore store, City city) {
+		if(!store.contains(city))
+			throw new IllegalArgumentException("The city " + city + " is not in the store!");
+		return city.getId();
+	}
+}
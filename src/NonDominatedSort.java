@@ -0,0 +1,116 @@
+import java.util.Arrays;
+
+/**
+ * This class provides the non-dominated sorting and the crowding distance of NSGA-II, for objectives to be minimized.
+ * A solution dominates another if it is no worse in every objective and better in at least one. The first front holds
+ * the solutions which no other dominates, the second those dominated only by the first front, and so on.
+ * The sort is the efficient non-dominated sort with binary search (ENS-BS): the solutions are sorted lexicographically,
+ * so that no solution is dominated by a later one, and each is put into the first front which has no solution dominating
+ * it, found by a binary search over the fronts. A front is checked against its solutions from the last added, which
+ * takes O(MN log N) comparisons on typical populations instead of the O(MN^2) of the original NSGA-II sort.
+ * With two objectives only the last solution of a front has to be checked, so the sort is O(N log N).
+ */
+public final class NonDominatedSort {
+
+	private NonDominatedSort() {}
+
+	/**
+	 * @param objectives The objective values of each solution, all of the same length.
+	 * @return The front of each solution, 0 being the non-dominated front.
+	 */
+	public static int[] sort(double[][] objectives) {
+		int n = objectives.length;
+		int[] ranks = new int[n];
+		if(n == 0) return ranks;
+		Integer[] order = new Integer[n];
+		for(int i = 0; i < n; i++) {
+			order[i] = i;
+		}
+		Arrays.sort(order, (a, b) -> Arrays.compare(objectives[a], objectives[b]));
+		int[][] fronts = new int[n][];
+		int[] sizes = new int[n];
+		int count = 0;
+		for(int p : order) {
+			int low = 0, high = count;
+			while(low < high) {
+				int middle = (low + high) >>> 1;
+				if(dominated(objectives, fronts[middle], sizes[middle], p)) low = middle + 1;
+				else high = middle;
+			}
+			if(low == count) fronts[count++] = new int[4];
+			else if(sizes[low] == fronts[low].length) fronts[low] = Arrays.copyOf(fronts[low], 2 * sizes[low]);
+			fronts[low][sizes[low]++] = p;
+			ranks[p] = low;
+		}
+		return ranks;
+	}
+
+	/**
+	 * @return True If a solution of the front dominates the solution p, which comes after all of them lexicographically.
+	 */
+	private static boolean dominated(double[][] objectives, int[] front, int size, int p) {
+		if(objectives[p].length == 2) return dominates(objectives[front[size - 1]], objectives[p]);
+		for(int k = size - 1; k >= 0; k--) {
+			if(dominates(objectives[front[k]], objectives[p])) return true;
+		}
+		return false;
+	}
+
+	/**
+	 * @param a The objective values of a solution.
+	 * @param b The objective values of another solution.
+	 * @return True If a is no worse than b in every objective and better in at least one, else False.
+	 */
+	public static boolean dominates(double[] a, double[] b) {
+		boolean better = false;
+		for(int i = 0; i < a.length; i++) {
+			if(a[i] > b[i]) return false;
+			if(a[i] < b[i]) better = true;
+		}
+		return better;
+	}
+
+	/**
+	 * The crowding distance of a solution is the sum, over the objectives, of the gap between its two neighbours in
+	 * its front, normalized by the range of the objective in the front. The extreme solutions of a front have an
+	 * infinite distance, so they are always kept.
+	 * @param objectives The objective values of each solution, all of the same length.
+	 * @param ranks The front of each solution, as given by sort.
+	 * @return The crowding distance of each solution within its front.
+	 */
+	public static double[] crowdingDistance(double[][] objectives, int[] ranks) {
+		int n = objectives.length, fronts = 0;
+		double[] distances = new double[n];
+		if(n == 0) return distances;
+		for(int r : ranks) {
+			fronts = Math.max(fronts, r + 1);
+		}
+		int[] start = new int[fronts + 1];
+		for(int r : ranks) {
+			start[r + 1]++;
+		}
+		for(int f = 0; f < fronts; f++) {
+			start[f + 1] += start[f];
+		}
+		Integer[] members = new Integer[n];
+		int[] next = Arrays.copyOf(start, fronts);
+		for(int i = 0; i < n; i++) {
+			members[next[ranks[i]]++] = i;
+		}
+		for(int f = 0; f < fronts; f++) {
+			int from = start[f], to = start[f + 1];
+			for(int m = 0; m < objectives[0].length; m++) {
+				int objective = m;
+				Arrays.sort(members, from, to, (a, b) -> Double.compare(objectives[a][objective], objectives[b][objective]));
+				double min = objectives[members[from]][m], range = objectives[members[to - 1]][m] - min;
+				distances[members[from]] = Double.POSITIVE_INFINITY;
+				distances[members[to - 1]] = Double.POSITIVE_INFINITY;
+				if(range <= 0) continue;
+				for(int k = from + 1; k < to - 1; k++) {
+					distances[members[k]] += (objectives[members[k + 1]][m] - objectives[members[k - 1]][m]) / range;
+				}
+			}
+		}
+		return distances;
+	}
+}
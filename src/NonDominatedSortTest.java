@@ -0,0 +1,65 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * This class tests the sort and crowdingDistance methods of NonDominatedSort against the definitions.
+ */
+class NonDominatedSortTest {
+
+	/**
+	 * @return The fronts peeled one after the other, as the original NSGA-II does.
+	 */
+	private int[] naive(double[][] objectives) {
+		int n = objectives.length, assigned = 0;
+		int[] ranks = new int[n];
+		Arrays.fill(ranks, -1);
+		for(int front=0; assigned<n; front++) {
+			boolean[] dominated = new boolean[n];
+			for(int i=0;i<n;i++) {
+				for(int j=0;j<n && ranks[i]<0;j++) {
+					if((ranks[j]<0 || ranks[j]==front) && NonDominatedSort.dominates(objectives[j],objectives[i])) dominated[i] = true;
+				}
+			}
+			for(int i=0;i<n;i++) {
+				if(ranks[i]<0 && !dominated[i]) {
+					ranks[i] = front;
+					assigned++;
+				}
+			}
+		}
+		return ranks;
+	}
+
+	@Test
+	void testSort() {
+		Random random = new Random(0);
+		for(int m=2;m<=4;m++) {
+			double[][] objectives = new double[300][m];
+			for(int i=0;i<300;i++) {
+				for(int k=0;k<m;k++) {
+					objectives[i][k] = random.nextInt(20);
+				}
+			}
+			objectives[7] = objectives[3].clone();
+			assertArrayEquals(naive(objectives),NonDominatedSort.sort(objectives));
+		}
+		assertEquals(0,NonDominatedSort.sort(new double[0][]).length);
+	}
+
+	@Test
+	void testCrowdingDistance() {
+		double[][] objectives = {{0,4},{1,2},{2,1},{4,0},{3,3}};
+		int[] ranks = NonDominatedSort.sort(objectives);
+		assertArrayEquals(new int[] {0,0,0,0,1},ranks);
+		double[] distances = NonDominatedSort.crowdingDistance(objectives,ranks);
+		assertEquals(Double.POSITIVE_INFINITY,distances[0]);
+		assertEquals(Double.POSITIVE_INFINITY,distances[3]);
+		assertEquals(Double.POSITIVE_INFINITY,distances[4]);
+		assertEquals(2/4.0+3/4.0,distances[1],1e-12);
+		assertEquals(3/4.0+2/4.0,distances[2],1e-12);
+	}
+}
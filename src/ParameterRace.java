@@ -0,0 +1,261 @@
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * This class represents a racing engine which tunes the parameters of the genetic algorithm by successive halving.
+ * Every configuration evolves its own GeneticAlgorithm, built from the same first individual, so the cities
+ * and any distance data they refer to are loaded once and shared by all configurations.
+ * In each round the surviving configurations run concurrently, are ranked by the fitness of their best individual,
+ * and only the best fraction of them continues, with a larger budget, to the next round.
+ * Each configuration draws its random numbers from its own stream, so a race with generation budgets is
+ * reproducible for a given seed.
+ */
+public class ParameterRace {
+	private IIndividual member;
+	private RandomStreams streams;
+	private int threads, reductionFactor;
+
+	/**
+	 * This class represents the data structure which holds a set of parameters of the genetic algorithm.
+	 * A tournament size smaller than 1 selects roulette wheel selection.
+	 */
+	public static class Configuration {
+		private int popuSize, tournamentSize;
+		private double mutProb, crossProb, replaceFraction;
+
+		/**
+		 * @param popuSize The size of the population.
+		 * @param mutProb The mutation probability.
+		 * @param crossProb The crossover probability.
+		 * @param replaceFraction The replacement fraction.
+		 * @param tournamentSize The tournament size for the tournament selection.
+		 */
+		public Configuration(int popuSize, double mutProb, double crossProb, double replaceFraction, int tournamentSize) {
+			this.popuSize = popuSize;
+			this.mutProb = mutProb;
+			this.crossProb = crossProb;
+			this.replaceFraction = replaceFraction;
+			this.tournamentSize = tournamentSize;
+		}
+
+		/**
+		 * @return The size of the population.
+		 */
+		public int getPopuSize() { return popuSize; }
+
+		/**
+		 * @return The mutation probability.
+		 */
+		public double getMutProb() { return mutProb; }
+
+		/**
+		 * @return The crossover probability.
+		 */
+		public double getCrossProb() { return crossProb; }
+
+		/**
+		 * @return The replacement fraction.
+		 */
+		public double getReplaceFraction() { return replaceFraction; }
+
+		/**
+		 * @return The tournament size for the tournament selection.
+		 */
+		public int getTournamentSize() { return tournamentSize; }
+
+		/**
+		 * @return A string representation of an object of type Configuration.
+		 */
+		@Override
+		public String toString() {
+			return "popuSize=" + popuSize + " mutProb=" + mutProb + " crossProb=" + crossProb
+					+ " replaceFraction=" + replaceFraction + " tournamentSize=" + tournamentSize;
+		}
+	}
+
+	/**
+	 * This class represents the state of a configuration during the race.
+	 */
+	public static class Candidate {
+		private int index, generations, eliminatedInRound;
+		private Configuration configuration;
+		private GeneticAlgorithm algorithm;
+
+		private Candidate(int index, Configuration configuration, GeneticAlgorithm algorithm) {
+			this.index = index;
+			this.configuration = configuration;
+			this.algorithm = algorithm;
+			this.eliminatedInRound = -1;
+		}
+
+		/**
+		 * Runs one generation of the genetic algorithm of the candidate.
+		 */
+		private void step() {
+			if(configuration.getTournamentSize() < 1) {
+				algorithm.nextGenerationWithRoulette();
+			}
+			else algorithm.nextGenerationWithTournament();
+			generations++;
+		}
+
+		/**
+		 * @return The position of the configuration in the list given to the race.
+		 */
+		public int getIndex() { return index; }
+
+		/**
+		 * @return The configuration of the candidate.
+		 */
+		public Configuration getConfiguration() { return configuration; }
+
+		/**
+		 * @return The genetic algorithm evolved by the candidate.
+		 */
+		public GeneticAlgorithm getAlgorithm() { return algorithm; }
+
+		/**
+		 * @return The best individual found by the candidate.
+		 */
+		public IIndividual getBest() { return algorithm.getBest(); }
+
+		/**
+		 * @return The number of generations the candidate has run.
+		 */
+		public int getGenerations() { return generations; }
+
+		/**
+		 * @return The round in which the candidate was eliminated, or -1 if it was never eliminated.
+		 */
+		public int getEliminatedInRound() { return eliminatedInRound; }
+	}
+
+	/**
+	 * @param member The first individual, shared by every configuration.
+	 * @param streams The random number streams, one per configuration.
+	 * @param threads The number of configurations evolved at the same time.
+	 * @param reductionFactor The factor by which the number of candidates is divided after each round.
+	 */
+	public ParameterRace(IIndividual member, RandomStreams streams, int threads, int reductionFactor) {
+		if(threads < 1 || reductionFactor < 2)
+			throw new IllegalArgumentException("The race needs at least one thread and a reduction factor of at least 2!");
+		this.member = member;
+		this.streams = streams;
+		this.threads = threads;
+		this.reductionFactor = reductionFactor;
+	}
+
+	/**
+	 * Races the configurations, giving each survivor of a round reductionFactor times more generations
+	 * than in the previous round.
+	 * @param configurations The configurations to be raced.
+	 * @param firstRoundGenerations The number of generations each configuration runs in the first round.
+	 * @return Every candidate, sorted from the winner to the first eliminated.
+	 */
+	public List<Candidate> race(List<Configuration> configurations, int firstRoundGenerations) {
+		return race(configurations, firstRoundGenerations, null);
+	}
+
+	/**
+	 * Races the configurations within a time budget. The budget is split evenly across the rounds, and the
+	 * time of a round is split evenly across its survivors.
+	 * @param configurations The configurations to be raced.
+	 * @param budget The total wall clock time of the race.
+	 * @return Every candidate, sorted from the winner to the first eliminated.
+	 */
+	public List<Candidate> race(List<Configuration> configurations, Duration budget) {
+		return race(configurations, 0, budget);
+	}
+
+	/**
+	 * @return The number of rounds needed to reduce the given number of candidates to one.
+	 */
+	private int rounds(int candidates) {
+		int rounds = 0;
+		while(candidates > 1) {
+			candidates = (candidates + reductionFactor - 1) / reductionFactor;
+			rounds++;
+		}
+		return Math.max(rounds, 1);
+	}
+
+	/**
+	 * Runs the rounds of successive halving, either with generation budgets or with a time budget when it is not null.
+	 */
+	private List<Candidate> race(List<Configuration> configurations, int firstRoundGenerations, Duration budget) {
+		List<Candidate> alive = new ArrayList<Candidate>();
+		List<Candidate> eliminated = new ArrayList<Candidate>();
+		for(int i = 0; i < configurations.size(); i++) {
+			Configuration c = configurations.get(i);
+			GeneticAlgorithm algorithm = new GeneticAlgorithm((IIndividual)member.clone(), streams.forIsland(i), c.getPopuSize(),
+					c.getMutProb(), c.getCrossProb(), c.getReplaceFraction(), 0, c.getTournamentSize());
+			alive.add(new Candidate(i, c, algorithm));
+		}
+		Comparator<Candidate> ranking = Comparator.comparingDouble((Candidate c) -> -c.getBest().getFitness())
+				.thenComparingInt(c -> c.index);
+		long roundNanos = budget == null ? 0 : budget.toNanos() / rounds(alive.size());
+		int generations = firstRoundGenerations;
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			for(int round = 0; ; round++) {
+				long sliceNanos = roundNanos * Math.min(threads, alive.size()) / alive.size();
+				runRound(executor, alive, generations, sliceNanos);
+				alive.sort(ranking);
+				if(alive.size() == 1) break;
+				int survivors = (alive.size() + reductionFactor - 1) / reductionFactor;
+				for(int i = alive.size() - 1; i >= survivors; i--) {
+					Candidate loser = alive.remove(i);
+					loser.eliminatedInRound = round;
+					eliminated.add(0, loser);
+				}
+				if(alive.size() == 1) break;
+				generations *= reductionFactor;
+			}
+		}
+		finally {
+			executor.shutdownNow();
+		}
+		alive.addAll(eliminated);
+		return alive;
+	}
+
+	/**
+	 * Evolves every candidate for a number of generations, or until its time slice expires when it is positive.
+	 */
+	private void runRound(ExecutorService executor, List<Candidate> alive, int generations, long sliceNanos) {
+		List<Future<?>> running = new ArrayList<Future<?>>();
+		for(Candidate c : alive) {
+			running.add(executor.submit(() -> {
+				if(sliceNanos > 0) {
+					long deadline = System.nanoTime() + sliceNanos;
+					do {
+						c.step();
+					} while(System.nanoTime() < deadline);
+				}
+				else {
+					for(int i = 0; i < generations; i++) {
+						c.step();
+					}
+				}
+			}));
+		}
+		try {
+			for(Future<?> f : running) {
+				f.get();
+			}
+		}
+		catch(InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("The race was interrupted!", e);
+		}
+		catch(ExecutionException e) {
+			throw new IllegalStateException("A configuration failed during the race!", e.getCause());
+		}
+	}
+}
@@ -0,0 +1,65 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * This class tests the race method of a ParameterRace.
+ * The method runs several configurations of the genetic algorithm and eliminates the worst ones after each round.
+ */
+class ParameterRaceTest {
+
+	private TSP instance() {
+		List<City> a = new ArrayList<City>();
+		for(int i=0; i<20;i++) {
+			a.add(new City("Andre" + i,new PointTwoDimensions(Math.cos(i*0.7)*100,Math.sin(i*1.3)*100)));
+		}
+		return new TSP(a);
+	}
+
+	private List<ParameterRace.Configuration> configurations() {
+		List<ParameterRace.Configuration> c = new ArrayList<ParameterRace.Configuration>();
+		c.add(new ParameterRace.Configuration(64,0.01,0.7,0.5,2));
+		c.add(new ParameterRace.Configuration(64,0.1,0.9,0.5,4));
+		c.add(new ParameterRace.Configuration(32,0.01,0.7,0.5,0));
+		c.add(new ParameterRace.Configuration(8,0.5,0.1,0.1,2));
+		return c;
+	}
+
+	@Test
+	void testRaceEliminates() {
+		ParameterRace race = new ParameterRace(instance(),new RandomStreams(0),2,2);
+		List<ParameterRace.Candidate> result = race.race(configurations(),5);
+		assertEquals(4,result.size());
+		assertEquals(-1,result.get(0).getEliminatedInRound());
+		assertEquals(1,result.get(1).getEliminatedInRound());
+		assertEquals(0,result.get(2).getEliminatedInRound());
+		assertEquals(0,result.get(3).getEliminatedInRound());
+		assertEquals(15,result.get(0).getGenerations());
+		assertEquals(5,result.get(3).getGenerations());
+	}
+
+	@Test
+	void testRaceReproducible() {
+		TSP first = instance();
+		List<ParameterRace.Candidate> a = new ParameterRace(first,new RandomStreams(3),4,2).race(configurations(),5);
+		List<ParameterRace.Candidate> b = new ParameterRace(first,new RandomStreams(3),1,2).race(configurations(),5);
+		for(int i=0;i<a.size();i++) {
+			assertEquals(a.get(i).getIndex(),b.get(i).getIndex());
+			assertEquals(a.get(i).getBest(),b.get(i).getBest());
+		}
+	}
+
+	@Test
+	void testRaceWithBudget() {
+		ParameterRace race = new ParameterRace(instance(),new RandomStreams(0),2,2);
+		List<ParameterRace.Candidate> result = race.race(configurations(),Duration.ofMillis(300));
+		assertEquals(-1,result.get(0).getEliminatedInRound());
+		for(ParameterRace.Candidate c : result) {
+			assertTrue(c.getGenerations() > 0);
+		}
+	}
+}
@@ -38,6 +38,14 @@ public class PointTwoDimensions implements ILocation{
 		return (this.x == p.getX() && this.y == p.getY());
 	}
 
+	/**
+	 * @return A hash code consistent with equals, computed from the two coordinates.
+	 */
+	@Override
+	public int hashCode() {
+		return 31 * Double.hashCode(x) + Double.hashCode(y);
+	}
+
 	/**
 	 * @return The euclidean distance between two points with two coordinates
 	 */
@@ -1,13 +1,20 @@
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
-import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.random.RandomGenerator;
 
 /**
  * This class represents the data structure which holds a Population representation.
  */
 public class Population {
 	private List<IIndividual> population ;
+	private EdgeFrequencyTable edges;
+	private SignatureTable signatures;
+	private RandomGenerator perturbation;
+	private long candidates, duplicates;
+	private FitnessIndex index;
 
 	/**
 	 * @param population The population of individuals.
@@ -24,32 +31,31 @@ public class Population {
 	}
 
 	/**
-	 * Initialize a population and update each individuals fitness value.
+	 * Initialize a population with clones of an individual, whose fitness is evaluated once, before it is cloned.
 	 * @param member An individual that belongs to the population.
 	 * @param populationSize The size of the population.
 	 */
 	public Population(IIndividual member,int populationSize) {
 		population = new ArrayList<IIndividual>();
+		member.getFitness();
 		for(int i =0;i<populationSize;i++) {
 			population.add((IIndividual)member.clone());
 		}
-		updateFitness();
 	}
 
 	/**
-	 * Initialize a population with the permutation of the first member and
-	 * update each individuals fitness value.
+	 * Initialize a population with the permutation of the first member.
+	 * The fitness of each permutation is evaluated when it is first read.
 	 * @param member An individual that belong to the population.
 	 * @param generator An instance of a random number generator.
 	 * @param populationSize The size of the population.
 	 */
-	public Population(IIndividual member, Random generator,int populationSize) {
+	public Population(IIndividual member, RandomGenerator generator,int populationSize) {
 		population = new ArrayList<IIndividual>();
 		population.add(member);
 		for(int i =0;i<populationSize-1;i++) {
 			population.add((IIndividual)member.permutation(generator));
 		}
-		updateFitness();
 	}
 
 	/**
@@ -68,6 +74,37 @@ public class Population {
 		}
 	}
 
+	/**
+	 * Sorts the population decreasingly by fitness, keeping the order of individuals with equal fitness, with a
+	 * radix sort over the fitness values which never compares the individuals.
+	 */
+	public void sort() {
+		if(index == null) index = new FitnessIndex();
+		index.sort(population);
+	}
+
+	/**
+	 * @return The fitness values by rank after the last sort, or null if the population was never sorted.
+	 */
+	public FitnessIndex getFitnessIndex() {
+		return index;
+	}
+
+	/**
+	 * Calculates the fitness value of the individuals of the population which are not up to date.
+	 * @return The number of individuals evaluated.
+	 */
+	public int evaluate() {
+		int evaluated = 0;
+		for(IIndividual e : population) {
+			if(!e.isEvaluated()) {
+				e.calculateFitness();
+				evaluated++;
+			}
+		}
+		return evaluated;
+	}
+
 	/**
 	 * @return The list of the individuals in the population.
 	 */
@@ -77,10 +114,112 @@ public class Population {
 
 	/**
 	 * Change the list of individuals in the population.
+	 * If the edges of the population are being tracked, they are counted again for the new list.
 	 * @param population The list of individuals to be set.
 	 */
 	public void setPopulation(List<IIndividual> population) {
 		this.population = population;
+		if(edges != null) {
+			edges = null;
+			enableDiversityTracking();
+		}
+		if(signatures != null) {
+			signatures = null;
+			enableDuplicateElimination(perturbation);
+		}
+	}
+
+	/**
+	 * Starts keeping the signatures of the individuals, so that replaceWith does not insert an individual
+	 * which is already in the population. A duplicate is either rejected, in favour of the next candidate,
+	 * or perturbed by up to three random swaps until it becomes distinct.
+	 * @param perturbation The random number generator used to perturb duplicates, or null to reject them.
+	 */
+	public void enableDuplicateElimination(RandomGenerator perturbation) {
+		this.perturbation = perturbation;
+		signatures = new SignatureTable();
+		for(IIndividual e : population) {
+			signatures.add(e.getSignature());
+		}
+	}
+
+	/**
+	 * @return True If replaceWith eliminates duplicates, else False.
+	 */
+	public boolean isDuplicateEliminationEnabled() {
+		return signatures != null;
+	}
+
+	/**
+	 * @return The random number generator used to perturb duplicates, or null if they are rejected.
+	 */
+	public RandomGenerator getPerturbation() {
+		return perturbation;
+	}
+
+	/**
+	 * @return The number of candidates found to be duplicates by replaceWith.
+	 */
+	public long getDuplicates() {
+		return duplicates;
+	}
+
+	/**
+	 * @return The fraction of the candidates examined by replaceWith which were duplicates.
+	 */
+	public double getDuplicateRate() {
+		return candidates == 0 ? 0 : (double) duplicates / candidates;
+	}
+
+	/**
+	 * Starts counting the edges of the tours of the population, which is then kept up to date by replaceWith.
+	 * @return True If every individual is a tour and the tracking is enabled, else False.
+	 */
+	public boolean enableDiversityTracking() {
+		if(edges != null) return true;
+		for(IIndividual e : population) {
+			if(!(e instanceof TSP)) return false;
+		}
+		edges = new EdgeFrequencyTable();
+		for(IIndividual e : population) {
+			edges.add((TSP) e);
+		}
+		return true;
+	}
+
+	/**
+	 * @return True If the edges of the population are being tracked, else False.
+	 */
+	public boolean isDiversityTracked() {
+		return edges != null;
+	}
+
+	/**
+	 * @return The table of the edges of the population, or null if they are not being tracked.
+	 */
+	public EdgeFrequencyTable getEdgeFrequencies() {
+		return edges;
+	}
+
+	/**
+	 * @return The entropy of the edges of the population, which must be tracked.
+	 */
+	public double getEdgeEntropy() {
+		return edges.getEntropy();
+	}
+
+	/**
+	 * @return The number of different edges in the population, which must be tracked.
+	 */
+	public int getDistinctEdges() {
+		return edges.getDistinctEdges();
+	}
+
+	/**
+	 * @return The average number of edges by which two tours of the population differ, which must be tracked.
+	 */
+	public double getAveragePairwiseDistance() {
+		return edges.getAveragePairwiseDistance();
 	}
 
 	/**
@@ -101,7 +240,7 @@ public class Population {
 	 * Returns a new instance of Population where its members list has been permuted.
 	 * @return A new instance of type Population
 	 */
-	public Population permutation(Random generator){
+	public Population permutation(RandomGenerator generator){
 		int i,randomNumber;
 		IIndividual temp;
 		ArrayList<IIndividual> newIndividuals = new ArrayList<IIndividual>();
@@ -124,7 +263,7 @@ public class Population {
 	 * @param tournamentSize The number of tournaments.
 	 * @return The selected individual.
 	 */
-	public List<IIndividual> TournamentSelection(Random ran,int tournamentSize) {
+	public List<IIndividual> TournamentSelection(RandomGenerator ran,int tournamentSize) {
 		int i,j,k,ts = population.size()/tournamentSize;
 		double winnerFitness;
 		IIndividual winner = null,opponent;
@@ -154,7 +293,7 @@ public class Population {
 	 * @param generator An instance of a Random number generator.
 	 * @return The selected individual.
 	 */
-	public IIndividual rouletteWheelSelection(Random generator, double total) {
+	public IIndividual rouletteWheelSelection(RandomGenerator generator, double total) {
 		double current=0;
 		double d=generator.nextDouble();
 		for(int i=0;i<population.size();i++) {
@@ -173,7 +312,7 @@ public class Population {
 	 * @param populationSize The size of the population.
 	 * @return The list of individuals that belong to the population.
 	 */
-	public List<IIndividual> selectedPopulationRoulette(Random generator, int populationSize){
+	public List<IIndividual> selectedPopulationRoulette(RandomGenerator generator, int populationSize){
 		List<IIndividual> result = new ArrayList<IIndividual>();
 		double total=getTotalFitness();
 		for(int i=0;i<populationSize;i++) {
@@ -196,26 +335,159 @@ public class Population {
 	/**
 	 * Replaces the worst individuals from the population, with the best individuals of the
 	 * obtained population, according to a double value.
+	 * If the edges of the population are being tracked, the table is updated with each swap.
+	 * If duplicate elimination is enabled, candidates already in the population are rejected or perturbed,
+	 * and fewer individuals may be replaced when the candidates run out.
 	 * @param newGeneration The population obtained after selection, crossover and mutation.
 	 * @param replaceFraction A double which indicates the fraction of worst elements to be
 	 * replaced with the best elements.
 	 */
 	public void replaceWith(Population newGeneration, double replaceFraction) {
-		Collections.sort(population);
-		Collections.sort(newGeneration.population);
+		sort();
+		newGeneration.sort();
 		int numberOfReplacements = (int) (population.size()*replaceFraction);
+		if(signatures != null) {
+			replaceDistinct(newGeneration, numberOfReplacements);
+			return;
+		}
+		for(int i=0;i<numberOfReplacements;i++) {
+			IIndividual old = population.set(population.size()-1-i, newGeneration.population.get(i));
+			if(edges != null) {
+				edges.remove((TSP) old);
+				edges.add((TSP) newGeneration.population.get(i));
+			}
+		}
+	}
+
+	/**
+	 * Replaces the worst individuals with the best candidates which are not yet in the population.
+	 * @param newGeneration The candidates, sorted decreasingly by their fitness.
+	 * @param numberOfReplacements The number of individuals to be replaced.
+	 */
+	private void replaceDistinct(Population newGeneration, int numberOfReplacements) {
+		int next = 0;
 		for(int i=0;i<numberOfReplacements;i++) {
-			population.set(population.size()-1-i, newGeneration.population.get(i));
+			int position = population.size()-1-i;
+			IIndividual old = population.get(position), candidate = null;
+			signatures.remove(old.getSignature());
+			while(candidate == null && next < newGeneration.getSize()) {
+				candidate = distinct(newGeneration.population.get(next++));
+			}
+			if(candidate == null) {
+				signatures.add(old.getSignature());
+				return;
+			}
+			population.set(position, candidate);
+			signatures.add(candidate.getSignature());
+			if(edges != null) {
+				edges.remove((TSP) old);
+				edges.add((TSP) candidate);
+			}
+		}
+	}
+
+	/**
+	 * @param candidate An individual to be inserted in the population.
+	 * @return The candidate, or a perturbation of it, if it is not in the population, else null.
+	 * A TSP is perturbed by swapping two distinct cities, other individuals by their mutation.
+	 */
+	private IIndividual distinct(IIndividual candidate) {
+		candidates++;
+		if(!signatures.contains(candidate.getSignature())) return candidate;
+		duplicates++;
+		for(int attempt = 0; perturbation != null && attempt < 3; attempt++) {
+			candidate = candidate instanceof TSP ? ((TSP) candidate).swapMutation(perturbation)
+					: candidate.twoBitSwapMutation(perturbation, 1.0);
+			if(!signatures.contains(candidate.getSignature())) return candidate;
+		}
+		return null;
+	}
+
+	/**
+	 * Replaces the worst individuals of the population, which must be sorted decreasingly by fitness,
+	 * with the given individuals, keeping the edge table and the signatures up to date.
+	 * @param individuals The individuals to be inserted.
+	 */
+	public void replaceWorst(List<IIndividual> individuals) {
+		for(int i=0;i<individuals.size() && i<population.size();i++) {
+			IIndividual old = population.set(population.size()-1-i, individuals.get(i));
+			if(edges != null) {
+				edges.remove((TSP) old);
+				edges.add((TSP) individuals.get(i));
+			}
+			if(signatures != null) {
+				signatures.remove(old.getSignature());
+				signatures.add(individuals.get(i).getSignature());
+			}
 		}
 	}
 
+	/**
+	 * Inserts a new city into every tour of the population while it evolves. The distance data shared by the
+	 * tours is extended by one row and column, and each tour is repaired by cheapest insertion with a delta
+	 * update of its fitness. The edge table and the signatures are counted again afterwards.
+	 * Every individual must be a TSP.
+	 * @param city The city to be inserted.
+	 */
+	public void insertCity(City city) {
+		for(IDistance distances : distances()) {
+			distances.addCity(city);
+		}
+		for(TSP tour : tours()) {
+			tour.insertCity(city);
+		}
+		setPopulation(population);
+	}
+
+	/**
+	 * Removes a city from every tour of the population while it evolves. Each tour is repaired by joining
+	 * the neighbours of the city, with a delta update of its fitness, before the city is dropped from the
+	 * distance data shared by the tours. The edge table and the signatures are counted again afterwards.
+	 * Every individual must be a TSP.
+	 * @param city The city to be removed.
+	 */
+	public void removeCity(City city) {
+		for(TSP tour : tours()) {
+			tour.removeCity(city);
+		}
+		for(IDistance distances : distances()) {
+			distances.removeCity(city);
+		}
+		setPopulation(population);
+	}
+
+	/**
+	 * @return The distinct tours of the population, so that a tour held twice is repaired once.
+	 */
+	private List<TSP> tours() {
+		IdentityHashMap<TSP,Boolean> seen = new IdentityHashMap<TSP,Boolean>();
+		List<TSP> tours = new ArrayList<TSP>();
+		for(IIndividual e : population) {
+			if(seen.put((TSP) e, Boolean.TRUE) == null) tours.add((TSP) e);
+		}
+		return tours;
+	}
+
+	/**
+	 * @return The distinct distance strategies used by the tours of the population.
+	 */
+	private List<IDistance> distances() {
+		IdentityHashMap<IDistance,Boolean> seen = new IdentityHashMap<IDistance,Boolean>();
+		List<IDistance> distances = new ArrayList<IDistance>();
+		for(IIndividual e : population) {
+			IDistance d = ((TSP) e).getDistances();
+			if(d != null && seen.put(d, Boolean.TRUE) == null) distances.add(d);
+		}
+		return distances;
+	}
+
 	/**
 	 * Add all the individuals obtained from the crossover, until the current population is full. 
 	 * @param parents The population which will be used to perform crossover.
 	 * @param ran An instance of a Random number generator, which is used to apply crossover.
 	 * @param crossOverProbability The probability for which crossover occurs.
 	 */
-	public void offspring(Population parents,Random ran, double crossOverProbability){
+	public void offspring(Population parents,RandomGenerator ran, double crossOverProbability){
 		int i = 0;
 		while(i < parents.getSize() && getSize() < parents.getSize()) {
 			population.addAll(parents.population.get(i).crossOver(ran,crossOverProbability,parents.population.get(i+1)));
@@ -223,19 +495,73 @@ public class Population {
 		}
 	}
 
+	/**
+	 * Adds the childs of consecutive pairs of parents, crossed over, mutated and evaluated in parallel.
+	 * The pairs are split into blocks of a fixed number of pairs, and each block is a task of the pool which, pair after pair,
+	 * does the crossover, mutates the two childs with two bit swap mutation and evaluates them, while their tours are
+	 * still in cache. Each block draws its numbers from its own stream, given by the block, the island and the generation,
+	 * and its childs are put at the positions of its pairs, so the childs are the same for a given seed whatever
+	 * the number of threads of the pool.
+	 * @param parents The population which will be used to perform crossover, of an even size.
+	 * @param streams The streams from which the stream of each block is derived.
+	 * @param island The island of the population.
+	 * @param generation The current generation.
+	 * @param crossOverProbability The probability for which crossover occurs.
+	 * @param mutationProbability The probability for which mutation will occur.
+	 * @param pairsPerBlock The number of pairs of parents bred by each task.
+	 * @param pool The pool which runs the tasks.
+	 * @return The number of childs evaluated.
+	 */
+	public int offspring(Population parents, RandomStreams streams, int island, long generation, double crossOverProbability,
+			double mutationProbability, int pairsPerBlock, ForkJoinPool pool) {
+		if(pairsPerBlock < 1)
+			throw new IllegalArgumentException("A block must have at least one pair of parents!");
+		int pairs = parents.getSize() / 2, blocks = (pairs + pairsPerBlock - 1) / pairsPerBlock;
+		IIndividual[] childs = new IIndividual[2 * pairs];
+		int[] evaluated = new int[blocks];
+		List<ForkJoinTask<?>> tasks = new ArrayList<ForkJoinTask<?>>(blocks);
+		for(int b = 0; b < blocks; b++) {
+			int block = b, from = b * pairsPerBlock, to = Math.min(from + pairsPerBlock, pairs);
+			tasks.add(pool.submit(() -> {
+				RandomGenerator ran = streams.forIndividual(island, generation, block);
+				for(int pair = from; pair < to; pair++) {
+					List<IIndividual> crossed = parents.population.get(2*pair).crossOver(ran, crossOverProbability, parents.population.get(2*pair+1));
+					for(int k = 0; k < 2; k++) {
+						IIndividual child = crossed.get(k).twoBitSwapMutation(ran, mutationProbability);
+						if(!child.isEvaluated()) {
+							child.calculateFitness();
+							evaluated[block]++;
+						}
+						childs[2*pair+k] = child;
+					}
+				}
+			}));
+		}
+		for(ForkJoinTask<?> task : tasks) {
+			task.join();
+		}
+		int total = 0;
+		for(int e : evaluated) {
+			total += e;
+		}
+		for(IIndividual child : childs) {
+			population.add(child);
+		}
+		return total;
+	}
+
 	/**
 	 * Mutate each individual of the given population, with a given probability.
 	 * In this case, two bit swap mutation is used.
-	 * After applying the mutation operator in the population, the population fitness is updated.
+	 * The mutated individuals are marked as not evaluated, so their fitness is calculated when it is first read.
 	 * @param ran An instance of a Random Number generator, which is used to apply mutation.
 	 * @param mutationProbability The probability for which mutation will occur.
 	 */
-	public void mutatePopulation(Random ran, double mutationProbability) {
+	public void mutatePopulation(RandomGenerator ran, double mutationProbability) {
 		int i;
 		for(i = 0; i < getSize(); i++) {
 			population.set(i, population.get(i).twoBitSwapMutation(ran, mutationProbability));
 		}
-		updateFitness();
 	}
 
 	/**
@@ -3,12 +3,13 @@ import static org.junit.jupiter.api.Assertions.*;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
 
 import org.junit.jupiter.api.Test;
 
 /**
- * This class tests the rouletteWheelSelection, selectedPopulation, getTotalFitness
- * and replaceWith method of a Population.
+ * This class tests the rouletteWheelSelection, selectedPopulation, getTotalFitness,
+ * replaceWith, evaluate and parallel offspring method of a Population.
  */
 class PopulationTest {
 
@@ -115,4 +116,54 @@ class PopulationTest {
 		assertEquals(inicial.TournamentSelection(generator, 2),result.getPopulation());
 	}
 
-}
\ No newline at end of file
+	@Test
+	void testEvaluate() {
+		int[] calls = new int[1];
+		IDistance counting = (x, y) -> {
+			calls[0]++;
+			return x.getDistance(y);
+		};
+		List<City> a = new ArrayList<City>();
+		for(int i=0;i<10;i++) {
+			a.add(new City("Andre" + i,new PointTwoDimensions(i,i*i)));
+		}
+		TSP test = new TSP(a,counting);
+		assertFalse(test.isEvaluated());
+		Population inicial = new Population(test,new Random(0),8);
+		assertEquals(0,calls[0]);
+		assertEquals(8,inicial.evaluate());
+		assertEquals(80,calls[0]);
+		assertEquals(0,inicial.evaluate());
+		inicial.getTotalFitness();
+		assertEquals(80,calls[0]);
+		inicial.mutatePopulation(new Random(0),1);
+		assertEquals(80,calls[0]);
+		inicial.getTotalFitness();
+		assertEquals(160,calls[0]);
+		assertEquals(0,inicial.evaluate());
+	}
+
+	@Test
+	void testParallelOffspring() {
+		List<City> a = new ArrayList<City>();
+		for(int i=0;i<12;i++) {
+			a.add(new City("Andre" + i,new PointTwoDimensions(i,(i*5)%12)));
+		}
+		Population parents = new Population(new TSP(a),new Random(0),20);
+		RandomStreams streams = new RandomStreams(7);
+		ForkJoinPool single = new ForkJoinPool(1), several = new ForkJoinPool(4);
+		Population first = new Population(), second = new Population();
+		assertEquals(20,first.offspring((Population) parents.clone(),streams,0,3,0.8,0.5,3,single));
+		second.offspring((Population) parents.clone(),streams,0,3,0.8,0.5,3,several);
+		single.shutdown();
+		several.shutdown();
+		assertEquals(20,first.getSize());
+		for(int i=0;i<20;i++) {
+			IIndividual child = first.getPopulation().get(i);
+			assertTrue(child.isEvaluated());
+			assertEquals(12,((TSP) child).getRepresentation().size());
+			assertEquals(((TSP) child).getRepresentation(),((TSP) second.getPopulation().get(i)).getRepresentation());
+		}
+	}
+
+}
@@ -0,0 +1,57 @@
+/**
+ * This class represents the progress of a genetic algorithm after one generation.
+ */
+public class ProgressEvent {
+	private int generation;
+	private double bestFitness, bestDelta;
+	private long generationNanos, elapsedNanos;
+
+	/**
+	 * @param generation The number of generations run.
+	 * @param bestFitness The fitness of the best individual found.
+	 * @param bestDelta The improvement of the best fitness during the generation.
+	 * @param generationNanos The duration of the generation, in nanoseconds.
+	 * @param elapsedNanos The time elapsed since the solve started, in nanoseconds.
+	 */
+	public ProgressEvent(int generation, double bestFitness, double bestDelta, long generationNanos, long elapsedNanos) {
+		this.generation = generation;
+		this.bestFitness = bestFitness;
+		this.bestDelta = bestDelta;
+		this.generationNanos = generationNanos;
+		this.elapsedNanos = elapsedNanos;
+	}
+
+	/**
+	 * @return The number of generations run.
+	 */
+	public int getGeneration() { return generation; }
+
+	/**
+	 * @return The fitness of the best individual found.
+	 */
+	public double getBestFitness() { return bestFitness; }
+
+	/**
+	 * @return The improvement of the best fitness during the generation, which is 0 if the best did not change.
+	 */
+	public double getBestDelta() { return bestDelta; }
+
+	/**
+	 * @return The duration of the generation, in nanoseconds.
+	 */
+	public long getGenerationNanos() { return generationNanos; }
+
+	/**
+	 * @return The time elapsed since the solve started, in nanoseconds.
+	 */
+	public long getElapsedNanos() { return elapsedNanos; }
+
+	/**
+	 * @return A string representation of an object of type ProgressEvent.
+	 */
+	@Override
+	public String toString() {
+		return "Generation " + generation + ": best fitness " + bestFitness + " (+" + bestDelta + ") in "
+				+ generationNanos / 1000 + " us";
+	}
+}
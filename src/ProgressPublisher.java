@@ -0,0 +1,172 @@
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * This class represents a publisher of the progress events of a genetic algorithm.
+ * Each subscriber holds at most one pending event: when a new event arrives before the previous one was
+ * delivered, the previous one is dropped. Publishing therefore never blocks and never buffers without bound,
+ * however slow a subscriber is, and a subscriber always receives the most recent progress when it asks for more.
+ * Events are delivered on the executor of the publisher and only as requested by each subscriber.
+ */
+public class ProgressPublisher implements Flow.Publisher<ProgressEvent> {
+	private Executor executor;
+	private CopyOnWriteArrayList<ProgressSubscription> subscriptions;
+	private volatile boolean closed;
+	private AtomicLong dropped;
+
+	/**
+	 * Initializes a publisher which delivers events on the common fork join pool.
+	 */
+	public ProgressPublisher() {
+		this(ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * @param executor The executor on which events are delivered to the subscribers.
+	 */
+	public ProgressPublisher(Executor executor) {
+		this.executor = executor;
+		this.subscriptions = new CopyOnWriteArrayList<ProgressSubscription>();
+		this.dropped = new AtomicLong();
+	}
+
+	/**
+	 * Adds a subscriber, which receives onSubscribe and then the events it requests.
+	 * If the publisher is closed, the subscriber is completed right away.
+	 */
+	@Override
+	public void subscribe(Flow.Subscriber<? super ProgressEvent> subscriber) {
+		ProgressSubscription subscription = new ProgressSubscription(subscriber);
+		subscriptions.add(subscription);
+		if(closed) subscription.completed = true;
+		subscription.schedule();
+	}
+
+	/**
+	 * Offers an event to every subscriber, replacing any event they have not received yet.
+	 * @param event The event to be published.
+	 */
+	public void publish(ProgressEvent event) {
+		if(closed) return;
+		for(ProgressSubscription s : subscriptions) {
+			if(s.pending.getAndSet(event) != null) dropped.incrementAndGet();
+			s.schedule();
+		}
+	}
+
+	/**
+	 * Completes every subscriber after its pending event, if any, is delivered.
+	 */
+	public void close() {
+		closed = true;
+		for(ProgressSubscription s : subscriptions) {
+			s.completed = true;
+			s.schedule();
+		}
+	}
+
+	/**
+	 * @return True If the publisher was closed, else False.
+	 */
+	public boolean isClosed() {
+		return closed;
+	}
+
+	/**
+	 * @return The number of subscribers.
+	 */
+	public int getSubscriberCount() {
+		return subscriptions.size();
+	}
+
+	/**
+	 * @return The number of events replaced by newer ones before they were delivered.
+	 */
+	public long getDroppedEvents() {
+		return dropped.get();
+	}
+
+	/**
+	 * This class represents the link between the publisher and one subscriber.
+	 * Every signal to the subscriber is sent by a drain loop, which runs on one thread at a time.
+	 */
+	private class ProgressSubscription implements Flow.Subscription {
+		private Flow.Subscriber<? super ProgressEvent> subscriber;
+		private AtomicReference<ProgressEvent> pending = new AtomicReference<ProgressEvent>();
+		private AtomicLong demand = new AtomicLong();
+		private AtomicInteger work = new AtomicInteger();
+		private volatile boolean cancelled, completed;
+		private volatile Throwable error;
+		private boolean subscribed, done;
+
+		private ProgressSubscription(Flow.Subscriber<? super ProgressEvent> subscriber) {
+			this.subscriber = subscriber;
+		}
+
+		/**
+		 * Adds to the number of events the subscriber is ready to receive.
+		 * @param n The number of events, which must be positive.
+		 */
+		@Override
+		public void request(long n) {
+			if(n <= 0) {
+				error = new IllegalArgumentException("The number of requested events must be positive!");
+			}
+			else demand.getAndAccumulate(n, (a, b) -> a + b < 0 ? Long.MAX_VALUE : a + b);
+			schedule();
+		}
+
+		/**
+		 * Stops the delivery of events to the subscriber.
+		 */
+		@Override
+		public void cancel() {
+			cancelled = true;
+			subscriptions.remove(this);
+		}
+
+		/**
+		 * Runs the drain loop on the executor unless it is already running.
+		 */
+		private void schedule() {
+			if(work.getAndIncrement() == 0) executor.execute(this::drain);
+		}
+
+		/**
+		 * Sends the subscriber every signal which is due, until no more work was scheduled meanwhile.
+		 */
+		private void drain() {
+			int missed = 1;
+			do {
+				if(!subscribed) {
+					subscribed = true;
+					subscriber.onSubscribe(this);
+				}
+				while(!done && !cancelled && error == null && demand.get() > 0) {
+					ProgressEvent event = pending.getAndSet(null);
+					if(event == null) break;
+					demand.decrementAndGet();
+					subscriber.onNext(event);
+				}
+				if(!done && !cancelled) {
+					if(error != null) {
+						done = true;
+						cancel();
+						subscriber.onError(error);
+					}
+					else if(completed && pending.get() == null) {
+						done = true;
+						subscriptions.remove(this);
+						subscriber.onComplete();
+					}
+				}
+				missed = work.addAndGet(-missed);
+			} while(missed != 0);
+		}
+	}
+}
@@ -0,0 +1,69 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Flow;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * This class tests that a ProgressPublisher honors the demand of its subscribers and coalesces events.
+ */
+class ProgressPublisherTest {
+
+	private static class Recorder implements Flow.Subscriber<ProgressEvent> {
+		List<ProgressEvent> events = new ArrayList<ProgressEvent>();
+		Flow.Subscription subscription;
+		long initialDemand;
+		boolean completed;
+
+		Recorder(long initialDemand) { this.initialDemand = initialDemand; }
+		public void onSubscribe(Flow.Subscription s) { subscription = s; s.request(initialDemand); }
+		public void onNext(ProgressEvent e) { events.add(e); }
+		public void onError(Throwable t) { fail(t.toString()); }
+		public void onComplete() { completed = true; }
+	}
+
+	private GeneticAlgorithm algorithm(ProgressPublisher publisher) {
+		List<City> a = new ArrayList<City>();
+		for(int i=0; i<12;i++) {
+			a.add(new City("Andre" + i,new PointTwoDimensions(i,(i*5)%12)));
+		}
+		GeneticAlgorithm test = new GeneticAlgorithm(new TSP(a),new Random(0),16,0.01,0.7,0.5,30,2);
+		test.setProgressPublisher(publisher);
+		return test;
+	}
+
+	@Test
+	void testEveryEventDelivered() {
+		ProgressPublisher publisher = new ProgressPublisher(Runnable::run);
+		Recorder recorder = new Recorder(Long.MAX_VALUE);
+		publisher.subscribe(recorder);
+		algorithm(publisher).solveWithTournament();
+		assertEquals(30,recorder.events.size());
+		for(int i=0;i<30;i++) {
+			assertEquals(i+1,recorder.events.get(i).getGeneration());
+		}
+		assertTrue(recorder.completed);
+		assertEquals(0,publisher.getDroppedEvents());
+	}
+
+	@Test
+	void testSlowSubscriberCoalesced() {
+		ProgressPublisher publisher = new ProgressPublisher(Runnable::run);
+		Recorder recorder = new Recorder(1);
+		publisher.subscribe(recorder);
+		GeneticAlgorithm test = algorithm(publisher);
+		IIndividual best = test.solveWithTournament();
+		assertEquals(1,recorder.events.size());
+		assertEquals(1,recorder.events.get(0).getGeneration());
+		assertFalse(recorder.completed);
+		recorder.subscription.request(5);
+		assertEquals(2,recorder.events.size());
+		assertEquals(30,recorder.events.get(1).getGeneration());
+		assertEquals(best.getFitness(),recorder.events.get(1).getBestFitness());
+		assertTrue(recorder.completed);
+		assertEquals(28,publisher.getDroppedEvents());
+	}
+}
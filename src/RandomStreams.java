@@ -0,0 +1,110 @@
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGeneratorFactory;
+
+/**
+ * This class represents a family of independent random number streams derived from a single master seed.
+ * Each stream is identified by its island, thread or individual coordinates instead of by the order in which
+ * it was requested, so parallel runs produce the same numbers regardless of how the work is scheduled.
+ * The algorithm of the streams can be any name accepted by RandomGeneratorFactory,
+ * e.g. "L64X128MixRandom", "SplittableRandom" or "Xoshiro256PlusPlus".
+ */
+public class RandomStreams {
+	/**
+	 * The algorithm used when none is given.
+	 */
+	public static final String DEFAULT_ALGORITHM = "L64X128MixRandom";
+
+	private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+	private static final long MASTER = 1, ISLAND = 2, THREAD = 3, INDIVIDUAL = 4;
+
+	private final String algorithm;
+	private final long seed;
+	private final RandomGeneratorFactory<RandomGenerator> factory;
+
+	/**
+	 * @param seed The master seed from which every stream is derived.
+	 */
+	public RandomStreams(long seed) {
+		this(DEFAULT_ALGORITHM, seed);
+	}
+
+	/**
+	 * @param algorithm The name of the random number generator algorithm.
+	 * @param seed The master seed from which every stream is derived.
+	 */
+	public RandomStreams(String algorithm, long seed) {
+		this.algorithm = algorithm;
+		this.seed = seed;
+		this.factory = RandomGeneratorFactory.of(algorithm);
+	}
+
+	/**
+	 * @return The name of the random number generator algorithm.
+	 */
+	public String getAlgorithm() {
+		return algorithm;
+	}
+
+	/**
+	 * @return The master seed.
+	 */
+	public long getSeed() {
+		return seed;
+	}
+
+	/**
+	 * @return The stream used by a single threaded run.
+	 */
+	public RandomGenerator master() {
+		return factory.create(derive(MASTER, 0, 0, 0));
+	}
+
+	/**
+	 * @param island The index of the island.
+	 * @return The stream of the given island.
+	 */
+	public RandomGenerator forIsland(int island) {
+		return factory.create(derive(ISLAND, island, 0, 0));
+	}
+
+	/**
+	 * @param island The index of the island.
+	 * @param thread The index of the worker inside the island.
+	 * @return The stream of the given worker of the given island.
+	 */
+	public RandomGenerator forThread(int island, int thread) {
+		return factory.create(derive(THREAD, island, thread, 0));
+	}
+
+	/**
+	 * @param island The index of the island.
+	 * @param generation The generation in which the individual is produced.
+	 * @param individual The index of the individual, or of the block of individuals, inside the generation.
+	 * @return The stream of the given individual.
+	 */
+	public RandomGenerator forIndividual(int island, long generation, int individual) {
+		return factory.create(derive(INDIVIDUAL, island, generation, individual));
+	}
+
+	/**
+	 * Derives the seed of a stream by mixing the master seed with the coordinates of the stream.
+	 * @return The seed of the stream.
+	 */
+	private long derive(long kind, long a, long b, long c) {
+		long h = mix(seed + kind * GOLDEN_GAMMA);
+		h = mix(h + (a + 1) * GOLDEN_GAMMA);
+		h = mix(h + (b + 1) * GOLDEN_GAMMA);
+		return mix(h + (c + 1) * GOLDEN_GAMMA);
+	}
+
+	/**
+	 * The finalizer of SplitMix64, which spreads every input bit over the whole output.
+	 * @param z The value to be mixed.
+	 * @return The mixed value.
+	 */
+	static long mix(long z) {
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+}
@@ -0,0 +1,39 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.random.RandomGenerator;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * This class tests that the streams of RandomStreams are reproducible and independent.
+ */
+class RandomStreamsTest {
+
+	@Test
+	void testSameSeedSameStream() {
+		RandomGenerator a = new RandomStreams(42).forIsland(3);
+		RandomGenerator b = new RandomStreams(42).forIsland(3);
+		for(int i=0;i<100;i++) {
+			assertEquals(a.nextLong(),b.nextLong());
+		}
+	}
+
+	@Test
+	void testDifferentStreams() {
+		RandomStreams streams = new RandomStreams(42);
+		assertNotEquals(streams.forIsland(0).nextLong(),streams.forIsland(1).nextLong());
+		assertNotEquals(streams.forThread(0,0).nextLong(),streams.forThread(0,1).nextLong());
+		assertNotEquals(streams.forIndividual(0,1,5).nextLong(),streams.forIndividual(0,2,5).nextLong());
+		assertNotEquals(streams.master().nextLong(),new RandomStreams(43).master().nextLong());
+	}
+
+	@Test
+	void testOrderIndependence() {
+		RandomStreams first = new RandomStreams("SplittableRandom",7);
+		RandomStreams second = new RandomStreams("SplittableRandom",7);
+		long a = first.forIndividual(0,10,1).nextLong();
+		long b = first.forIndividual(0,10,2).nextLong();
+		assertEquals(b,second.forIndividual(0,10,2).nextLong());
+		assertEquals(a,second.forIndividual(0,10,1).nextLong());
+	}
+}
@@ -0,0 +1,426 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.ToDoubleFunction;
+import java.util.random.RandomGenerator;
+
+/**
+ * This class represents the data structure which holds a real valued chromosome, for continuous problems such as
+ * parameter tuning. This class implements the interface IIndividual, so it evolves in a Population and a
+ * GeneticAlgorithm like a TSP does.
+ * The genes are kept in a double array, each within the bounds shared by every chromosome of the problem.
+ * The operators used by a Population are pluggable: by default the crossover is simulated binary crossover (SBX) and the
+ * mutation is Gaussian mutation, and setOperators switches to blend crossover (BLX-alpha), polynomial mutation or gene swaps.
+ * The operators are passed on to every chromosome created from this one.
+ * The fitness is given by an objective function, which must be positive for roulette wheel selection and is
+ * evaluated lazily, when the fitness is first read after the genes changed.
+ */
+public class RealChromosome implements IIndividual {
+	private static final double DISTRIBUTION_INDEX = 15;
+	private static final double SIGMA = 0.1;
+
+	/**
+	 * The mutation which twoBitSwapMutation applies.
+	 */
+	@FunctionalInterface
+	public interface Mutation {
+		/**
+		 * @param chromosome The chromosome to be mutated, which is not changed.
+		 * @param ran The random number generator.
+		 * @param mutationProbability The probability that the chromosome is mutated.
+		 * @return The mutated copy of the chromosome, or the chromosome itself if nothing changed.
+		 */
+		RealChromosome mutate(RealChromosome chromosome, RandomGenerator ran, double mutationProbability);
+	}
+
+	/**
+	 * The crossover which crossOver applies when the parents are selected for crossover.
+	 */
+	@FunctionalInterface
+	public interface CrossOver {
+		/**
+		 * @param first The first parent.
+		 * @param second The second parent.
+		 * @param ran The random number generator.
+		 * @return A list of the two childs.
+		 */
+		List<IIndividual> crossOver(RealChromosome first, RealChromosome second, RandomGenerator ran);
+	}
+
+	private static final Mutation GAUSSIAN = gaussian(SIGMA);
+	private static final CrossOver SIMULATED_BINARY = simulatedBinary(DISTRIBUTION_INDEX);
+
+	private double[] genes, lower, upper;
+	private ToDoubleFunction<RealChromosome> objective;
+	private double fitness;
+	private boolean dirty;
+	private Mutation mutation = GAUSSIAN;
+	private CrossOver crossOver = SIMULATED_BINARY;
+
+	/**
+	 * @param genes The genes. The array is not copied.
+	 * @param lower The lowest value of each gene.
+	 * @param upper The highest value of each gene.
+	 * @param objective The function which gives the fitness of a chromosome, the higher the better.
+	 */
+	public RealChromosome(double[] genes, double[] lower, double[] upper, ToDoubleFunction<RealChromosome> objective) {
+		if(genes.length != lower.length || genes.length != upper.length)
+			throw new IllegalArgumentException("The genes and their bounds must have the same length!");
+		this.genes = genes;
+		this.lower = lower;
+		this.upper = upper;
+		this.objective = objective;
+		this.dirty = true;
+	}
+
+	/**
+	 * @param sigma The standard deviation of the steps, as a fraction of the width of the bounds.
+	 * @return A mutation which, with the mutation probability, applies gaussianMutation to each gene with probability 1/n.
+	 */
+	public static Mutation gaussian(double sigma) {
+		return (c, ran, p) -> ran.nextDouble() < p ? c.gaussianMutation(ran, 1.0 / c.genes.length, sigma) : c;
+	}
+
+	/**
+	 * @param eta The distribution index.
+	 * @return A mutation which, with the mutation probability, applies polynomialMutation to each gene with probability 1/n.
+	 */
+	public static Mutation polynomial(double eta) {
+		return (c, ran, p) -> ran.nextDouble() < p ? c.polynomialMutation(ran, 1.0 / c.genes.length, eta) : c;
+	}
+
+	/**
+	 * @return A mutation which applies swapMutation.
+	 */
+	public static Mutation swap() {
+		return (c, ran, p) -> c.swapMutation(ran, p);
+	}
+
+	/**
+	 * @param eta The distribution index.
+	 * @return A crossover which applies simulatedBinaryCrossOver.
+	 */
+	public static CrossOver simulatedBinary(double eta) {
+		return (first, second, ran) -> first.simulatedBinaryCrossOver(ran, eta, second);
+	}
+
+	/**
+	 * @param alpha The extension of the interval.
+	 * @return A crossover which applies blendCrossOver.
+	 */
+	public static CrossOver blend(double alpha) {
+		return (first, second, ran) -> first.blendCrossOver(ran, alpha, second);
+	}
+
+	/**
+	 * Change the operators applied by twoBitSwapMutation and crossOver, which are passed on to every chromosome created from this one.
+	 * @param mutation The mutation to be set.
+	 * @param crossOver The crossover to be set.
+	 */
+	public void setOperators(Mutation mutation, CrossOver crossOver) {
+		this.mutation = mutation;
+		this.crossOver = crossOver;
+	}
+
+	/**
+	 * @return The number of genes.
+	 */
+	public int getLength() {
+		return genes.length;
+	}
+
+	/**
+	 * @param i The position of a gene.
+	 * @return The value of the gene.
+	 */
+	public double get(int i) {
+		return genes[i];
+	}
+
+	/**
+	 * Sets the value of a gene, clamped to its bounds.
+	 * @param i The position of the gene.
+	 * @param value The value to be set.
+	 */
+	public void set(int i, double value) {
+		genes[i] = clamp(i, value);
+		dirty = true;
+	}
+
+	/**
+	 * @return A copy of the genes.
+	 */
+	public double[] toArray() {
+		return genes.clone();
+	}
+
+	/**
+	 * @return The value clamped to the bounds of a gene.
+	 */
+	private double clamp(int i, double value) {
+		return Math.min(Math.max(value, lower[i]), upper[i]);
+	}
+
+	/**
+	 * Calculates the fitness value with the objective function and sets it.
+	 */
+	@Override
+	public void calculateFitness() {
+		fitness = objective.applyAsDouble(this);
+		dirty = false;
+	}
+
+	/**
+	 * @return The fitness value of the chromosome, which is calculated first if the genes changed.
+	 */
+	@Override
+	public double getFitness() {
+		if(dirty) calculateFitness();
+		return fitness;
+	}
+
+	/**
+	 * @return True If the fitness value is up to date, else False.
+	 */
+	@Override
+	public boolean isEvaluated() {
+		return !dirty;
+	}
+
+	/**
+	 * @return A hash of the bits of the genes.
+	 */
+	@Override
+	public long getSignature() {
+		long h = genes.length;
+		for(double g : genes) {
+			h = RandomStreams.mix(h ^ Double.doubleToLongBits(g));
+		}
+		return h;
+	}
+
+	/**
+	 * @return A new instance of the type RealChromosome with a copy of the genes and the same fitness value.
+	 */
+	@Override
+	public Object clone() {
+		RealChromosome copy = copy(genes.clone());
+		copy.fitness = fitness;
+		copy.dirty = dirty;
+		return copy;
+	}
+
+	/**
+	 * @return A new chromosome whose genes are drawn uniformly within their bounds.
+	 */
+	@Override
+	public RealChromosome permutation(RandomGenerator generator) {
+		double[] random = new double[genes.length];
+		for(int i = 0; i < random.length; i++) {
+			random[i] = lower[i] + generator.nextDouble() * (upper[i] - lower[i]);
+		}
+		return copy(random);
+	}
+
+	/**
+	 * Applies the mutation of the chromosome, Gaussian mutation unless setOperators changed it.
+	 * @return A mutated copy of the chromosome, according to a given probability, or this chromosome if nothing changed.
+	 */
+	@Override
+	public RealChromosome twoBitSwapMutation(RandomGenerator ran, double mutationProbability) {
+		return mutation.mutate(this, ran, mutationProbability);
+	}
+
+	/**
+	 * @param ran The random number generator.
+	 * @param mutationProbability The probability of swapping two genes.
+	 * @return A copy of the chromosome where two random genes may have been swapped, according to a given probability,
+	 * or this chromosome if nothing changed. The swapped values are clamped to the bounds of their new positions.
+	 */
+	public RealChromosome swapMutation(RandomGenerator ran, double mutationProbability) {
+		if(ran.nextDouble() < mutationProbability) {
+			int i = ran.nextInt(genes.length), j = ran.nextInt(genes.length);
+			if(i != j) {
+				double[] mutated = genes.clone();
+				mutated[i] = clamp(i, genes[j]);
+				mutated[j] = clamp(j, genes[i]);
+				return copy(mutated);
+			}
+		}
+		return this;
+	}
+
+	/**
+	 * @return A copy of the chromosome where each two consecutive genes may have been swapped, according to a given probability,
+	 * or this chromosome if nothing changed.
+	 */
+	@Override
+	public RealChromosome twoBitSwapMutationFull(RandomGenerator ran, double mutationProbability) {
+		double[] mutated = null;
+		for(int i = 0; i < genes.length - 1; i++) {
+			if(ran.nextDouble() < mutationProbability) {
+				if(mutated == null) mutated = genes.clone();
+				double temp = mutated[i];
+				mutated[i] = clamp(i, mutated[i + 1]);
+				mutated[i + 1] = clamp(i + 1, temp);
+			}
+		}
+		return mutated == null ? this : copy(mutated);
+	}
+
+	/**
+	 * Adds to each gene, with a given probability, a normally distributed step proportional to the width of its bounds.
+	 * @param ran The random number generator.
+	 * @param mutationProbability The probability of mutating each gene.
+	 * @param sigma The standard deviation of the step, as a fraction of the width of the bounds.
+	 * @return A copy of the chromosome with the mutated genes, or this chromosome if none was mutated.
+	 */
+	public RealChromosome gaussianMutation(RandomGenerator ran, double mutationProbability, double sigma) {
+		double[] mutated = null;
+		for(int i = 0; i < genes.length; i++) {
+			if(ran.nextDouble() < mutationProbability) {
+				if(mutated == null) mutated = genes.clone();
+				mutated[i] = clamp(i, genes[i] + ran.nextGaussian() * sigma * (upper[i] - lower[i]));
+			}
+		}
+		return mutated == null ? this : copy(mutated);
+	}
+
+	/**
+	 * Polynomial mutation: each gene is moved, with a given probability, by a step drawn from a polynomial distribution
+	 * which keeps it within its bounds. The larger the distribution index, the smaller the steps.
+	 * @param ran The random number generator.
+	 * @param mutationProbability The probability of mutating each gene.
+	 * @param eta The distribution index.
+	 * @return A copy of the chromosome with the mutated genes, or this chromosome if none was mutated.
+	 */
+	public RealChromosome polynomialMutation(RandomGenerator ran, double mutationProbability, double eta) {
+		double[] mutated = null;
+		for(int i = 0; i < genes.length; i++) {
+			double width = upper[i] - lower[i];
+			if(ran.nextDouble() >= mutationProbability || width <= 0) continue;
+			if(mutated == null) mutated = genes.clone();
+			double x = genes[i], d1 = (x - lower[i]) / width, d2 = (upper[i] - x) / width;
+			double u = ran.nextDouble(), power = 1 / (eta + 1), step;
+			if(u < 0.5) {
+				double v = 2 * u + (1 - 2 * u) * Math.pow(1 - d1, eta + 1);
+				step = Math.pow(v, power) - 1;
+			}
+			else {
+				double v = 2 * (1 - u) + 2 * (u - 0.5) * Math.pow(1 - d2, eta + 1);
+				step = 1 - Math.pow(v, power);
+			}
+			mutated[i] = clamp(i, x + step * width);
+		}
+		return mutated == null ? this : copy(mutated);
+	}
+
+	/**
+	 * Applies the crossover of the chromosome, simulated binary crossover with the default distribution index unless
+	 * setOperators changed it, if it occurs according to a given probability. Otherwise the childs are clones of the parents,
+	 * which keep their fitness values.
+	 * @return A list of the two childs.
+	 */
+	@Override
+	public List<IIndividual> crossOver(RandomGenerator ran, double crossOverProbability, IIndividual father2) {
+		RealChromosome other = (RealChromosome) father2;
+		if(ran.nextDouble() < crossOverProbability) {
+			return crossOver.crossOver(this, other, ran);
+		}
+		List<IIndividual> childs = new ArrayList<IIndividual>();
+		childs.add((RealChromosome) clone());
+		childs.add((RealChromosome) other.clone());
+		return childs;
+	}
+
+	/**
+	 * Simulated binary crossover: each pair of genes is spread around its mean by a factor drawn so that the childs
+	 * mimic the spread of a one point crossover of binary strings. The larger the distribution index, the closer
+	 * the childs are to their parents.
+	 * @param ran The random number generator.
+	 * @param eta The distribution index.
+	 * @param father2 The second parent.
+	 * @return A list of the two childs.
+	 */
+	public List<IIndividual> simulatedBinaryCrossOver(RandomGenerator ran, double eta, RealChromosome father2) {
+		double[] first = new double[genes.length], second = new double[genes.length];
+		for(int i = 0; i < genes.length; i++) {
+			double u = ran.nextDouble();
+			double beta = u <= 0.5 ? Math.pow(2 * u, 1 / (eta + 1)) : Math.pow(1 / (2 * (1 - u)), 1 / (eta + 1));
+			double mean = (genes[i] + father2.genes[i]) / 2, half = (father2.genes[i] - genes[i]) / 2;
+			first[i] = clamp(i, mean - beta * half);
+			second[i] = clamp(i, mean + beta * half);
+		}
+		List<IIndividual> childs = new ArrayList<IIndividual>();
+		childs.add(copy(first));
+		childs.add(copy(second));
+		return childs;
+	}
+
+	/**
+	 * Blend crossover: each gene of a child is drawn uniformly from the interval spanned by the genes of the parents,
+	 * extended on both sides by alpha times its width.
+	 * @param ran The random number generator.
+	 * @param alpha The extension of the interval.
+	 * @param father2 The second parent.
+	 * @return A list of the two childs.
+	 */
+	public List<IIndividual> blendCrossOver(RandomGenerator ran, double alpha, RealChromosome father2) {
+		double[] first = new double[genes.length], second = new double[genes.length];
+		for(int i = 0; i < genes.length; i++) {
+			double low = Math.min(genes[i], father2.genes[i]), high = Math.max(genes[i], father2.genes[i]);
+			double extension = alpha * (high - low);
+			first[i] = clamp(i, low - extension + ran.nextDouble() * (high - low + 2 * extension));
+			second[i] = clamp(i, low - extension + ran.nextDouble() * (high - low + 2 * extension));
+		}
+		List<IIndividual> childs = new ArrayList<IIndividual>();
+		childs.add(copy(first));
+		childs.add(copy(second));
+		return childs;
+	}
+
+	/**
+	 * @return A chromosome of the same problem with the given genes and the same operators, which must be evaluated again.
+	 */
+	private RealChromosome copy(double[] values) {
+		RealChromosome copy = new RealChromosome(values, lower, upper, objective);
+		copy.mutation = mutation;
+		copy.crossOver = crossOver;
+		return copy;
+	}
+
+	/**
+	 * @return An integer which defines the comparison between chromosomes, the fitter first.
+	 */
+	@Override
+	public int compareTo(IIndividual o) {
+		return (int) Math.signum(o.getFitness() - getFitness());
+	}
+
+	/**
+	 * @return True If the two chromosomes have the same genes, else False.
+	 */
+	@Override
+	public boolean equals(Object o) {
+		if(o == null) return false;
+		if(o == this) return true;
+		if(getClass() != o.getClass()) return false;
+		return Arrays.equals(genes, ((RealChromosome) o).genes);
+	}
+
+	/**
+	 * @return The hash code of the genes.
+	 */
+	@Override
+	public int hashCode() {
+		return Arrays.hashCode(genes);
+	}
+
+	/**
+	 * @return A string representation of the genes.
+	 */
+	@Override
+	public String toString() {
+		return Arrays.toString(genes);
+	}
+}
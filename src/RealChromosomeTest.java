@@ -0,0 +1,82 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * This class tests the crossovers and mutations of RealChromosome, and its evolution by a GeneticAlgorithm.
+ */
+class RealChromosomeTest {
+
+	private static double sphere(RealChromosome c) {
+		double sum = 0;
+		for(int i=0;i<c.getLength();i++) {
+			sum += c.get(i) * c.get(i);
+		}
+		return 1 / (1 + sum);
+	}
+
+	@Test
+	void testOperatorsKeepBounds() {
+		double[] lower = {-1,-1,-1,-1}, upper = {1,1,1,1};
+		RealChromosome first = new RealChromosome(new double[] {-1,0.5,0,1},lower,upper,RealChromosomeTest::sphere);
+		RealChromosome second = new RealChromosome(new double[] {1,0.5,0.2,-1},lower,upper,RealChromosomeTest::sphere);
+		Random random = new Random(0);
+		for(int k=0;k<200;k++) {
+			List<IIndividual> childs = first.simulatedBinaryCrossOver(random,2,second);
+			childs.addAll(first.blendCrossOver(random,0.5,second));
+			childs.add(first.gaussianMutation(random,1,0.5));
+			childs.add(first.polynomialMutation(random,1,20));
+			for(IIndividual e : childs) {
+				RealChromosome c = (RealChromosome) e;
+				for(int i=0;i<4;i++) {
+					assertTrue(c.get(i) >= -1 && c.get(i) <= 1);
+				}
+			}
+			RealChromosome sbx = (RealChromosome) first.simulatedBinaryCrossOver(random,2,second).get(0);
+			assertEquals(0.5,sbx.get(1));
+		}
+		assertSame(first,first.gaussianMutation(random,0,0.5));
+		assertEquals(first,first.clone());
+		first.getFitness();
+		second.getFitness();
+		for(IIndividual e : first.crossOver(random,0,second)) {
+			assertTrue(e.isEvaluated());
+		}
+	}
+
+	@Test
+	void testGeneticAlgorithm() {
+		double[] lower = new double[5], upper = new double[5];
+		Arrays.fill(lower,-5);
+		Arrays.fill(upper,5);
+		RealChromosome member = new RealChromosome(new double[] {5,5,5,5,5},lower,upper,RealChromosomeTest::sphere);
+		GeneticAlgorithm test = new GeneticAlgorithm(member,new Random(0),30,0.1,0.9,0.5,150,2);
+		assertTrue(test.solveWithTournament().getFitness() > 0.5);
+	}
+
+	@Test
+	void testGeneticAlgorithmWithMutation() {
+		double[] lower = new double[5], upper = new double[5];
+		Arrays.fill(lower,-5);
+		Arrays.fill(upper,5);
+		RealChromosome member = new RealChromosome(new double[] {5,5,5,5,5},lower,upper,RealChromosomeTest::sphere);
+		assertNotSame(member,member.twoBitSwapMutation(new Random(0),1).twoBitSwapMutation(new Random(1),1));
+		GeneticAlgorithm test = new GeneticAlgorithm(member,new Random(0),40,0.5,0.9,0.5,300,2);
+		assertTrue(test.solveWithTournament().getFitness() > 0.9995);
+		member.setOperators(RealChromosome.polynomial(20),RealChromosome.blend(0.5));
+		test = new GeneticAlgorithm(member,new Random(0),40,0.5,0.9,0.5,300,2);
+		assertTrue(test.solveWithTournament().getFitness() > 0.9995);
+		RealChromosome swapped = new RealChromosome(new double[] {1,2,3,4,5},lower,upper,RealChromosomeTest::sphere);
+		swapped.setOperators(RealChromosome.swap(),RealChromosome.simulatedBinary(15));
+		double[] sorted = ((RealChromosome) swapped.permutation(new Random(0))).toArray();
+		RealChromosome mutated = swapped.twoBitSwapMutation(new Random(0),1);
+		double[] genes = mutated.toArray();
+		Arrays.sort(genes);
+		assertArrayEquals(new double[] {1,2,3,4,5},genes);
+		assertEquals(5,sorted.length);
+	}
+}
@@ -0,0 +1,119 @@
+/**
+ * This class represents a multiset of 64-bit signatures, which counts how many individuals of a population have each signature.
+ * The counts are kept in a primitive open addressing hash table, like the one of EdgeFrequencyTable, so adding, removing
+ * and looking up a signature neither boxes it nor allocates. A signature whose count drops to zero keeps its slot until
+ * the table grows, which drops it. The signature 0, which marks the empty slots, is counted apart.
+ */
+public class SignatureTable {
+	private static final long EMPTY = 0;
+
+	private long[] keys;
+	private int[] counts;
+	private int used, distinct, zeros;
+
+	/**
+	 * Initializes an empty table.
+	 */
+	public SignatureTable() {
+		keys = new long[64];
+		counts = new int[64];
+	}
+
+	/**
+	 * Counts a signature once more.
+	 * @param signature The signature to be added.
+	 */
+	public void add(long signature) {
+		if(signature == EMPTY) {
+			if(zeros++ == 0) distinct++;
+			return;
+		}
+		int slot = slot(signature);
+		if(counts[slot]++ == 0) distinct++;
+	}
+
+	/**
+	 * Counts a signature once less. A signature which is not in the table is ignored.
+	 * @param signature The signature to be removed.
+	 */
+	public void remove(long signature) {
+		if(signature == EMPTY) {
+			if(zeros > 0 && --zeros == 0) distinct--;
+			return;
+		}
+		int slot = find(signature);
+		if(slot >= 0 && counts[slot] > 0 && --counts[slot] == 0) distinct--;
+	}
+
+	/**
+	 * @param signature A signature.
+	 * @return True If the signature is counted at least once, else False.
+	 */
+	public boolean contains(long signature) {
+		if(signature == EMPTY) return zeros > 0;
+		int slot = find(signature);
+		return slot >= 0 && counts[slot] > 0;
+	}
+
+	/**
+	 * @return The number of different signatures in the table.
+	 */
+	public int getDistinct() {
+		return distinct;
+	}
+
+	/**
+	 * @return The slot of the key, or -1 if it is not in the table.
+	 */
+	private int find(long key) {
+		int mask = keys.length - 1;
+		int i = (int) RandomStreams.mix(key) & mask;
+		while(keys[i] != EMPTY) {
+			if(keys[i] == key) return i;
+			i = (i + 1) & mask;
+		}
+		return -1;
+	}
+
+	/**
+	 * @return The slot of the key, inserting it with a zero count if it is not in the table.
+	 */
+	private int slot(long key) {
+		int mask = keys.length - 1;
+		int i = (int) RandomStreams.mix(key) & mask;
+		while(keys[i] != EMPTY) {
+			if(keys[i] == key) return i;
+			i = (i + 1) & mask;
+		}
+		if(2 * (used + 1) > keys.length) {
+			grow();
+			return slot(key);
+		}
+		keys[i] = key;
+		used++;
+		return i;
+	}
+
+	/**
+	 * Rehashes the table into a larger one, dropping the signatures whose count reached zero.
+	 */
+	private void grow() {
+		long[] oldKeys = keys;
+		int[] oldCounts = counts;
+		int capacity = keys.length;
+		while(capacity < 4 * (distinct + 1)) capacity *= 2;
+		keys = new long[capacity];
+		counts = new int[capacity];
+		used = 0;
+		int mask = capacity - 1;
+		for(int j = 0; j < oldKeys.length; j++) {
+			if(oldKeys[j] != EMPTY && oldCounts[j] > 0) {
+				int i = (int) RandomStreams.mix(oldKeys[j]) & mask;
+				while(keys[i] != EMPTY) i = (i + 1) & mask;
+				keys[i] = oldKeys[j];
+				counts[i] = oldCounts[j];
+				used++;
+			}
+		}
+	}
+}
@@ -0,0 +1,56 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * This class tests the counts of a SignatureTable against a map.
+ */
+class SignatureTableTest {
+
+	@Test
+	void testAddRemove() {
+		SignatureTable test = new SignatureTable();
+		test.add(0);
+		test.add(-1);
+		test.add(-1);
+		assertTrue(test.contains(0));
+		assertTrue(test.contains(-1));
+		assertFalse(test.contains(1));
+		assertEquals(2,test.getDistinct());
+		test.remove(-1);
+		assertTrue(test.contains(-1));
+		test.remove(-1);
+		test.remove(0);
+		test.remove(42);
+		assertFalse(test.contains(-1));
+		assertFalse(test.contains(0));
+		assertEquals(0,test.getDistinct());
+	}
+
+	@Test
+	void testMatchesMap() {
+		Random random = new Random(0);
+		SignatureTable test = new SignatureTable();
+		Map<Long,Integer> expected = new HashMap<Long,Integer>();
+		for(int k=0;k<20000;k++) {
+			long signature = random.nextInt(500) * 0x9E3779B97F4A7C15L;
+			if(random.nextBoolean()) {
+				test.add(signature);
+				expected.merge(signature,1,Integer::sum);
+			}
+			else {
+				test.remove(signature);
+				expected.computeIfPresent(signature,(s,c) -> c == 1 ? null : c - 1);
+			}
+		}
+		for(int i=0;i<500;i++) {
+			long signature = i * 0x9E3779B97F4A7C15L;
+			assertEquals(expected.containsKey(signature),test.contains(signature));
+		}
+		assertEquals(expected.size(),test.getDistinct());
+	}
+}
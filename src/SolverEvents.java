@@ -0,0 +1,158 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+/**
+ * This class holds the Java Flight Recorder events emitted by the genetic algorithm, so its generations and phases
+ * can be lined up with garbage collections and thread activity in JDK Mission Control.
+ * Every event is disabled by default, and while disabled an event costs little more than its begin and end calls,
+ * since its fields are only filled when it will be committed. They are enabled by name, ga.Generation, ga.Phase,
+ * ga.Evaluation and ga.Migration, in a .jfc settings file or with Recording.enable.
+ * Generations and migrations are recorded whatever their duration, while phases and evaluations shorter than 1 ms are
+ * dropped by default, since on small instances there are several of them per millisecond.
+ */
+public final class SolverEvents {
+
+	private SolverEvents() {}
+
+	/**
+	 * This class represents the event of a whole generation, from selection to replacement.
+	 */
+	@Name("ga.Generation")
+	@Label("Generation")
+	@Category({"Genetic Algorithm"})
+	@Description("A generation of the genetic algorithm")
+	@Enabled(false)
+	@Threshold("0 ms")
+	public static final class Generation extends Event {
+		@Label("Generation")
+		int generation;
+
+		@Label("Best Fitness")
+		double bestFitness;
+
+		@Label("Population Size")
+		int populationSize;
+
+		/**
+		 * Ends the event and commits it with the state of the algorithm after the generation, numbered from 0.
+		 * @param algorithm The genetic algorithm which ran the generation.
+		 */
+		public void finish(GeneticAlgorithm algorithm) {
+			end();
+			if(shouldCommit()) {
+				generation = algorithm.getGeneration() - 1;
+				bestFitness = algorithm.getBestFitness();
+				populationSize = algorithm.getPopulation().getSize();
+				commit();
+			}
+		}
+	}
+
+	/**
+	 * This class represents the event of one phase of a generation: selection, crossover, mutation, breeding or replacement.
+	 */
+	@Name("ga.Phase")
+	@Label("Phase")
+	@Category({"Genetic Algorithm"})
+	@Description("A phase of a generation of the genetic algorithm")
+	@Enabled(false)
+	@Threshold("1 ms")
+	public static final class Phase extends Event {
+		@Label("Phase")
+		String phase;
+
+		@Label("Generation")
+		int generation;
+
+		/**
+		 * Ends the event and commits it.
+		 * @param phase The name of the phase.
+		 * @param generation The number of the generation, counted from 0.
+		 */
+		public void finish(String phase, int generation) {
+			end();
+			if(shouldCommit()) {
+				this.phase = phase;
+				this.generation = generation;
+				commit();
+			}
+		}
+	}
+
+	/**
+	 * This class represents the event of the evaluation of a batch of individuals.
+	 */
+	@Name("ga.Evaluation")
+	@Label("Evaluation")
+	@Category({"Genetic Algorithm"})
+	@Description("The evaluation of the fitness of a batch of individuals")
+	@Enabled(false)
+	@Threshold("1 ms")
+	public static final class Evaluation extends Event {
+		@Label("Individuals")
+		int individuals;
+
+		@Label("Generation")
+		int generation;
+
+		/**
+		 * Ends the event and commits it.
+		 * @param individuals The number of individuals evaluated.
+		 * @param generation The number of the generation, counted from 0.
+		 */
+		public void finish(int individuals, int generation) {
+			end();
+			if(shouldCommit()) {
+				this.individuals = individuals;
+				this.generation = generation;
+				commit();
+			}
+		}
+	}
+
+	/**
+	 * This class represents the event of individuals migrating into the population, such as the elites re-injected on a restart.
+	 */
+	@Name("ga.Migration")
+	@Label("Migration")
+	@Category({"Genetic Algorithm"})
+	@Description("Individuals injected into the population")
+	@Enabled(false)
+	@Threshold("0 ms")
+	public static final class Migration extends Event {
+		@Label("Source")
+		String source;
+
+		@Label("Individuals")
+		int individuals;
+
+		@Label("Best Fitness")
+		double bestFitness;
+
+		@Label("Generation")
+		int generation;
+
+		/**
+		 * Ends the event and commits it.
+		 * @param source Where the individuals came from.
+		 * @param individuals The number of individuals injected.
+		 * @param bestFitness The best fitness among them.
+		 * @param generation The number of the generation, counted from 0.
+		 */
+		public void finish(String source, int individuals, double bestFitness, int generation) {
+			end();
+			if(shouldCommit()) {
+				this.source = source;
+				this.individuals = individuals;
+				this.bestFitness = bestFitness;
+				this.generation = generation;
+				commit();
+			}
+		}
+	}
+}
@@ -0,0 +1,81 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Recording;
+import jdk.jfr.SettingDescriptor;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * This class tests the flight recorder events emitted by GeneticAlgorithm and their default thresholds.
+ */
+class SolverEventsTest {
+
+	@Test
+	void testEvents() throws Exception {
+		List<City> cities = new ArrayList<City>();
+		for(int i=0;i<12;i++) {
+			cities.add(new City("Andre" + i,new PointTwoDimensions(Math.cos(i),Math.sin(i*0.5))));
+		}
+		GeneticAlgorithm test = new GeneticAlgorithm(new TSP(cities),new Random(0),10,0.1,0.8,0.5,5,2);
+		test.setEliteArchive(new EliteArchive(3));
+		test.setRestartAfter(1);
+		Path file = Files.createTempFile("events", ".jfr");
+		try(Recording recording = new Recording()) {
+			recording.enable("ga.Generation");
+			recording.enable("ga.Phase").withThreshold(Duration.ZERO);
+			recording.enable("ga.Evaluation").withThreshold(Duration.ZERO);
+			recording.enable("ga.Migration");
+			recording.start();
+			test.solveWithTournament();
+			recording.stop();
+			recording.dump(file);
+		}
+		Map<String,Integer> counts = new HashMap<String,Integer>();
+		double lastBest = 0;
+		for(RecordedEvent e : RecordingFile.readAllEvents(file)) {
+			String name = e.getEventType().getName();
+			counts.merge(name.equals("ga.Phase") ? e.getString("phase") : name, 1, Integer::sum);
+			if(name.equals("ga.Generation")) {
+				lastBest = Math.max(lastBest, e.getDouble("bestFitness"));
+				assertEquals(10,e.getInt("populationSize"));
+			}
+		}
+		Files.delete(file);
+		assertEquals(5,counts.get("ga.Generation").intValue());
+		assertEquals(5,counts.get("ga.Evaluation").intValue());
+		assertEquals(5,counts.get("selection").intValue());
+		assertEquals(5,counts.get("crossover").intValue());
+		assertEquals(5,counts.get("mutation").intValue());
+		assertEquals(5,counts.get("replacement").intValue());
+		assertTrue(counts.getOrDefault("ga.Migration",0) >= 1);
+		assertEquals(test.getBest().getFitness(),lastBest);
+	}
+
+	private String threshold(Class<? extends Event> event) {
+		for(SettingDescriptor s : EventType.getEventType(event).getSettingDescriptors()) {
+			if(s.getName().equals("threshold")) return s.getDefaultValue();
+		}
+		return null;
+	}
+
+	@Test
+	void testThresholds() {
+		assertEquals("0 ms",threshold(SolverEvents.Generation.class));
+		assertEquals("0 ms",threshold(SolverEvents.Migration.class));
+		assertEquals("1 ms",threshold(SolverEvents.Phase.class));
+		assertEquals("1 ms",threshold(SolverEvents.Evaluation.class));
+	}
+}
@@ -0,0 +1,360 @@
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Scanner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.random.RandomGenerator;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * This class represents a long lived solver service, so that problems are solved by a warm JVM instead of
+ * starting Main for each of them.
+ * A job is submitted with POST /jobs?client=name, whose body has the same format as the input of Main:
+ * the number of cities, one line "name x y" per city, and then the population size, number of generations,
+ * mutation probability, crossover probability, replacement fraction and tournament size, optionally followed
+ * by a time budget in milliseconds. The answer is the id of the job, or its result when wait=true is given.
+ * GET /jobs/id returns the state of the job and its best tour so far, and DELETE /jobs/id cancels it.
+ * Jobs wait in one queue per client and the workers take them from the clients in turn, so a client with
+ * many jobs does not delay the others. Parsed city lists are cached, so repeated instances share their cities.
+ * Finished jobs are forgotten once more than RETAINED_JOBS newer jobs were submitted.
+ */
+public class SolverService {
+	private static final int RETAINED_JOBS = 1024;
+
+	private HttpServer server;
+	private ExecutorService workers;
+	private FairQueue queue;
+	private Map<Long,Job> jobs;
+	private Map<String,List<City>> instances;
+	private AtomicLong nextId;
+	private int concurrency;
+
+	/**
+	 * The states of a job.
+	 */
+	public enum State { QUEUED, RUNNING, DONE, CANCELLED, FAILED }
+
+	/**
+	 * This class represents a job submitted to the service.
+	 */
+	private static class Job {
+		private long id;
+		private String client;
+		private GeneticAlgorithm algorithm;
+		private Duration budget;
+		private volatile State state = State.QUEUED;
+		private volatile String result;
+		private CountDownLatch finished = new CountDownLatch(1);
+
+		private Job(long id, String client, GeneticAlgorithm algorithm, Duration budget) {
+			this.id = id;
+			this.client = client;
+			this.algorithm = algorithm;
+			this.budget = budget;
+		}
+
+		/**
+		 * @return A string representation of the state of the job and of its best tour so far.
+		 */
+		private String describe() {
+			if(result != null) return state + "\n" + result;
+			SolverSnapshot snapshot = algorithm.getBestSoFar();
+			return snapshot == null ? state.toString() : state + "\n" + snapshot;
+		}
+	}
+
+	/**
+	 * This class represents a queue of jobs with one first in first out queue per client,
+	 * from which the clients are served in turn.
+	 */
+	private static class FairQueue {
+		private LinkedHashMap<String,ArrayDeque<Job>> clients = new LinkedHashMap<String,ArrayDeque<Job>>();
+
+		/**
+		 * @param job The job to be added at the end of the queue of its client.
+		 */
+		private synchronized void put(Job job) {
+			clients.computeIfAbsent(job.client, c -> new ArrayDeque<Job>()).add(job);
+			notifyAll();
+		}
+
+		/**
+		 * Takes the first job of the next client in turn, waiting until there is one.
+		 * The client is then moved to the end of the turn.
+		 * @return The job.
+		 */
+		private synchronized Job take() throws InterruptedException {
+			while(clients.isEmpty()) wait();
+			Iterator<Map.Entry<String,ArrayDeque<Job>>> first = clients.entrySet().iterator();
+			Map.Entry<String,ArrayDeque<Job>> entry = first.next();
+			first.remove();
+			Job job = entry.getValue().poll();
+			if(!entry.getValue().isEmpty()) clients.put(entry.getKey(), entry.getValue());
+			return job;
+		}
+
+		/**
+		 * @param job The job to be removed, if it is still queued.
+		 * @return True If the job was removed, else False.
+		 */
+		private synchronized boolean remove(Job job) {
+			ArrayDeque<Job> queued = clients.get(job.client);
+			if(queued == null || !queued.remove(job)) return false;
+			if(queued.isEmpty()) clients.remove(job.client);
+			return true;
+		}
+	}
+
+	/**
+	 * @param port The port on which the service listens.
+	 * @param concurrency The maximum number of jobs solved at the same time.
+	 */
+	public SolverService(int port, int concurrency) throws IOException {
+		this.concurrency = concurrency;
+		queue = new FairQueue();
+		jobs = new ConcurrentHashMap<Long,Job>();
+		instances = new LinkedHashMap<String,List<City>>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String,List<City>> eldest) {
+				return size() > 32;
+			}
+		};
+		nextId = new AtomicLong();
+		server = HttpServer.create(new InetSocketAddress(port), 0);
+		server.createContext("/jobs", this::handle);
+		server.setExecutor(Executors.newCachedThreadPool());
+	}
+
+	/**
+	 * Warms up the solver with a small instance and starts the workers and the server.
+	 */
+	public void start() {
+		warmUp();
+		workers = Executors.newFixedThreadPool(concurrency);
+		for(int i = 0; i < concurrency; i++) {
+			workers.execute(this::work);
+		}
+		server.start();
+	}
+
+	/**
+	 * Stops the server and the workers, cancelling the running jobs. It may be called before start.
+	 */
+	public void stop() {
+		server.stop(0);
+		for(Job job : jobs.values()) {
+			job.algorithm.cancel();
+		}
+		if(workers != null) workers.shutdownNow();
+		((ExecutorService) server.getExecutor()).shutdownNow();
+	}
+
+	/**
+	 * @return The port on which the service listens.
+	 */
+	public int getPort() {
+		return server.getAddress().getPort();
+	}
+
+	/**
+	 * Solves a small random instance, so that the code of the solver is compiled before the first job arrives.
+	 */
+	private void warmUp() {
+		RandomGenerator generator = new RandomStreams(0).master();
+		List<City> cities = new ArrayList<City>();
+		for(int i = 0; i < 30; i++) {
+			cities.add(new City("w" + i, new PointTwoDimensions(generator.nextDouble(), generator.nextDouble())));
+		}
+		new GeneticAlgorithm(new TSP(cities), generator, 64, 0.05, 0.7, 0.5, 200, 2).solveWithTournament();
+	}
+
+	/**
+	 * The loop of a worker, which solves the jobs it takes from the queue. A job which throws anything, errors included,
+	 * fails, so it never stays RUNNING and its waiting client is always released.
+	 */
+	private void work() {
+		while(!Thread.currentThread().isInterrupted()) {
+			Job job;
+			try {
+				job = queue.take();
+			}
+			catch(InterruptedException e) {
+				return;
+			}
+			if(job.state != State.QUEUED) continue;
+			job.state = State.RUNNING;
+			try {
+				IIndividual best = job.algorithm.solve(job.budget);
+				job.result = best.toString();
+				job.state = job.algorithm.isCancelled() ? State.CANCELLED : State.DONE;
+			}
+			catch(Throwable e) {
+				job.result = e.toString();
+				job.state = State.FAILED;
+			}
+			finally {
+				job.finished.countDown();
+			}
+		}
+	}
+
+	/**
+	 * Dispatches a request to the jobs resource.
+	 */
+	private void handle(HttpExchange exchange) throws IOException {
+		try {
+			String path = exchange.getRequestURI().getPath();
+			Map<String,String> query = query(exchange.getRequestURI().getRawQuery());
+			String method = exchange.getRequestMethod();
+			if(path.equals("/jobs") && method.equals("POST")) {
+				submit(exchange, query);
+			}
+			else if(path.startsWith("/jobs/")) {
+				Job job = jobs.get(Long.parseLong(path.substring("/jobs/".length())));
+				if(job == null) {
+					reply(exchange, 404, "No such job");
+				}
+				else if(method.equals("GET")) {
+					reply(exchange, 200, job.describe());
+				}
+				else if(method.equals("DELETE")) {
+					cancel(job);
+					reply(exchange, 200, job.describe());
+				}
+				else reply(exchange, 405, "Method not allowed");
+			}
+			else reply(exchange, 404, "Not found");
+		}
+		catch(RuntimeException e) {
+			reply(exchange, 400, e.toString());
+		}
+		catch(InterruptedException e) {
+			Thread.currentThread().interrupt();
+			reply(exchange, 503, "Interrupted");
+		}
+	}
+
+	/**
+	 * Parses a job, queues it and answers with its id, or with its result when the client waits for it.
+	 */
+	private void submit(HttpExchange exchange, Map<String,String> query) throws IOException, InterruptedException {
+		String body;
+		try(InputStream in = exchange.getRequestBody()) {
+			body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+		}
+		Scanner sc = new Scanner(body);
+		sc.useLocale(Locale.ENGLISH);
+		int numberOfCities = sc.nextInt();
+		StringBuilder instance = new StringBuilder();
+		List<String[]> lines = new ArrayList<String[]>();
+		for(int i = 0; i < numberOfCities; i++) {
+			String[] city = {sc.next(), sc.next(), sc.next()};
+			lines.add(city);
+			instance.append(city[0]).append(' ').append(city[1]).append(' ').append(city[2]).append('\n');
+		}
+		List<City> cities = cities(instance.toString(), lines);
+		int popuSize = sc.nextInt(), generations = sc.nextInt();
+		double mutationProbability = sc.nextDouble(), crossoverProbability = sc.nextDouble(), replacementFraction = sc.nextDouble();
+		int tournamentSize = sc.nextInt();
+		Duration budget = sc.hasNextLong() ? Duration.ofMillis(sc.nextLong()) : Duration.ofDays(1);
+		long seed = query.containsKey("seed") ? Long.parseLong(query.get("seed")) : System.nanoTime();
+
+		GeneticAlgorithm algorithm = new GeneticAlgorithm(new TSP(new ArrayList<City>(cities)), new RandomStreams(seed).master(),
+				popuSize, mutationProbability, crossoverProbability, replacementFraction, generations, tournamentSize);
+		Job job = new Job(nextId.incrementAndGet(), query.getOrDefault("client", "anonymous"), algorithm, budget);
+		jobs.put(job.id, job);
+		if(jobs.size() > RETAINED_JOBS) {
+			jobs.values().removeIf(j -> j.finished.getCount() == 0 && j.id <= job.id - RETAINED_JOBS);
+		}
+		queue.put(job);
+		if("true".equals(query.get("wait"))) {
+			job.finished.await();
+			reply(exchange, 200, job.describe());
+		}
+		else reply(exchange, 202, Long.toString(job.id));
+	}
+
+	/**
+	 * @return The cached cities of the instance, which are parsed and cached the first time the instance is seen.
+	 */
+	private List<City> cities(String instance, List<String[]> lines) {
+		synchronized(instances) {
+			List<City> cities = instances.get(instance);
+			if(cities == null) {
+				cities = new ArrayList<City>();
+				for(String[] line : lines) {
+					cities.add(new City(line[0], new PointTwoDimensions(Double.parseDouble(line[1]), Double.parseDouble(line[2]))));
+				}
+				instances.put(instance, cities);
+			}
+			return cities;
+		}
+	}
+
+	/**
+	 * Cancels a job, removing it from the queue if it has not started yet.
+	 */
+	private void cancel(Job job) {
+		job.algorithm.cancel();
+		if(queue.remove(job)) {
+			job.state = State.CANCELLED;
+			job.finished.countDown();
+		}
+	}
+
+	/**
+	 * @return The parameters of a query string.
+	 */
+	private static Map<String,String> query(String raw) {
+		Map<String,String> parameters = new HashMap<String,String>();
+		if(raw == null) return parameters;
+		for(String pair : raw.split("&")) {
+			int equals = pair.indexOf('=');
+			if(equals > 0) parameters.put(pair.substring(0, equals), pair.substring(equals + 1));
+			else parameters.put(pair, "");
+		}
+		return parameters;
+	}
+
+	/**
+	 * Sends a plain text answer.
+	 */
+	private static void reply(HttpExchange exchange, int status, String text) throws IOException {
+		byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+		exchange.sendResponseHeaders(status, bytes.length);
+		try(OutputStream out = exchange.getResponseBody()) {
+			out.write(bytes);
+		}
+	}
+
+	/**
+	 * Starts the service. The arguments are the port, which defaults to 8080, and the maximum number of jobs solved
+	 * at the same time, which defaults to the number of processors.
+	 */
+	public static void main(String[] args) throws IOException {
+		int port = args.length > 0 ? Integer.parseInt(args[0]) : 8080;
+		int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+		SolverService service = new SolverService(port, concurrency);
+		service.start();
+		System.out.println("Solver service listening on port " + service.getPort());
+	}
+}
@@ -0,0 +1,56 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * This class tests the jobs resource of a SolverService.
+ */
+class SolverServiceTest {
+
+	private static final String INSTANCE = "5\nAndre 1 2\nPaulo 1 4\nPires 1 6\nHenri 1 8\nAnPa 1 10\n";
+
+	private HttpResponse<String> send(HttpRequest request) throws Exception {
+		return HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofString());
+	}
+
+	@Test
+	void testSubmitAndWait() throws Exception {
+		SolverService service = new SolverService(0,2);
+		service.start();
+		try {
+			URI jobs = URI.create("http://localhost:" + service.getPort() + "/jobs");
+			HttpResponse<String> result = send(HttpRequest.newBuilder(URI.create(jobs + "?client=a&wait=true&seed=0"))
+					.POST(HttpRequest.BodyPublishers.ofString(INSTANCE + "16 20 0.01 0.7 0.5 2")).build());
+			assertEquals(200,result.statusCode());
+			assertTrue(result.body().startsWith("DONE"));
+			assertTrue(result.body().endsWith("Path length: 16.0"));
+
+			HttpResponse<String> id = send(HttpRequest.newBuilder(URI.create(jobs + "?client=b"))
+					.POST(HttpRequest.BodyPublishers.ofString(INSTANCE + "16 0 0.01 0.7 0.5 2 60000")).build());
+			assertEquals(202,id.statusCode());
+			URI job = URI.create(jobs + "/" + id.body());
+			HttpResponse<String> cancelled = send(HttpRequest.newBuilder(job).DELETE().build());
+			assertEquals(200,cancelled.statusCode());
+			String state;
+			do {
+				state = send(HttpRequest.newBuilder(job).GET().build()).body();
+			} while(state.startsWith("QUEUED") || state.startsWith("RUNNING"));
+			assertTrue(state.startsWith("CANCELLED"));
+			assertEquals(404,send(HttpRequest.newBuilder(URI.create(jobs + "/999")).GET().build()).statusCode());
+		}
+		finally {
+			service.stop();
+		}
+	}
+
+	@Test
+	void testStopBeforeStart() throws Exception {
+		SolverService service = new SolverService(0,1);
+		assertDoesNotThrow(service::stop);
+	}
+}
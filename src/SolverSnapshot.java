@@ -0,0 +1,70 @@
+/**
+ * This class represents an immutable snapshot of the best individual found by a running genetic algorithm.
+ * Snapshots are published after every generation and may be read from any thread. The fields are final, and the copy
+ * of the best individual is made, and for a TSP marked as shared, by the thread which publishes the snapshot, so the
+ * readers only read it: cloning an individual which is already shared does not write to it.
+ */
+public class SolverSnapshot {
+	private final IIndividual best;
+	private final double fitness;
+	private final int generation;
+	private final long elapsedNanos;
+
+	/**
+	 * @param best A copy of the best individual found, made by clone, which is not modified afterwards.
+	 * @param fitness The fitness of the best individual.
+	 * @param generation The number of generations run when the snapshot was taken.
+	 * @param elapsedNanos The time elapsed since the solve started, in nanoseconds.
+	 */
+	public SolverSnapshot(IIndividual best, double fitness, int generation, long elapsedNanos) {
+		this.best = best;
+		this.fitness = fitness;
+		this.generation = generation;
+		this.elapsedNanos = elapsedNanos;
+	}
+
+	/**
+	 * @param generation The number of generations run.
+	 * @param elapsedNanos The time elapsed since the solve started, in nanoseconds.
+	 * @return A snapshot with the same best individual, taken at a later generation.
+	 */
+	public SolverSnapshot advance(int generation, long elapsedNanos) {
+		return new SolverSnapshot(best, fitness, generation, elapsedNanos);
+	}
+
+	/**
+	 * @return A copy of the best individual found, made without writing to the copy held by the snapshot.
+	 */
+	public IIndividual getBest() {
+		return (IIndividual) best.clone();
+	}
+
+	/**
+	 * @return The fitness of the best individual found.
+	 */
+	public double getFitness() {
+		return fitness;
+	}
+
+	/**
+	 * @return The number of generations run when the snapshot was taken.
+	 */
+	public int getGeneration() {
+		return generation;
+	}
+
+	/**
+	 * @return The time elapsed since the solve started, in nanoseconds.
+	 */
+	public long getElapsedNanos() {
+		return elapsedNanos;
+	}
+
+	/**
+	 * @return A string representation of an object of type SolverSnapshot.
+	 */
+	@Override
+	public String toString() {
+		return "Generation " + generation + " after " + elapsedNanos / 1000000 + " ms:\n" + best;
+	}
+}
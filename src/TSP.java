@@ -1,15 +1,41 @@
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Random;
+import java.util.random.RandomGenerator;
 
 /**
  * This class represents the data structure which holds a TSP representation.
  * This class implements the interface IIndividual
+ * The fitness is evaluated lazily: a TSP whose tour was built or changed is marked dirty, and the length of the tour
+ * is only computed when the fitness is first read.
+ * The list of cities is copied on write: clones and the childs passed through a crossover share the list of their parent,
+ * marked as shared, and an operator which changes a shared list copies it first. So selection, elitism and pass-through
+ * copy no cities, and only the individuals which are actually changed get a list of their own.
+ * The crossover is order crossover unless setCrossOver changes it to partially mapped or cycle crossover, and it is
+ * passed on to the childs. It runs over the ids of the cities when every city has one.
  */
 public class TSP implements IIndividual {
+	/**
+	 * The crossover operators of a TSP.
+	 */
+	public enum CrossOver {
+		/** Order crossover (OX1). */
+		ORDER,
+		/** Partially mapped crossover (PMX). */
+		PARTIALLY_MAPPED,
+		/** Cycle crossover (CX). */
+		CYCLE
+	}
+
+
 	private List<City> Representation;
 	private double fitness;
+	private boolean dirty;
+	private long signature;
+	private boolean hashed;
+	private IDistance distances;
+	private CrossOver crossOver = CrossOver.ORDER;
+	private boolean shared;
 	
 	/**
 	 * @param Representation The list of cities.
@@ -30,11 +56,61 @@ public class TSP implements IIndividual {
 	}
 	
 	/**
+	 * The fitness is computed when it is first read.
 	 * @param a A list of cities.
 	 */
 	public TSP(List<City> a) {
 		this.Representation=a;
-		calculateFitness();
+		this.dirty=true;
+	}
+	
+	/**
+	 * The fitness is computed when it is first read.
+	 * @param a A list of cities.
+	 * @param distances The strategy which gives the distances between the cities, or null to compute them from their locations.
+	 */
+	public TSP(List<City> a, IDistance distances) {
+		this.Representation=a;
+		this.distances=distances;
+		this.dirty=true;
+	}
+	
+	/**
+	 * @return The strategy which gives the distances between the cities, or null if they are computed from their locations.
+	 */
+	public IDistance getDistances() {
+		return distances;
+	}
+	
+	/**
+	 * Change the strategy which gives the distances between the cities. The fitness is recalculated when it is next read.
+	 * @param distances The strategy to be set, or null to compute the distances from the locations of the cities.
+	 */
+	public void setDistances(IDistance distances) {
+		this.distances = distances;
+		this.dirty = true;
+	}
+	
+	/**
+	 * @return The crossover operator of the TSP.
+	 */
+	public CrossOver getCrossOver() {
+		return crossOver;
+	}
+	
+	/**
+	 * Change the crossover operator, which is passed on to the childs.
+	 * @param crossOver The crossover operator to be set.
+	 */
+	public void setCrossOver(CrossOver crossOver) {
+		this.crossOver = crossOver;
+	}
+	
+	/**
+	 * @return The distance between two cities, given by the distance strategy of the TSP if it has one.
+	 */
+	private double distance(City a, City b) {
+		return distances == null ? a.getDistance(b) : distances.distance(a, b);
 	}
 	
 	/**
@@ -43,12 +119,13 @@ public class TSP implements IIndividual {
 	public void calculateFitness(){
 		double fitness=0;
 		for(int i=0;i<Representation.size()-1;i++) {
-			fitness += Representation.get(i).getDistance(Representation.get(i+1));
+			fitness += distance(Representation.get(i), Representation.get(i+1));
 		}
-		fitness += Representation.get(Representation.size()-1).getDistance(Representation.get(0));
+		fitness += distance(Representation.get(Representation.size()-1), Representation.get(0));
 		if(fitness == 0)
 			throw new IllegalArgumentException("Fitness can not be 0!");
-		this.fitness=1/fitness;}
+		this.fitness=1/fitness;
+		this.dirty=false;}
 	
 	/**
 	 * @return The list of cities that represent the path of the TSP.
@@ -58,26 +135,85 @@ public class TSP implements IIndividual {
 	}
 	
 	/**
-	 * @return The fitness value of the TSP.
+	 * @return The fitness value of the TSP, which is calculated first if the TSP is dirty.
 	 */
 	public double getFitness() {
+		if(dirty) calculateFitness();
 		return fitness;
 	}
 	
+	/**
+	 * @return True If the fitness value is up to date, else False.
+	 */
+	@Override
+	public boolean isEvaluated() {
+		return !dirty;
+	}
+	
 	/**
 	 * Sets the fitness value of the TSP accordingly.
 	 * @param fitness The fitness value to be set.
 	 */
 	public void setFitness(double fitness) {
 		this.fitness = fitness;
+		this.dirty = false;
 	}
 	
 	/**
-	 * Changes the list of cities of the TSP accordingly.
+	 * Changes the list of cities of the TSP accordingly. The fitness is recalculated when it is next read.
 	 * @param cities The list of the cities to be set. 
 	 */
 	public void setRepresentation(List<City> cities) {
 		this.Representation=cities;
+		this.shared=false;
+		this.hashed=false;
+		this.dirty=true;
+	}
+
+	/**
+	 * @return True If the list of cities may be shared with other individuals, so it is copied before it is changed, else False.
+	 */
+	public boolean isShared() {
+		return shared;
+	}
+
+	/**
+	 * Copies the list of cities if it is shared, so that it can be changed without affecting other individuals.
+	 */
+	private void own() {
+		if(shared) {
+			Representation = new ArrayList<City>(Representation);
+			shared = false;
+		}
+	}
+
+	/**
+	 * @return A new TSP which shares the list of cities, the fitness and the signature of this TSP. Both are marked as shared.
+	 * A TSP which is already shared is only read, so the copy held by a SolverSnapshot may be cloned from any thread.
+	 */
+	private TSP share() {
+		TSP newTSP = new TSP(Representation, distances);
+		newTSP.crossOver = crossOver;
+		newTSP.fitness = fitness;
+		newTSP.dirty = dirty;
+		newTSP.signature = signature;
+		newTSP.hashed = hashed;
+		newTSP.shared = true;
+		if(!shared) shared = true;
+		return newTSP;
+	}
+
+	/**
+	 * The signature is computed on the first call and then kept up to date by the mutation operators.
+	 * @return The hash of the tour, which is the same for its rotations and for its reflection.
+	 */
+	@Override
+	public long getSignature() {
+		if(!hashed) {
+			signature = TourHash.hash(Representation);
+			hashed = true;
+		}
+		return signature;
 	}
 
 	/**
@@ -86,15 +222,15 @@ public class TSP implements IIndividual {
 	@Override
 	public int compareTo(IIndividual o) {
 		TSP a = (TSP) o;
-		return (int) Math.signum(a.fitness-fitness);
+		return (int) Math.signum(a.getFitness()-getFitness());
 	}
 	
 	/**
-	 * Returns a new instance of TSP where its representation has been permuted.
+	 * Returns a new instance of TSP where its representation has been permuted, whose fitness is computed when it is first read.
 	 * @return A new instance of type TSP
 	 */
 	@Override
-	public TSP permutation(Random generator){
+	public TSP permutation(RandomGenerator generator){
 		int i,randomNumber;
 		City temp;
 		ArrayList<City> newIndividuals = new ArrayList<City>();
@@ -107,64 +243,104 @@ public class TSP implements IIndividual {
 			newIndividuals.set(i, newIndividuals.get(randomNumber));
 			newIndividuals.set(randomNumber, temp);
 		}
-		return new TSP(newIndividuals,fitness);
+		TSP newTSP = new TSP(newIndividuals,distances);
+		newTSP.crossOver = crossOver;
+		return newTSP;
 	}
 	
 	/**
 	 * @return A new instance of the type TSP and initializes all its fields
 	 * with exactly the same contents of the corresponding fields of the TSP object which called the method.
+	 * The list of cities is shared until either TSP changes it.
 	 */
 	@Override
 	public Object clone(){
-		TSP newTSP = new TSP();
-		List<City> cities = new ArrayList<City>();
-		for(City city : Representation) {
-			cities.add(city);
-		}
-		newTSP.setRepresentation(cities);
-		newTSP.setFitness(fitness);
-		return newTSP;
+		return share();
 	}
 	
 	/**
 	 * @return A new instance of type TSP. The representation of TSP may be mutated, by swapping
 	 * consecutive two cities of the TSP's representation, according to a given probability.
+	 * The cities are swapped in the list of this TSP, which is copied first if it is shared, and the new instance shares it.
+	 * If no cities were swapped, the new instance keeps the fitness value.
 	 */
 	@Override
-	public TSP twoBitSwapMutationFull(Random ran,double mutationProbability) {
+	public TSP twoBitSwapMutationFull(RandomGenerator ran,double mutationProbability) {
 		int i;
 		City temp;
 		double d;
 		for(i = 0; i < Representation.size()-1; i++) {
 			d = ran.nextDouble();
 			if(d < mutationProbability) {
-				temp = Representation.get(i);
-				Representation.set(i, Representation.get(i+1));
-				Representation.set(i+1, temp);
+				own();
+				dirty = true;
+				if(hashed) {
+					signature = TourHash.swap(Representation, i, i+1, signature);
+				}
+				else {
+					temp = Representation.get(i);
+					Representation.set(i, Representation.get(i+1));
+					Representation.set(i+1, temp);
+				}
 			}
 		}
-		return new TSP(Representation);
+		return share();
 	}
 	
 	/**
 	 * @return A new instance of the implementing type, which may be mutated, by swapping
 	 * two cities of the TSP's representation.
+	 * The cities are swapped in the list of this TSP, which is copied first if it is shared, and the new instance shares it.
+	 * If no cities were swapped, the new instance keeps the fitness value.
 	 */
 	@Override
-	public TSP twoBitSwapMutation(Random ran,double mutationProbability) {
+	public TSP twoBitSwapMutation(RandomGenerator ran,double mutationProbability) {
 		if(ran.nextDouble() < mutationProbability) {
 			int i = (int) Math.round(ran.nextDouble()*(getRepresentation().size()-1));
 			int j = (int) Math.round(ran.nextDouble()*(getRepresentation().size()-1));
-			City gene = Representation.get(i);
-			Representation.set(i, Representation.get(j));
-			Representation.set(j, gene);
+			own();
+			dirty = true;
+			if(hashed) {
+				signature = TourHash.swap(Representation, i, j, signature);
+			}
+			else {
+				City gene = Representation.get(i);
+				Representation.set(i, Representation.get(j));
+				Representation.set(j, gene);
+			}
 		}
-		return new TSP(Representation);
+		return share();
+	}
+	
+	/**
+	 * @param ran The random number generator.
+	 * @return A new instance of TSP where two distinct cities of the representation were swapped, so it always
+	 * differs from this TSP if it has at least two cities.
+	 * The cities are swapped in the list of this TSP, which is copied first if it is shared, and the new instance shares it.
+	 */
+	public TSP swapMutation(RandomGenerator ran) {
+		int n = Representation.size();
+		if(n > 1) {
+			int i = ran.nextInt(n), j = ran.nextInt(n - 1);
+			if(j >= i) j++;
+			own();
+			dirty = true;
+			if(hashed) {
+				signature = TourHash.swap(Representation, i, j, signature);
+			}
+			else {
+				City gene = Representation.get(i);
+				Representation.set(i, Representation.get(j));
+				Representation.set(j, gene);
+			}
+		}
+		return share();
 	}
 	
 	/**
 	 * The elements between start and end are copied to the childs representation.
 	 * Afterwards the sequence is filled up with the elements 
+	 * When every city of both fathers has an id, the crossover is done by IndexCrossover over the ids, without hashing the cities.
 	 * @param start The starting point of the sequence 
 	 * @param end The end point of the sequence.
 	 * @param ran The Random number generator.
@@ -172,7 +348,14 @@ public class TSP implements IIndividual {
 	 * @param father2 The second father envolved in the crossover.
 	 * @return An instance of type TSP, resulting from the order crossover.
 	 */
-	public TSP orderOneCrossOver(int start, int end,Random ran,TSP child, TSP father2) {
+	public TSP orderOneCrossOver(int start, int end,RandomGenerator ran,TSP child, TSP father2) {
+		int n = Representation.size();
+		IndexCrossover scratch = IndexCrossover.get();
+		int[] first = scratch.buffer(0, n), second = scratch.buffer(1, n), result = scratch.buffer(2, n);
+		if(scratch.indices(Representation, first) && scratch.indices(father2.Representation, second)) {
+			scratch.orderOne(first, second, n, start, end, result);
+			return fill(scratch, result, n, child);
+		}
 		int i;
 		HashSet<City> sequence = new HashSet<City>();
 		for(i = 0; i < Representation.size(); i++) {
@@ -192,38 +375,134 @@ public class TSP implements IIndividual {
 			}
 			i = (i +1) % Representation.size();
 		}
+		child.dirty = true;
 		return child;
 	}
 	
 	/**
-	 * If the two fathers are not selected for crossover, then the resulting offspring contains a copy of the fathers.
-	 * Else, orderCrossOver will occur.
+	 * Partially mapped crossover, or cycle crossover if start is negative, done by IndexCrossover. Cities without ids
+	 * are numbered by their position in this TSP first.
+	 * @param start The starting point of the sequence, or -1 for cycle crossover.
+	 * @param end The end point of the sequence.
+	 * @param child The resulting child.
+	 * @param father2 The second father envolved in the crossover.
+	 * @return An instance of type TSP, resulting from the crossover.
+	 */
+	private TSP indexCrossOver(int start, int end, TSP child, TSP father2) {
+		int n = Representation.size();
+		IndexCrossover scratch = IndexCrossover.get();
+		int[] first = scratch.buffer(0, n), second = scratch.buffer(1, n), result = scratch.buffer(2, n);
+		if(!scratch.indices(Representation, first) || !scratch.indices(father2.Representation, second)) {
+			scratch.number(Representation, father2.Representation, first, second);
+		}
+		if(start < 0) scratch.cycle(first, second, n, result);
+		else scratch.partiallyMapped(first, second, n, start, end, result);
+		return fill(scratch, result, n, child);
+	}
+	
+	/**
+	 * Appends the cities with the given ids to the representation of the child, which is marked dirty.
+	 */
+	private static TSP fill(IndexCrossover scratch, int[] result, int n, TSP child) {
+		for(int k = 0; k < n; k++) {
+			child.Representation.add(scratch.getCity(result[k]));
+		}
+		child.dirty = true;
+		return child;
+	}
+	
+	/**
+	 * If the two fathers are not selected for crossover, then the resulting offspring contains a copy of the fathers,
+	 * which shares their lists of cities and keeps their fitness values.
+	 * Else, the crossover of this TSP will occur: order crossover unless setCrossOver changed it.
 	 * @return A list of the resulting offspring between two instances of TSP, given a probability.
 	 */
 	@Override
-	public List<IIndividual> crossOver(Random ran,double crossOverProbability,IIndividual father2) {
+	public List<IIndividual> crossOver(RandomGenerator ran,double crossOverProbability,IIndividual father2) {
 		List<IIndividual> childs = new ArrayList<IIndividual>();
 		TSP secondFather = (TSP) father2;
 		if(ran.nextDouble() < crossOverProbability) {
-			TSP child1 = new TSP();
-			TSP child2 = new TSP();
-			int firstPoint = (int) Math.round( ran.nextDouble()*(Representation.size()-1) );
-			int secondPoint = (int) Math.round( ran.nextDouble()*(Representation.size()-1) );
+			int n = Representation.size();
+			TSP child1 = new TSP(new ArrayList<City>(n), distances);
+			TSP child2 = new TSP(new ArrayList<City>(n), distances);
+			child1.crossOver = crossOver;
+			child2.crossOver = crossOver;
+			if(crossOver == CrossOver.CYCLE) {
+				childs.add(indexCrossOver(-1,-1,child1,secondFather));
+				childs.add(secondFather.indexCrossOver(-1,-1,child2,this));
+				return childs;
+			}
+			int firstPoint = (int) Math.round( ran.nextDouble()*(n-1) );
+			int secondPoint = (int) Math.round( ran.nextDouble()*(n-1) );
 			int start = Math.min(firstPoint, secondPoint);
 			int end = Math.max(firstPoint, secondPoint);
-			childs.add(orderOneCrossOver(start,end,ran,child1,secondFather));
-			childs.add(secondFather.orderOneCrossOver(start,end,ran,child2,this));
+			if(crossOver == CrossOver.PARTIALLY_MAPPED) {
+				childs.add(indexCrossOver(start,end,child1,secondFather));
+				childs.add(secondFather.indexCrossOver(start,end,child2,this));
+			}
+			else {
+				childs.add(orderOneCrossOver(start,end,ran,child1,secondFather));
+				childs.add(secondFather.orderOneCrossOver(start,end,ran,child2,this));
+			}
 		}
 		else {
-			childs.add(new TSP(Representation));
-			childs.add(new TSP(secondFather.Representation));
+			childs.add(share());
+			childs.add(secondFather.share());
 		}
 		return childs;
 	}
 	
+	/**
+	 * Inserts a city between the two consecutive cities of the tour where it adds the least length, and
+	 * updates the fitness, if it is up to date, and the signature by the change of length instead of recalculating them.
+	 * The list of cities is copied first, since it may be shared with other individuals.
+	 * @param city The city to be inserted.
+	 */
+	public void insertCity(City city) {
+		int n = Representation.size(), position = n;
+		double cheapest = Double.POSITIVE_INFINITY;
+		for(int i = 0; i < n; i++) {
+			City a = Representation.get(i), b = Representation.get((i+1) % n);
+			double cost = distance(a, city) + distance(city, b) - distance(a, b);
+			if(cost < cheapest) {
+				cheapest = cost;
+				position = i+1;
+			}
+		}
+		City a = Representation.get(position-1), b = Representation.get(position % n);
+		if(hashed) {
+			signature += TourHash.edgeKey(a, city) + TourHash.edgeKey(city, b) - TourHash.edgeKey(a, b);
+		}
+		Representation = new ArrayList<City>(Representation);
+		shared = false;
+		Representation.add(position, city);
+		if(!dirty) fitness = 1/(1/fitness + cheapest);
+	}
+	
+	/**
+	 * Removes a city from the tour, joining its two neighbours, and updates the fitness, if it is up to date, and the signature
+	 * by the change of length instead of recalculating them.
+	 * The list of cities is copied first, since it may be shared with other individuals.
+	 * @param city The city to be removed.
+	 */
+	public void removeCity(City city) {
+		int n = Representation.size(), position = Representation.indexOf(city);
+		if(position < 0)
+			throw new IllegalArgumentException("The city " + city + " is not in the tour!");
+		City a = Representation.get((position-1+n) % n), b = Representation.get((position+1) % n);
+		if(hashed) {
+			signature += TourHash.edgeKey(a, b) - TourHash.edgeKey(a, city) - TourHash.edgeKey(city, b);
+		}
+		double saving = distance(a, city) + distance(city, b) - distance(a, b);
+		Representation = new ArrayList<City>(Representation);
+		shared = false;
+		Representation.remove(position);
+		if(!dirty) fitness = 1/(1/fitness - saving);
+	}
+	
 	/**
 	 * @return True If the two TSP's representations are equal, i.e, if the list of cities are the same, and if
-	 * TSP's fitness values are equal, else False.
+	 * TSP's fitness values are equal when both are evaluated, else False. Neither fitness is calculated.
 	 */
 	@Override
 	public boolean equals(Object o) {
@@ -231,7 +510,8 @@ public class TSP implements IIndividual {
 		if(o == this) return true;
 		if(getClass() != o.getClass()) return false;
 		TSP a = (TSP) o;
-		return (Representation.equals(a.Representation) && fitness == a.fitness);
+		if(!Representation.equals(a.Representation)) return false;
+		return dirty || a.dirty || fitness == a.fitness;
 	}
 	
 	/**
@@ -242,7 +522,7 @@ public class TSP implements IIndividual {
 		for(int i=0;i<Representation.size();i++) {
 			a+= Representation.get(i) +"->";
 		}
-		a+= Representation.get(0) + "\n"+ "Path length: " + 1/fitness;
+		a+= Representation.get(0) + "\n"+ "Path length: " + 1/getFitness();
 		return a;
 	}
 		
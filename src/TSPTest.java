@@ -7,7 +7,7 @@ import java.util.Random;
 import org.junit.jupiter.api.Test;
 
 /**
- * This class tests the twoBitSwapMutation, calculateFitness, crossOver,
+ * This class tests the twoBitSwapMutation, calculateFitness, crossOver, equals,
  * permutation and clone method of a TSP.
  */
 class TSPTest {
@@ -194,4 +194,47 @@ class TSPTest {
 		assertTrue(test.equals(test.clone()));
 	}
 	
+	@Test
+	void testCloneSharesUntilWrite() {
+		List<City> a = new ArrayList<City>();
+		City a1 = new City("Andre",new PointTwoDimensions(1,2));
+		City a2 = new City("Paulo",new PointTwoDimensions(3,4));
+		City a3 = new City("Pires",new PointTwoDimensions(5,6));
+		City a4 = new City("Henri",new PointTwoDimensions(7,8));
+		a.add(a1);a.add(a2);a.add(a3);a.add(a4);
+		TSP test = new TSP(a);
+		double fitness = test.getFitness();
+		TSP copy = (TSP) test.clone();
+		assertSame(test.getRepresentation(), copy.getRepresentation());
+		assertTrue(copy.isShared() && test.isShared());
+		assertTrue(copy.isEvaluated());
+
+		TSP mutated = copy.twoBitSwapMutation(new Random(0), 1);
+		assertNotSame(test.getRepresentation(), copy.getRepresentation());
+		assertSame(copy.getRepresentation(), mutated.getRepresentation());
+		assertEquals(a, test.getRepresentation());
+		assertEquals(fitness, test.getFitness());
+		assertFalse(mutated.isEvaluated());
+
+		List<IIndividual> childs = test.crossOver(new Random(0), 0, copy);
+		assertSame(test.getRepresentation(), ((TSP) childs.get(0)).getRepresentation());
+		assertSame(copy.getRepresentation(), ((TSP) childs.get(1)).getRepresentation());
+		assertTrue(childs.get(0).isEvaluated());
+	}
+
+	@Test
+	void testEqualsDoesNotEvaluate() {
+		List<City> a = new ArrayList<City>();
+		a.add(new City("Andre",new PointTwoDimensions(1,2)));
+		a.add(new City("Paulo",new PointTwoDimensions(3,4)));
+		a.add(new City("Pires",new PointTwoDimensions(5,6)));
+		TSP test = new TSP(a, (x, y) -> { throw new IllegalStateException(); });
+		TSP other = new TSP(new ArrayList<City>(a), test.getDistances());
+		assertTrue(test.equals(other));
+		assertFalse(test.isEvaluated() || other.isEvaluated());
+		List<City> b = new ArrayList<City>(a);
+		b.remove(0);
+		assertFalse(test.equals(new TSP(b, test.getDistances())));
+	}
+	
 }
\ No newline at end of file
@@ -0,0 +1,115 @@
+import java.util.List;
+
+/**
+ * This class provides a Zobrist style hash of tours.
+ * Every undirected edge gets a pseudo random 64-bit key, derived from the hash codes of its two cities,
+ * and the hash of a tour is the sum of the keys of its edges. Since a tour, its rotations and its reflection
+ * have the same edges, they have the same hash.
+ * Swapping two cities changes at most four edges and reversing a segment changes two, so the hash is
+ * updated in constant time under those moves.
+ */
+public class TourHash {
+	private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+	/**
+	 * @param city A city.
+	 * @return The key of the city.
+	 */
+	public static long cityKey(City city) {
+		return RandomStreams.mix(city.hashCode() * GOLDEN_GAMMA + GOLDEN_GAMMA);
+	}
+
+	/**
+	 * @param a A city.
+	 * @param b Another city.
+	 * @return The key of the undirected edge between the two cities.
+	 */
+	public static long edgeKey(City a, City b) {
+		return RandomStreams.mix(cityKey(a) ^ cityKey(b));
+	}
+
+	/**
+	 * @param tour A list of cities.
+	 * @return The hash of the tour.
+	 */
+	public static long hash(List<City> tour) {
+		long hash = 0;
+		for(int i = 0; i < tour.size(); i++) {
+			hash += edge(tour, i);
+		}
+		return hash;
+	}
+
+	/**
+	 * Swaps two cities of the tour.
+	 * @param tour A list of cities.
+	 * @param i The position of the first city.
+	 * @param j The position of the second city.
+	 * @param hash The hash of the tour before the swap.
+	 * @return The hash of the tour after the swap.
+	 */
+	public static long swap(List<City> tour, int i, int j, long hash) {
+		int n = tour.size();
+		if(i == j || n < 2) return hash;
+		int[] affected = {(i - 1 + n) % n, i, (j - 1 + n) % n, j};
+		for(int k = 0; k < affected.length; k++) {
+			if(isFirst(affected, k)) hash -= edge(tour, affected[k]);
+		}
+		City temp = tour.get(i);
+		tour.set(i, tour.get(j));
+		tour.set(j, temp);
+		for(int k = 0; k < affected.length; k++) {
+			if(isFirst(affected, k)) hash += edge(tour, affected[k]);
+		}
+		return hash;
+	}
+
+	/**
+	 * Reverses the segment of the tour between two positions, inclusive.
+	 * @param tour A list of cities.
+	 * @param i The position where the segment starts.
+	 * @param j The position where the segment ends, not smaller than i.
+	 * @param hash The hash of the tour before the reversal.
+	 * @return The hash of the tour after the reversal.
+	 */
+	public static long reverse(List<City> tour, int i, int j, long hash) {
+		int n = tour.size();
+		if(j - i < 1 || j - i >= n - 1) {
+			reverseSegment(tour, i, j);
+			return hash;
+		}
+		int before = (i - 1 + n) % n;
+		hash -= edge(tour, before) + edge(tour, j);
+		reverseSegment(tour, i, j);
+		return hash + edge(tour, before) + edge(tour, j);
+	}
+
+	/**
+	 * Reverses the cities between two positions, inclusive, in place.
+	 */
+	private static void reverseSegment(List<City> tour, int i, int j) {
+		City temp;
+		for(; i < j; i++, j--) {
+			temp = tour.get(i);
+			tour.set(i, tour.get(j));
+			tour.set(j, temp);
+		}
+	}
+
+	/**
+	 * @return The key of the edge which leaves the given position.
+	 */
+	private static long edge(List<City> tour, int position) {
+		return edgeKey(tour.get(position), tour.get((position + 1) % tour.size()));
+	}
+
+	/**
+	 * @return True If the element at k does not appear earlier in the array, else False.
+	 */
+	private static boolean isFirst(int[] values, int k) {
+		for(int i = 0; i < k; i++) {
+			if(values[i] == values[k]) return false;
+		}
+		return true;
+	}
+}
@@ -0,0 +1,116 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * This class tests that the hash of a TourHash is canonical and correctly updated by swaps and reversals,
+ * and that replaceWith eliminates duplicates.
+ */
+class TourHashTest {
+
+	private List<City> cities(int n) {
+		List<City> a = new ArrayList<City>();
+		for(int i=0; i<n;i++) {
+			a.add(new City("Andre" + i,new PointTwoDimensions(i,i*i)));
+		}
+		return a;
+	}
+
+	@Test
+	void testRotationAndReflection() {
+		List<City> a = cities(9);
+		long hash = TourHash.hash(a);
+		List<City> b = new ArrayList<City>(a);
+		Collections.rotate(b,4);
+		assertEquals(hash,TourHash.hash(b));
+		Collections.reverse(b);
+		assertEquals(hash,TourHash.hash(b));
+		Collections.swap(b,0,3);
+		assertNotEquals(hash,TourHash.hash(b));
+	}
+
+	@Test
+	void testIncrementalUpdates() {
+		Random generator = new Random(0);
+		List<City> a = cities(7);
+		long hash = TourHash.hash(a);
+		for(int k=0;k<200;k++) {
+			int i = generator.nextInt(7), j = generator.nextInt(7);
+			if(k % 2 == 0) {
+				hash = TourHash.swap(a,i,j,hash);
+			}
+			else hash = TourHash.reverse(a,Math.min(i,j),Math.max(i,j),hash);
+			assertEquals(TourHash.hash(a),hash);
+		}
+	}
+
+	@Test
+	void testMutationKeepsSignature() {
+		Random generator = new Random(0);
+		TSP test = new TSP(cities(10));
+		test.getSignature();
+		for(int k=0;k<50;k++) {
+			test = test.twoBitSwapMutation(generator,0.9);
+			assertEquals(TourHash.hash(test.getRepresentation()),test.getSignature());
+		}
+	}
+
+	@Test
+	void testReplaceWithRejectsDuplicates() {
+		Random generator = new Random(0);
+		TSP first = new TSP(cities(8));
+		Population old = new Population(first,generator,8);
+		old.enableDuplicateElimination(null);
+		old.replaceWith(new Population(first,8),1);
+		int copies = 0;
+		for(IIndividual e : old.getPopulation()) {
+			if(e.getSignature() == first.getSignature()) copies++;
+		}
+		assertEquals(1,copies);
+		assertEquals(8,old.getDuplicates());
+		assertEquals(1.0,old.getDuplicateRate());
+	}
+
+	@Test
+	void testReplaceWithPerturbsDuplicates() {
+		Random generator = new Random(0);
+		TSP first = new TSP(cities(8));
+		Population old = new Population(first,generator,8);
+		old.enableDuplicateElimination(new Random(1));
+		old.replaceWith(new Population(first,8),1);
+		for(int i=0;i<8;i++) {
+			for(int j=i+1;j<8;j++) {
+				assertNotEquals(old.getPopulation().get(i).getSignature(),old.getPopulation().get(j).getSignature());
+			}
+		}
+	}
+
+	@Test
+	void testSwapMutationAlwaysChanges() {
+		Random generator = new Random(0);
+		TSP test = new TSP(cities(3));
+		for(int k=0;k<50;k++) {
+			test.getSignature();
+			List<City> before = new ArrayList<City>(test.getRepresentation());
+			test = test.swapMutation(generator);
+			assertNotEquals(before,test.getRepresentation());
+			assertEquals(TourHash.hash(test.getRepresentation()),test.getSignature());
+		}
+	}
+
+	@Test
+	void testSetPopulationKeepsDuplicateElimination() {
+		Random generator = new Random(0);
+		TSP first = new TSP(cities(8));
+		GeneticAlgorithm test = new GeneticAlgorithm(first,generator,8,0.05,0.8,0.5,10,2);
+		test.eliminateDuplicates(true);
+		test.setPopulation(new Population(first,generator,8));
+		assertTrue(test.getPopulation().isDuplicateEliminationEnabled());
+		assertSame(generator,test.getPopulation().getPerturbation());
+	}
+}
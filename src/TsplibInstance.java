@@ -0,0 +1,187 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class represents a symmetric instance of TSPLIB, read from a .tsp file with a NODE_COORD_SECTION.
+ * This class implements the interface IDistance with the rounded distances of TSPLIB, so that tour lengths
+ * can be compared with the published optima. The edge weight types EUC_2D, CEIL_2D, ATT and GEO are supported.
+ * The cities are located by PointTwoDimensions, and each one has its position in the file as id, by which the
+ * distances are looked up. Besides the published optima of well known instances, a file may state the length of an
+ * optimal tour in an OPTIMUM entry of its header, which is not part of TSPLIB.
+ */
+public class TsplibInstance implements IDistance {
+	private static final Map<String,Double> OPTIMA = new HashMap<String,Double>();
+	static {
+		OPTIMA.put("burma14", 3323.0);
+		OPTIMA.put("ulysses22", 7013.0);
+		OPTIMA.put("att48", 10628.0);
+		OPTIMA.put("eil51", 426.0);
+		OPTIMA.put("berlin52", 7542.0);
+		OPTIMA.put("st70", 675.0);
+		OPTIMA.put("eil76", 538.0);
+		OPTIMA.put("pr76", 108159.0);
+		OPTIMA.put("kroA100", 21282.0);
+		OPTIMA.put("kroB100", 22141.0);
+		OPTIMA.put("rd100", 7910.0);
+		OPTIMA.put("eil101", 629.0);
+		OPTIMA.put("lin105", 14379.0);
+		OPTIMA.put("ch130", 6110.0);
+		OPTIMA.put("ch150", 6528.0);
+		OPTIMA.put("kroA200", 29368.0);
+		OPTIMA.put("a280", 2579.0);
+		OPTIMA.put("lin318", 42029.0);
+		OPTIMA.put("pcb442", 50778.0);
+		OPTIMA.put("rat783", 8806.0);
+		OPTIMA.put("pr1002", 259045.0);
+	}
+
+	private String name, type;
+	private List<City> cities;
+	private double[] x, y;
+	private double optimum;
+
+	private TsplibInstance(String name, String type, List<City> cities, double[] x, double[] y, double optimum) {
+		this.name = name;
+		this.type = type;
+		this.cities = cities;
+		this.x = x;
+		this.y = y;
+		this.optimum = optimum;
+	}
+
+	/**
+	 * Reads an instance from a .tsp file.
+	 * @param file The file of the instance.
+	 * @return The instance.
+	 * @throws IOException If the file can not be read, or it is not a supported instance.
+	 */
+	public static TsplibInstance read(Path file) throws IOException {
+		String name = file.getFileName().toString().replaceFirst("\\.tsp$", ""), type = "EUC_2D";
+		int dimension = -1;
+		double optimum = Double.NaN;
+		List<String> lines = Files.readAllLines(file);
+		int line = 0;
+		for(; line < lines.size(); line++) {
+			String l = lines.get(line).trim();
+			if(l.startsWith("NODE_COORD_SECTION")) break;
+			int colon = l.indexOf(':');
+			if(colon < 0) continue;
+			String key = l.substring(0, colon).trim(), value = l.substring(colon + 1).trim();
+			if(key.equals("NAME")) name = value;
+			else if(key.equals("TYPE") && !value.equals("TSP"))
+				throw new IOException(file + " is of type " + value + ", but only TSP is supported!");
+			else if(key.equals("DIMENSION")) dimension = Integer.parseInt(value);
+			else if(key.equals("EDGE_WEIGHT_TYPE")) type = value;
+			else if(key.equals("OPTIMUM")) optimum = Double.parseDouble(value);
+		}
+		if(!type.equals("EUC_2D") && !type.equals("CEIL_2D") && !type.equals("ATT") && !type.equals("GEO"))
+			throw new IOException(file + " has edge weight type " + type + ", which is not supported!");
+		if(line == lines.size() || dimension < 0)
+			throw new IOException(file + " has no DIMENSION or no NODE_COORD_SECTION!");
+		List<City> cities = new ArrayList<City>(dimension);
+		double[] x = new double[dimension], y = new double[dimension];
+		for(line++; line < lines.size() && cities.size() < dimension; line++) {
+			String[] fields = lines.get(line).trim().split("\\s+");
+			if(fields[0].equals("EOF")) break;
+			if(fields.length < 3) continue;
+			int i = cities.size();
+			x[i] = Double.parseDouble(fields[1]);
+			y[i] = Double.parseDouble(fields[2]);
+			cities.add(new City(i, fields[0], new PointTwoDimensions(x[i], y[i])));
+		}
+		if(cities.size() != dimension)
+			throw new IOException(file + " has " + cities.size() + " cities, but its DIMENSION is " + dimension + "!");
+		if(type.equals("GEO")) {
+			for(int i = 0; i < dimension; i++) {
+				x[i] = radians(x[i]);
+				y[i] = radians(y[i]);
+			}
+		}
+		if(Double.isNaN(optimum)) optimum = getOptimum(name);
+		return new TsplibInstance(name, type, cities, x, y, optimum);
+	}
+
+	/**
+	 * @return The angle in radians of a coordinate given as degrees.minutes, the way TSPLIB converts it.
+	 */
+	private static double radians(double coordinate) {
+		double degrees = (int) coordinate, minutes = coordinate - degrees;
+		return 3.141592 * (degrees + 5.0 * minutes / 3.0) / 180.0;
+	}
+
+	/**
+	 * @return The name of the instance.
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * @return The edge weight type of the instance.
+	 */
+	public String getType() {
+		return type;
+	}
+
+	/**
+	 * @return The cities, in the order of the file.
+	 */
+	public List<City> getCities() {
+		return cities;
+	}
+
+	/**
+	 * @return The length of an optimal tour, as stated by the file or else as published, or NaN if it is not known.
+	 */
+	public double getOptimum() {
+		return optimum;
+	}
+
+	/**
+	 * @param name The name of a TSPLIB instance.
+	 * @return The published length of an optimal tour of the instance, or NaN if it is not known.
+	 */
+	public static double getOptimum(String name) {
+		Double optimum = OPTIMA.get(name);
+		return optimum == null ? Double.NaN : optimum;
+	}
+
+	/**
+	 * @return The distance between two cities of the instance, rounded as TSPLIB defines it for the edge weight type.
+	 */
+	@Override
+	public double distance(City a, City b) {
+		int i = a.getId(), j = b.getId();
+		if(i < 0 || i >= x.length || j < 0 || j >= x.length)
+			throw new IllegalArgumentException("The city " + (i < 0 || i >= x.length ? a : b) + " is not in the instance!");
+		return distance(i, j);
+	}
+
+	/**
+	 * @return The distance between the cities with the given ids, rounded as TSPLIB defines it for the edge weight type.
+	 */
+	@Override
+	public double distance(int i, int j) {
+		double dx = x[i] - x[j], dy = y[i] - y[j];
+		switch(type) {
+			case "CEIL_2D":
+				return Math.ceil(Math.sqrt(dx * dx + dy * dy));
+			case "ATT": {
+				double r = Math.sqrt((dx * dx + dy * dy) / 10.0), t = Math.floor(r + 0.5);
+				return t < r ? t + 1 : t;
+			}
+			case "GEO": {
+				if(i == j) return 0;
+				double q1 = Math.cos(y[i] - y[j]), q2 = Math.cos(x[i] - x[j]), q3 = Math.cos(x[i] + x[j]);
+				return (int) (6378.388 * Math.acos(0.5 * ((1.0 + q1) * q2 - (1.0 - q1) * q3)) + 1.0);
+			}
+			default:
+				return Math.floor(Math.sqrt(dx * dx + dy * dy) + 0.5);
+		}
+	}
+}
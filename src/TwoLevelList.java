@@ -0,0 +1,286 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * This class represents a tour as a two-level doubly-linked list, so that local search and inversion operators can
+ * run on tours of hundreds of thousands of cities.
+ * The tour is cut into segments of about sqrt(n) cities. Each segment keeps its cities in an array with a reversed bit,
+ * and the segments are kept in tour order, so a segment is reversed by flipping its bit instead of moving its cities.
+ * Reversing a path splits the segments at its two ends and reverses the order and the bits of the segments in between,
+ * or of the segments outside the path, whichever are fewer, flipping the orientation of the whole tour in the latter case.
+ * So next, prev, between and reverse cost O(sqrt(n)), where a flat list costs O(n) per reversal. The segments get
+ * shorter and more numerous with every split, so they are rebuilt once their number doubles, which keeps the cost
+ * amortized.
+ * The cities are identified by their position in the list the tour was built from.
+ */
+public class TwoLevelList {
+
+	/**
+	 * A run of consecutive cities of the tour.
+	 */
+	private static class Segment {
+		int[] cities;
+		boolean reversed;
+		int rank, start;
+
+		Segment(int[] cities) {
+			this.cities = cities;
+		}
+
+		/**
+		 * @return The city at a position of the segment, in the order of the tour.
+		 */
+		int get(int i) {
+			return cities[reversed ? cities.length - 1 - i : i];
+		}
+	}
+
+	private City[] cities;
+	private HashMap<City,Integer> ids;
+	private Segment[] segmentOf;
+	private int[] offset;
+	private ArrayList<Segment> segments = new ArrayList<Segment>();
+	private boolean reversed;
+	private int groups;
+
+	/**
+	 * @param tour The list of cities in the order of the tour, which is not changed.
+	 */
+	public TwoLevelList(List<City> tour) {
+		int n = tour.size();
+		cities = tour.toArray(new City[0]);
+		ids = new HashMap<City,Integer>(2 * n);
+		for(int i = 0; i < n; i++) {
+			if(ids.put(cities[i], i) != null)
+				throw new IllegalArgumentException("The city " + cities[i] + " is twice in the tour!");
+		}
+		segmentOf = new Segment[n];
+		offset = new int[n];
+		int[] order = new int[n];
+		for(int i = 0; i < n; i++) {
+			order[i] = i;
+		}
+		rebuild(order);
+	}
+
+	/**
+	 * @return The number of cities.
+	 */
+	public int getSize() {
+		return cities.length;
+	}
+
+	/**
+	 * @param id The identifier of a city.
+	 * @return The city.
+	 */
+	public City getCity(int id) {
+		return cities[id];
+	}
+
+	/**
+	 * @param city A city of the tour.
+	 * @return The identifier of the city, which is its position in the list the tour was built from.
+	 */
+	public int getId(City city) {
+		Integer id = ids.get(city);
+		if(id == null)
+			throw new IllegalArgumentException("The city " + city + " is not in the tour!");
+		return id;
+	}
+
+	/**
+	 * @param id The identifier of a city.
+	 * @return The identifier of the city which follows it in the tour.
+	 */
+	public int next(int id) {
+		return reversed ? step(id, -1) : step(id, 1);
+	}
+
+	/**
+	 * @param id The identifier of a city.
+	 * @return The identifier of the city which precedes it in the tour.
+	 */
+	public int prev(int id) {
+		return reversed ? step(id, 1) : step(id, -1);
+	}
+
+	/**
+	 * @return The city one step away in the order of the segments, forwards or backwards.
+	 */
+	private int step(int id, int direction) {
+		Segment s = segmentOf[id];
+		int i = position(id) + direction;
+		if(i >= 0 && i < s.cities.length) return s.get(i);
+		int count = segments.size();
+		Segment t = segments.get((s.rank + direction + count) % count);
+		return t.get(direction > 0 ? 0 : t.cities.length - 1);
+	}
+
+	/**
+	 * @return The position of a city inside its segment, in the order of the segments.
+	 */
+	private int position(int id) {
+		Segment s = segmentOf[id];
+		return s.reversed ? s.cities.length - 1 - offset[id] : offset[id];
+	}
+
+	/**
+	 * @return The position of a city in the tour, in the order of the segments.
+	 */
+	private int index(int id) {
+		return segmentOf[id].start + position(id);
+	}
+
+	/**
+	 * @param a The identifier of the first city.
+	 * @param b The identifier of the second city.
+	 * @param c The identifier of the third city.
+	 * @return True If b is on the path which goes forward from a to c, both included, else False.
+	 */
+	public boolean between(int a, int b, int c) {
+		int n = cities.length, ia = index(a), ib = index(b), ic = index(c);
+		if(reversed) {
+			ia = n - 1 - ia;
+			ib = n - 1 - ib;
+			ic = n - 1 - ic;
+		}
+		return Math.floorMod(ib - ia, n) <= Math.floorMod(ic - ia, n);
+	}
+
+	/**
+	 * Reverses the path which goes forward from a to b, so that prev(a) is followed by b and a by the former next(b).
+	 * @param a The identifier of the first city of the path.
+	 * @param b The identifier of the last city of the path.
+	 */
+	public void reverse(int a, int b) {
+		int from = reversed ? b : a, to = reversed ? a : b;
+		split(from);
+		Segment last = segmentOf[to];
+		int i = position(to);
+		if(i + 1 < last.cities.length) split(last.get(i + 1));
+		int count = segments.size();
+		int first = segmentOf[from].rank, end = segmentOf[to].rank, length = Math.floorMod(end - first, count) + 1;
+		if(2 * length > count) {
+			first = (end + 1) % count;
+			end = (segmentOf[from].rank - 1 + count) % count;
+			length = count - length;
+			reversed = !reversed;
+		}
+		if(length > 0) reverseSegments(first, length);
+		if(segments.size() > 2 * groups) rebuild(toIds());
+	}
+
+	/**
+	 * Reverses the order and the bits of a cyclic range of segments. Since the range may wrap around the first segment,
+	 * the ranks and starts of every segment are then updated, which costs O(sqrt(n)) like the rest of a reversal.
+	 */
+	private void reverseSegments(int first, int length) {
+		int count = segments.size();
+		for(int i = 0, j = length - 1; i < j; i++, j--) {
+			int x = (first + i) % count, y = (first + j) % count;
+			Segment temp = segments.get(x);
+			segments.set(x, segments.get(y));
+			segments.set(y, temp);
+		}
+		for(int i = 0; i < length; i++) {
+			Segment s = segments.get((first + i) % count);
+			s.reversed = !s.reversed;
+		}
+		renumber(0);
+	}
+
+	/**
+	 * Updates the ranks and starts of the segments from a given rank on.
+	 */
+	private void renumber(int from) {
+		int start = from == 0 ? 0 : segments.get(from - 1).start + segments.get(from - 1).cities.length;
+		for(int k = from; k < segments.size(); k++) {
+			Segment s = segments.get(k);
+			s.rank = k;
+			s.start = start;
+			start += s.cities.length;
+		}
+	}
+
+	/**
+	 * Splits the segment of a city so that the city is the first of its segment, in the order of the segments.
+	 */
+	private void split(int id) {
+		Segment s = segmentOf[id];
+		int i = position(id), length = s.cities.length;
+		if(i == 0) return;
+		int[] head = new int[i], tail = new int[length - i];
+		for(int k = 0; k < length; k++) {
+			if(k < i) head[k] = s.get(k);
+			else tail[k - i] = s.get(k);
+		}
+		Segment t = new Segment(tail);
+		s.cities = head;
+		s.reversed = false;
+		segments.add(s.rank + 1, t);
+		renumber(s.rank + 1);
+		place(s);
+		place(t);
+	}
+
+	/**
+	 * Points the cities of a segment to it.
+	 */
+	private void place(Segment s) {
+		for(int k = 0; k < s.cities.length; k++) {
+			segmentOf[s.cities[k]] = s;
+			offset[s.cities[k]] = k;
+		}
+	}
+
+	/**
+	 * Cuts the tour into segments of about sqrt(n) cities, none of them reversed.
+	 */
+	private void rebuild(int[] order) {
+		int n = order.length, size = Math.max(1, (int) Math.ceil(Math.sqrt(n)));
+		segments.clear();
+		reversed = false;
+		for(int from = 0; from < n; from += size) {
+			Segment s = new Segment(Arrays.copyOfRange(order, from, Math.min(from + size, n)));
+			segments.add(s);
+			place(s);
+		}
+		renumber(0);
+		groups = Math.max(segments.size(), 1);
+	}
+
+	/**
+	 * @return The identifiers of the cities in the order of the tour, starting at the first city of the list the tour was built from.
+	 */
+	public int[] toIds() {
+		int n = cities.length;
+		int[] order = new int[n];
+		for(int k = 0, id = 0; k < n; k++, id = next(id)) {
+			order[k] = id;
+		}
+		return order;
+	}
+
+	/**
+	 * @return The cities in the order of the tour, starting at the first city of the list the tour was built from,
+	 * which is the flat encoding of a TSP.
+	 */
+	public List<City> toList() {
+		List<City> tour = new ArrayList<City>(cities.length);
+		for(int id : toIds()) {
+			tour.add(cities[id]);
+		}
+		return tour;
+	}
+
+	/**
+	 * Writes the tour back to a TSP, whose fitness is recalculated when it is next read.
+	 * @param tour The TSP to be changed.
+	 */
+	public void writeTo(TSP tour) {
+		tour.setRepresentation(toList());
+	}
+}
@@ -0,0 +1,87 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * This class tests the next, prev, between and reverse methods of a TwoLevelList against a flat list,
+ * and the local search of NeighbourTwoOpt on it.
+ */
+class TwoLevelListTest {
+
+	private List<City> cities(int n) {
+		Random random = new Random(0);
+		List<City> cities = new ArrayList<City>();
+		for(int i=0;i<n;i++) {
+			cities.add(new City(i,"Andre" + i,new PointTwoDimensions(random.nextDouble()*100,random.nextDouble()*100)));
+		}
+		return cities;
+	}
+
+	/**
+	 * Reverses the path which goes forward from a to b in a flat list.
+	 */
+	private void reverse(List<City> tour, City a, City b) {
+		int n = tour.size(), i = tour.indexOf(a), length = Math.floorMod(tour.indexOf(b) - i, n) + 1;
+		for(int k=0;k<length/2;k++) {
+			Collections.swap(tour,(i+k)%n,(i+length-1-k)%n);
+		}
+	}
+
+	@Test
+	void testReverse() {
+		Random random = new Random(0);
+		List<City> flat = cities(150);
+		TwoLevelList test = new TwoLevelList(flat);
+		flat = new ArrayList<City>(flat);
+		for(int move=0;move<2000;move++) {
+			int a = random.nextInt(150), b = random.nextInt(150);
+			test.reverse(a,b);
+			reverse(flat,test.getCity(a),test.getCity(b));
+			int n = flat.size(), first = flat.indexOf(test.getCity(0));
+			for(int k=0;k<10;k++) {
+				int c = random.nextInt(150), i = flat.indexOf(test.getCity(c));
+				assertSame(flat.get((i+1)%n),test.getCity(test.next(c)));
+				assertSame(flat.get((i-1+n)%n),test.getCity(test.prev(c)));
+			}
+			int x = random.nextInt(150), y = random.nextInt(150), z = random.nextInt(150);
+			int ix = flat.indexOf(test.getCity(x)), iy = flat.indexOf(test.getCity(y)), iz = flat.indexOf(test.getCity(z));
+			assertEquals(Math.floorMod(iy-ix,n) <= Math.floorMod(iz-ix,n),test.between(x,y,z));
+			if(move % 100 == 0) {
+				Collections.rotate(flat,-first);
+				assertEquals(flat,test.toList());
+			}
+		}
+	}
+
+	@Test
+	void testWriteTo() {
+		List<City> cities = cities(5);
+		TSP tour = new TSP(new ArrayList<City>(cities));
+		TwoLevelList test = new TwoLevelList(tour.getRepresentation());
+		assertEquals(3,test.getId(cities.get(3)));
+		test.reverse(1,3);
+		test.writeTo(tour);
+		List<City> result = new ArrayList<City>();
+		result.add(cities.get(0));result.add(cities.get(3));result.add(cities.get(2));result.add(cities.get(1));result.add(cities.get(4));
+		assertEquals(result,tour.getRepresentation());
+		assertFalse(tour.isEvaluated());
+	}
+
+	@Test
+	void testTwoOptLarge() {
+		List<City> cities = cities(400);
+		NeighbourDistanceStore store = new NeighbourDistanceStore(cities,10);
+		TSP tour = new TSP(new ArrayList<City>(cities),store);
+		TSP result = NeighbourTwoOpt.improveLarge(tour,store);
+		assertEquals(new HashSet<City>(cities),new HashSet<City>(result.getRepresentation()));
+		assertEquals(cities,tour.getRepresentation());
+		assertTrue(result.getFitness() > 5*tour.getFitness());
+		assertEquals(result.getFitness(),NeighbourTwoOpt.improve(result,store).getFitness(),1e-12);
+	}
+}
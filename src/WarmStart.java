@@ -0,0 +1,115 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+/**
+ * This class provides the re-optimization of a problem from a previous solution of a slightly different instance.
+ * The previous tour is repaired, dropping the cities which were removed and inserting the ones which were added
+ * at their cheapest position, and the new population is seeded with the repaired tour and perturbed variants of it.
+ */
+public class WarmStart {
+
+	/**
+	 * @param priorTour The tour found for the previous instance.
+	 * @param cities The cities of the current instance.
+	 * @return A tour of the current cities, which keeps the order of the cities of the prior tour that are still present
+	 * and has each new city inserted where it increases the length of the tour the least.
+	 */
+	public static List<City> repair(List<City> priorTour, List<City> cities) {
+		HashMap<City,City> current = new HashMap<City,City>();
+		for(City c : cities) {
+			current.put(c, c);
+		}
+		List<City> tour = new ArrayList<City>();
+		for(City c : priorTour) {
+			City match = current.remove(c);
+			if(match != null) tour.add(match);
+		}
+		for(City c : cities) {
+			if(current.containsKey(c)) {
+				insertCheapest(tour, c);
+			}
+		}
+		return tour;
+	}
+
+	/**
+	 * Inserts a city between the two consecutive cities of the tour where it adds the least length.
+	 * @param tour A list of cities.
+	 * @param city The city to be inserted.
+	 */
+	public static void insertCheapest(List<City> tour, City city) {
+		int n = tour.size(), position = n;
+		double cheapest = Double.POSITIVE_INFINITY;
+		for(int i = 0; i < n; i++) {
+			City a = tour.get(i), b = tour.get((i + 1) % n);
+			double cost = a.getDistance(city) + city.getDistance(b) - a.getDistance(b);
+			if(cost < cheapest) {
+				cheapest = cost;
+				position = i + 1;
+			}
+		}
+		tour.add(position, city);
+	}
+
+	/**
+	 * @param tour A list of cities.
+	 * @param generator The random number generator.
+	 * @param strength The maximum number of random segment reversals.
+	 * @return A copy of the tour where between 1 and strength random segments were reversed.
+	 */
+	public static List<City> perturb(List<City> tour, RandomGenerator generator, int strength) {
+		List<City> variant = new ArrayList<City>(tour);
+		int moves = 1 + generator.nextInt(Math.max(strength, 1));
+		for(int k = 0; k < moves && variant.size() > 2; k++) {
+			int i = generator.nextInt(variant.size()), j = generator.nextInt(variant.size());
+			Collections.reverse(variant.subList(Math.min(i, j), Math.max(i, j) + 1));
+		}
+		return variant;
+	}
+
+	/**
+	 * @param priorTour The tour found for the previous instance.
+	 * @param cities The cities of the current instance.
+	 * @param generator The random number generator.
+	 * @param populationSize The size of the population.
+	 * @param strength The maximum number of random segment reversals of each variant.
+	 * @return A population with the repaired tour and populationSize-1 perturbed variants of it.
+	 */
+	public static Population seed(List<City> priorTour, List<City> cities, RandomGenerator generator, int populationSize, int strength) {
+		List<City> repaired = repair(priorTour, cities);
+		List<IIndividual> members = new ArrayList<IIndividual>();
+		members.add(new TSP(repaired));
+		while(members.size() < populationSize) {
+			members.add(new TSP(perturb(repaired, generator, strength)));
+		}
+		return new Population(members);
+	}
+
+	/**
+	 * @param prior The population of the previous instance, whose individuals are tours.
+	 * @param cities The cities of the current instance.
+	 * @param generator The random number generator.
+	 * @param populationSize The size of the population.
+	 * @param strength The maximum number of random segment reversals of each variant.
+	 * @return A population with the repaired tours of the prior population, completed with perturbed variants of them
+	 * or cut to the size of the population. If the prior population is empty, it is seeded from the cities in their given order.
+	 */
+	public static Population seed(Population prior, List<City> cities, RandomGenerator generator, int populationSize, int strength) {
+		if(prior.getPopulation().isEmpty()) return seed(cities, cities, generator, populationSize, strength);
+		List<List<City>> repaired = new ArrayList<List<City>>();
+		for(IIndividual e : prior.getPopulation()) {
+			repaired.add(repair(((TSP) e).getRepresentation(), cities));
+		}
+		List<IIndividual> members = new ArrayList<IIndividual>();
+		for(int i = 0; i < repaired.size() && members.size() < populationSize; i++) {
+			members.add(new TSP(repaired.get(i)));
+		}
+		for(int i = 0; members.size() < populationSize; i++) {
+			members.add(new TSP(perturb(repaired.get(i % repaired.size()), generator, strength)));
+		}
+		return new Population(members);
+	}
+}
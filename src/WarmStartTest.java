@@ -0,0 +1,57 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * This class tests the repair and seed methods of WarmStart.
+ */
+class WarmStartTest {
+
+	@Test
+	void testRepair() {
+		City a1 = new City("Andre",new PointTwoDimensions(0,0));
+		City a2 = new City("Paulo",new PointTwoDimensions(10,0));
+		City a3 = new City("Pires",new PointTwoDimensions(10,10));
+		City a4 = new City("Henri",new PointTwoDimensions(0,10));
+		City a5 = new City("AnPa",new PointTwoDimensions(5,11));
+		List<City> prior = new ArrayList<City>();
+		prior.add(a1);prior.add(a2);prior.add(a3);prior.add(a4);
+		List<City> current = new ArrayList<City>();
+		current.add(new City("Andre",new PointTwoDimensions(0,0)));current.add(a3);current.add(a4);current.add(a5);
+		List<City> result = WarmStart.repair(prior,current);
+		List<City> expected = new ArrayList<City>();
+		expected.add(current.get(0));expected.add(a3);expected.add(a5);expected.add(a4);
+		assertEquals(expected,result);
+		assertSame(current.get(0),result.get(0));
+	}
+
+	@Test
+	void testSeed() {
+		List<City> prior = new ArrayList<City>();
+		for(int i=0;i<20;i++) {
+			prior.add(new City("Andre" + i,new PointTwoDimensions(Math.cos(i*0.3),Math.sin(i*0.3))));
+		}
+		List<City> current = new ArrayList<City>(prior.subList(2,20));
+		current.add(new City("New",new PointTwoDimensions(1.1,0)));
+		Population seeded = WarmStart.seed(prior,current,new Random(0),16,3);
+		assertEquals(16,seeded.getSize());
+		for(IIndividual e : seeded.getPopulation()) {
+			assertEquals(new HashSet<City>(current),new HashSet<City>(((TSP)e).getRepresentation()));
+			assertEquals(19,((TSP)e).getRepresentation().size());
+		}
+		double repaired = seeded.getPopulation().get(0).getFitness();
+		GeneticAlgorithm test = new GeneticAlgorithm(seeded,new Random(0),0.01,0.7,0.5,20,2);
+		assertTrue(test.solveWithTournament().getFitness() >= repaired);
+		Population empty = WarmStart.seed(new Population(),current,new Random(0),8,3);
+		assertEquals(8,empty.getSize());
+		assertEquals(current,((TSP)empty.getPopulation().get(0)).getRepresentation());
+		for(IIndividual e : empty.getPopulation()) {
+			assertEquals(new HashSet<City>(current),new HashSet<City>(((TSP)e).getRepresentation()));
+		}
+	}
+}